@@ -0,0 +1,90 @@
+// k6 load test comparing platform-thread and virtual-thread request handling.
+//
+// Start the backend twice and run this script against each:
+//   platform threads: mvn spring-boot:run
+//   virtual threads:  VIRTUAL_THREADS=true mvn -Pvirtual-threads spring-boot:run   (Java 21)
+//
+//   k6 run -e BASE_URL=http://localhost:8081 -e MODE=platform loadtest/virtual-threads.js
+//   k6 run -e BASE_URL=http://localhost:8081 -e MODE=virtual  loadtest/virtual-threads.js
+//
+// Each stage holds 1k, 5k and then 10k concurrent clients. The summary written to
+// loadtest/results-<MODE>.json has throughput and p99 per stage for side-by-side comparison.
+import http from 'k6/http';
+import { check } from 'k6';
+import { Trend, Counter } from 'k6/metrics';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8081';
+const MODE = __ENV.MODE || 'platform';
+const RESTAURANT_ID = __ENV.RESTAURANT_ID || 1;
+const MENU_ITEM_ID = __ENV.MENU_ITEM_ID || 1;
+
+const LEVELS = [1000, 5000, 10000];
+
+const latency = {};
+const requests = {};
+for (const level of LEVELS) {
+  latency[level] = new Trend(`latency_${level}`, true);
+  requests[level] = new Counter(`requests_${level}`);
+}
+
+export const options = {
+  scenarios: Object.fromEntries(LEVELS.map((level, i) => [
+    `clients_${level}`,
+    {
+      executor: 'constant-vus',
+      vus: level,
+      duration: '60s',
+      startTime: `${i * 75}s`,
+      env: { LEVEL: String(level) },
+      gracefulStop: '10s',
+    },
+  ])),
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+const orderBody = JSON.stringify({
+  restaurantId: Number(RESTAURANT_ID),
+  items: [{ menuItemId: Number(MENU_ITEM_ID), quantity: 1 }],
+  delivery: {
+    customerName: 'Load Test',
+    customerPhone: '+1 (555) 000-0000',
+    deliveryAddress: '1 Test St',
+    deliveryCity: 'Testville',
+    deliveryState: 'TS',
+    deliveryZip: '00000',
+  },
+  payment: { paymentMethod: 'CARD' },
+});
+
+export default function () {
+  const level = __ENV.LEVEL;
+  // Mostly browse traffic with a share of order placement, as at dinner peak
+  const res = Math.random() < 0.2
+    ? http.post(`${BASE_URL}/api/orders`, orderBody, { headers: { 'Content-Type': 'application/json' } })
+    : http.get(`${BASE_URL}/api/menu-items/restaurant/${RESTAURANT_ID}`);
+
+  latency[level].add(res.timings.duration);
+  requests[level].add(1);
+  check(res, { 'status is 2xx': (r) => r.status >= 200 && r.status < 300 });
+}
+
+export function handleSummary(data) {
+  const result = { mode: MODE, levels: {} };
+  for (const level of LEVELS) {
+    const trend = data.metrics[`latency_${level}`];
+    const count = data.metrics[`requests_${level}`];
+    if (!trend || !count) {
+      continue;
+    }
+    result.levels[level] = {
+      requests: count.values.count,
+      throughputPerSecond: count.values.count / 60,
+      p50Ms: trend.values['p(50)'],
+      p99Ms: trend.values['p(99)'],
+    };
+  }
+  return {
+    [`loadtest/results-${MODE}.json`]: JSON.stringify(result, null, 2),
+    stdout: JSON.stringify(result, null, 2) + '\n',
+  };
+}
@@ -0,0 +1,114 @@
+package com.tastetrack.benchmark;
+
+import com.tastetrack.TasteTrackApplication;
+import com.tastetrack.dto.DeliveryRequest;
+import com.tastetrack.dto.LoginRequest;
+import com.tastetrack.dto.OrderItemRequest;
+import com.tastetrack.dto.OrderRequest;
+import com.tastetrack.dto.PaymentRequest;
+import com.tastetrack.entity.MenuItem;
+import com.tastetrack.entity.Restaurant;
+import com.tastetrack.entity.User;
+import com.tastetrack.repository.UserRepository;
+import com.tastetrack.service.MenuItemService;
+import com.tastetrack.service.OrderService;
+import com.tastetrack.service.RestaurantService;
+import com.tastetrack.service.UserService;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boots the application once per trial against the embedded database and seeds a catalog
+ * of restaurants, menu items and a customer account.
+ */
+@State(Scope.Benchmark)
+public class ApplicationState {
+    static final int RESTAURANTS = 50;
+    static final int ITEMS_PER_RESTAURANT = 40;
+    static final String PASSWORD = "benchmark-password";
+
+    private static final String[] CUISINES = {"Italian", "Japanese", "Indian", "Mexican", "Thai"};
+    private static final String[] DISHES = {"Pizza", "Pasta", "Sushi", "Curry", "Tacos", "Noodles", "Salad", "Burger"};
+    private static final String[] CATEGORIES = {"Mains", "Starters", "Desserts", "Drinks"};
+
+    ConfigurableApplicationContext context;
+    OrderService orderService;
+    MenuItemService menuItemService;
+    RestaurantService restaurantService;
+    UserService userService;
+
+    Long userId;
+    Long restaurantId;
+    OrderRequest orderRequest;
+    LoginRequest loginRequest;
+
+    @Setup
+    public void start() {
+        context = new SpringApplicationBuilder(TasteTrackApplication.class)
+                .profiles("benchmark")
+                .run();
+        orderService = context.getBean(OrderService.class);
+        menuItemService = context.getBean(MenuItemService.class);
+        restaurantService = context.getBean(RestaurantService.class);
+        userService = context.getBean(UserService.class);
+        seed();
+    }
+
+    @TearDown
+    public void stop() {
+        context.close();
+    }
+
+    private void seed() {
+        User user = new User();
+        user.setFirstName("Bench");
+        user.setLastName("Mark");
+        user.setEmail("benchmark@tastetrack.com");
+        user.setPassword(context.getBean(PasswordEncoder.class).encode(PASSWORD));
+        userId = context.getBean(UserRepository.class).save(user).getId();
+
+        List<Long> menuItemIds = new ArrayList<>();
+        for (int r = 0; r < RESTAURANTS; r++) {
+            Restaurant restaurant = new Restaurant();
+            restaurant.setName(CUISINES[r % CUISINES.length] + " " + DISHES[r % DISHES.length] + " House " + r);
+            restaurant.setCuisine(CUISINES[r % CUISINES.length]);
+            restaurant.setRating(3.0 + (r % 20) / 10.0);
+            restaurant.setDeliveryTime("25-35 min");
+            restaurant.setMinOrder(10.0);
+            restaurant.setAddress(r + " Market Street");
+            restaurant = restaurantService.createRestaurant(restaurant);
+            if (restaurantId == null) {
+                restaurantId = restaurant.getId();
+            }
+
+            for (int i = 0; i < ITEMS_PER_RESTAURANT; i++) {
+                MenuItem item = new MenuItem();
+                item.setName("Spicy " + DISHES[i % DISHES.length] + " " + i);
+                item.setPrice(8.0 + i % 12);
+                item.setCategory(CATEGORIES[i % CATEGORIES.length]);
+                item.setRating(4.0);
+                item.setRestaurant(restaurant);
+                item = menuItemService.createMenuItem(item);
+                if (restaurant.getId().equals(restaurantId) && i < 3) {
+                    menuItemIds.add(item.getId());
+                }
+            }
+        }
+
+        orderRequest = new OrderRequest(restaurantId,
+                List.of(new OrderItemRequest(menuItemIds.get(0), 2),
+                        new OrderItemRequest(menuItemIds.get(1), 1),
+                        new OrderItemRequest(menuItemIds.get(2), 1)),
+                new DeliveryRequest("Bench Mark", "555-0100", "1 Main Street", "Springfield", "IL", "62701", null),
+                new PaymentRequest("CASH_ON_DELIVERY", null, null, null));
+        loginRequest = new LoginRequest(user.getEmail(), PASSWORD);
+    }
+}
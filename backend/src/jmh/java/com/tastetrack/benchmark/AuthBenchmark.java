@@ -0,0 +1,95 @@
+package com.tastetrack.benchmark;
+
+import com.tastetrack.dto.AuthResponse;
+import com.tastetrack.util.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue and verification, with and without the verified-token cache, and BCrypt
+ * password checks on their own and as part of a full login.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthBenchmark {
+    @State(Scope.Benchmark)
+    public static class Tokens {
+        // 0 disables the verified-token cache, so every call decodes and checks the signature
+        @Param({"10000", "0"})
+        public String cacheEntries;
+
+        AnnotationConfigApplicationContext context;
+        JwtUtil jwtUtil;
+        String token;
+
+        @Setup
+        public void start() {
+            context = new AnnotationConfigApplicationContext();
+            context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("jwt", Map.of(
+                    "jwt.secret", "benchmarkSecretKeyForJWTTokenGenerationAndValidationAtLeast256Bits",
+                    "jwt.expiration", "86400000",
+                    "jwt.cache.max-entries", cacheEntries)));
+            context.register(JwtUtil.class);
+            context.refresh();
+            jwtUtil = context.getBean(JwtUtil.class);
+            token = jwtUtil.generateToken(1L, "benchmark@tastetrack.com", "CUSTOMER");
+        }
+
+        @TearDown
+        public void stop() {
+            context.close();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Passwords {
+        final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
+        String hash;
+
+        @Setup
+        public void start() {
+            hash = encoder.encode(ApplicationState.PASSWORD);
+        }
+    }
+
+    @Benchmark
+    public String issueToken(Tokens tokens) {
+        return tokens.jwtUtil.generateToken(1L, "benchmark@tastetrack.com", "CUSTOMER");
+    }
+
+    @Benchmark
+    public JwtUtil.VerifiedToken verifyToken(Tokens tokens) {
+        return tokens.jwtUtil.verify(tokens.token);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public boolean bcryptMatches(Passwords passwords) {
+        return passwords.encoder.matches(ApplicationState.PASSWORD, passwords.hash);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public AuthResponse login(ApplicationState app) {
+        return app.userService.login(app.loginRequest, "127.0.0.1");
+    }
+}
@@ -0,0 +1,62 @@
+package com.tastetrack.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares two JMH JSON result files, for example from two commits:
+ * <pre>
+ * mvn -Pbenchmarks compile exec:exec -Djmh.main=com.tastetrack.benchmark.BenchmarkComparison \
+ *     -Djmh.args="baseline.json target/jmh-result.json"
+ * </pre>
+ * Prints the score change of every benchmark present in both files. For average-time
+ * benchmarks a negative change is an improvement; for throughput benchmarks a positive one.
+ */
+public class BenchmarkComparison {
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: BenchmarkComparison <baseline.json> <candidate.json>");
+            System.exit(2);
+        }
+        Map<String, JsonNode> baseline = load(new File(args[0]));
+        Map<String, JsonNode> candidate = load(new File(args[1]));
+
+        System.out.printf("%-70s %14s %14s %9s  %s%n", "Benchmark", "Baseline", "Candidate", "Change", "Unit");
+        for (Map.Entry<String, JsonNode> entry : candidate.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            if (before == null) {
+                continue;
+            }
+            double base = before.path("primaryMetric").path("score").asDouble();
+            double current = entry.getValue().path("primaryMetric").path("score").asDouble();
+            double change = base == 0 ? 0 : (current - base) / base * 100;
+            System.out.printf("%-70s %14.3f %14.3f %+8.1f%%  %s%n", entry.getKey(), base, current, change,
+                    entry.getValue().path("primaryMetric").path("scoreUnit").asText());
+        }
+    }
+
+    private static Map<String, JsonNode> load(File file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            results.put(key(result), result);
+        }
+        return results;
+    }
+
+    private static String key(JsonNode result) {
+        StringBuilder key = new StringBuilder(result.path("benchmark").asText()
+                .replace("com.tastetrack.benchmark.", ""));
+        Iterator<Map.Entry<String, JsonNode>> params = result.path("params").fields();
+        while (params.hasNext()) {
+            Map.Entry<String, JsonNode> param = params.next();
+            key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText());
+        }
+        return key.toString();
+    }
+}
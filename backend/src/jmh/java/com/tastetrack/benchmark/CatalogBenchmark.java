@@ -0,0 +1,54 @@
+package com.tastetrack.benchmark;
+
+import com.tastetrack.entity.MenuItem;
+import com.tastetrack.entity.Restaurant;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Menu lookups with a warm and a cold menu cache, and restaurant search through the index.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CatalogBenchmark {
+    @State(Scope.Benchmark)
+    public static class SearchQuery {
+        @Param({"pizza", "ital", "spicy curry", "house 4"})
+        public String query;
+    }
+
+    @Benchmark
+    public List<MenuItem> menuByRestaurant(ApplicationState app) {
+        return app.menuItemService.getMenuItemsByRestaurant(app.restaurantId);
+    }
+
+    @Benchmark
+    public List<MenuItem> menuByCategory(ApplicationState app) {
+        return app.menuItemService.getMenuItemsByRestaurantAndCategory(app.restaurantId, "Mains");
+    }
+
+    @Benchmark
+    public List<MenuItem> menuByRestaurantUncached(ApplicationState app) {
+        app.menuItemService.invalidateMenuCache();
+        return app.menuItemService.getMenuItemsByRestaurant(app.restaurantId);
+    }
+
+    @Benchmark
+    public List<Restaurant> search(ApplicationState app, SearchQuery search) {
+        return app.restaurantService.searchRestaurants(search.query, 50);
+    }
+}
@@ -0,0 +1,103 @@
+package com.tastetrack.benchmark;
+
+import com.tastetrack.entity.Courier;
+import com.tastetrack.service.CourierPool;
+import com.tastetrack.service.DispatchMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One dispatch round with simulated couriers: a backlog of waiting orders from 2,000
+ * restaurants over a 50 km square is matched against the online fleet and recorded in the
+ * courier pool. Orders per round divided by the score gives assignments per second.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DispatchBenchmark {
+    static final int RESTAURANTS = 2_000;
+    static final double CENTER_LAT = 40.73;
+    static final double CENTER_LNG = -73.99;
+    static final double SPAN_DEGREES = 0.45;
+
+    @State(Scope.Thread)
+    public static class Round {
+        @Param({"1000", "10000"})
+        public int couriers;
+
+        @Param({"500", "5000"})
+        public int orders;
+
+        final DispatchMatcher matcher = new DispatchMatcher(1, 10, 1.5);
+        final SplittableRandom random = new SplittableRandom(42);
+        double[] restaurantLats;
+        double[] restaurantLngs;
+
+        CourierPool pool;
+        List<DispatchMatcher.Job> jobs;
+
+        @Setup(Level.Trial)
+        public void restaurants() {
+            restaurantLats = new double[RESTAURANTS];
+            restaurantLngs = new double[RESTAURANTS];
+            for (int r = 0; r < RESTAURANTS; r++) {
+                restaurantLats[r] = CENTER_LAT + (random.nextDouble() - 0.5) * SPAN_DEGREES;
+                restaurantLngs[r] = CENTER_LNG + (random.nextDouble() - 0.5) * SPAN_DEGREES;
+            }
+        }
+
+        // A fresh fleet and backlog each round, so every round assigns from scratch
+        @Setup(Level.Invocation)
+        public void next() {
+            pool = new CourierPool();
+            for (long id = 1; id <= couriers; id++) {
+                Courier courier = new Courier();
+                courier.setId(id);
+                courier.setCapacity(3);
+                courier.setLatitude(CENTER_LAT + (random.nextDouble() - 0.5) * SPAN_DEGREES);
+                courier.setLongitude(CENTER_LNG + (random.nextDouble() - 0.5) * SPAN_DEGREES);
+                pool.online(courier);
+            }
+            jobs = new ArrayList<>(orders);
+            long now = System.currentTimeMillis();
+            for (long orderId = 1; orderId <= orders; orderId++) {
+                int r = random.nextInt(RESTAURANTS);
+                jobs.add(new DispatchMatcher.Job(orderId, r + 1, restaurantLats[r], restaurantLngs[r],
+                        now - random.nextInt(600_000)));
+            }
+        }
+    }
+
+    @Benchmark
+    public int dispatchRound(Round round) {
+        List<DispatchMatcher.Assignment> assignments = round.matcher.match(round.jobs, round.pool.availableSlots());
+        int assigned = 0;
+        for (DispatchMatcher.Assignment assignment : assignments) {
+            List<Long> orderIds = new ArrayList<>(assignment.getOrderIds().length);
+            for (long orderId : assignment.getOrderIds()) {
+                orderIds.add(orderId);
+            }
+            if (round.pool.assign(assignment.getCourierId(), assignment.getRestaurantId(), orderIds)) {
+                assigned += orderIds.size();
+            }
+        }
+        return assigned;
+    }
+}
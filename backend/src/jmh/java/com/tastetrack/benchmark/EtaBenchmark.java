@@ -0,0 +1,89 @@
+package com.tastetrack.benchmark;
+
+import com.tastetrack.TasteTrackApplication;
+import com.tastetrack.entity.Order.OrderStatus;
+import com.tastetrack.service.DeliveryEtaEstimator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivery estimates at placement and the learning step at pickup and drop-off, with 1,000
+ * restaurants that already have a few weeks of observed orders.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EtaBenchmark {
+    static final int RESTAURANTS = 1_000;
+    static final int TRAINING_ORDERS = 200_000;
+
+    @State(Scope.Benchmark)
+    public static class Estimator {
+        ConfigurableApplicationContext context;
+        DeliveryEtaEstimator estimator;
+        final AtomicLong orderIds = new AtomicLong(1);
+        final LocalDateTime start = LocalDateTime.now().minusDays(21);
+
+        @Setup
+        public void start() {
+            context = new SpringApplicationBuilder(TasteTrackApplication.class)
+                    .profiles("benchmark")
+                    .run();
+            estimator = context.getBean(DeliveryEtaEstimator.class);
+
+            SplittableRandom random = new SplittableRandom(42);
+            for (int i = 0; i < TRAINING_ORDERS; i++) {
+                long restaurantId = 1 + random.nextInt(RESTAURANTS);
+                LocalDateTime placedAt = start.plusSeconds(random.nextLong(21 * 86_400L));
+                deliver(restaurantId, placedAt, 10 + random.nextInt(30), 8 + random.nextInt(25));
+            }
+        }
+
+        void deliver(long restaurantId, LocalDateTime placedAt, int prepMinutes, int transitMinutes) {
+            long orderId = orderIds.getAndIncrement();
+            estimator.track(orderId, restaurantId, placedAt, estimator.estimate(restaurantId, placedAt));
+            LocalDateTime pickedUpAt = placedAt.plusMinutes(prepMinutes);
+            estimator.recordStatusChange(orderId, OrderStatus.OUT_FOR_DELIVERY, pickedUpAt);
+            estimator.recordStatusChange(orderId, OrderStatus.DELIVERED, pickedUpAt.plusMinutes(transitMinutes));
+        }
+
+        @TearDown
+        public void stop() {
+            context.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Orders {
+        final SplittableRandom random = new SplittableRandom(7);
+    }
+
+    @Benchmark
+    public LocalDateTime estimateAtPlacement(Estimator state, Orders orders) {
+        return state.estimator.estimate(1L + orders.random.nextInt(RESTAURANTS), LocalDateTime.now());
+    }
+
+    @Benchmark
+    public void placePickUpAndDeliver(Estimator state, Orders orders) {
+        state.deliver(1L + orders.random.nextInt(RESTAURANTS), LocalDateTime.now().minusHours(1),
+                10 + orders.random.nextInt(30), 8 + orders.random.nextInt(25));
+    }
+}
@@ -0,0 +1,112 @@
+package com.tastetrack.benchmark;
+
+import com.tastetrack.TasteTrackApplication;
+import com.tastetrack.dto.NearbyRestaurant;
+import com.tastetrack.entity.Restaurant;
+import com.tastetrack.repository.RestaurantRepository;
+import com.tastetrack.service.RestaurantService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Nearby restaurant queries against 50k restaurants spread over a 50 km square, from
+ * random customer locations inside it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NearbyBenchmark {
+    static final int RESTAURANTS = 50_000;
+    static final double CENTER_LAT = 40.73;
+    static final double CENTER_LNG = -73.99;
+    static final double SPAN_DEGREES = 0.45;
+
+    private static final String[] CUISINES = {"Italian", "Japanese", "Indian", "Mexican", "Thai", "American", "Healthy", "BBQ"};
+
+    @State(Scope.Benchmark)
+    public static class Catalog {
+        @Param({"2", "5", "10"})
+        public double radiusKm;
+
+        ConfigurableApplicationContext context;
+        RestaurantService restaurantService;
+
+        @Setup
+        public void start() {
+            context = new SpringApplicationBuilder(TasteTrackApplication.class)
+                    .profiles("benchmark")
+                    .run();
+            restaurantService = context.getBean(RestaurantService.class);
+
+            Random random = new Random(42);
+            List<Restaurant> restaurants = new ArrayList<>(RESTAURANTS);
+            for (int r = 0; r < RESTAURANTS; r++) {
+                Restaurant restaurant = new Restaurant();
+                restaurant.setName("Restaurant " + r);
+                restaurant.setCuisine(CUISINES[r % CUISINES.length]);
+                restaurant.setRating(3.0 + (r % 20) / 10.0);
+                restaurant.setDeliveryTime("25-35 min");
+                restaurant.setMinOrder(10.0);
+                restaurant.setAddress(r + " Market Street");
+                restaurant.setLatitude(CENTER_LAT + (random.nextDouble() - 0.5) * SPAN_DEGREES);
+                restaurant.setLongitude(CENTER_LNG + (random.nextDouble() - 0.5) * SPAN_DEGREES);
+                restaurant.setIsOpen(r % 4 != 0);
+                restaurants.add(restaurant);
+            }
+            context.getBean(RestaurantRepository.class).saveAll(restaurants);
+            restaurantService.invalidateIndexes();
+            restaurantService.findNearbyRestaurants(CENTER_LAT, CENTER_LNG, 1, null, null, null, 1);
+        }
+
+        @TearDown
+        public void stop() {
+            context.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Location {
+        private final SplittableRandom random = new SplittableRandom(7);
+        double lat;
+        double lng;
+
+        @Setup(Level.Invocation)
+        public void next() {
+            lat = CENTER_LAT + (random.nextDouble() - 0.5) * SPAN_DEGREES;
+            lng = CENTER_LNG + (random.nextDouble() - 0.5) * SPAN_DEGREES;
+        }
+    }
+
+    @Benchmark
+    public List<NearbyRestaurant> openNearby(Catalog catalog, Location location) {
+        return catalog.restaurantService.findNearbyRestaurants(
+                location.lat, location.lng, catalog.radiusKm, true, null, null, 50);
+    }
+
+    @Benchmark
+    public List<NearbyRestaurant> filteredNearby(Catalog catalog, Location location) {
+        return catalog.restaurantService.findNearbyRestaurants(
+                location.lat, location.lng, catalog.radiusKm, true, "italian", 4.0, 50);
+    }
+}
@@ -0,0 +1,51 @@
+package com.tastetrack.benchmark;
+
+import com.tastetrack.service.SnowflakeOrderNumberGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Snowflake order numbers against the previous random-UUID prefix, single-threaded and contended.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderNumberBenchmark {
+    private final SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(1);
+
+    @Benchmark
+    public String snowflake() {
+        return generator.next();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String snowflakeContended() {
+        return generator.next();
+    }
+
+    @Benchmark
+    public String uuidPrefix() {
+        return "ORD" + UUID.randomUUID().toString().substring(0, 6).toUpperCase();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String uuidPrefixContended() {
+        return "ORD" + UUID.randomUUID().toString().substring(0, 6).toUpperCase();
+    }
+}
@@ -0,0 +1,74 @@
+package com.tastetrack.benchmark;
+
+import com.tastetrack.service.SnowflakeOrderNumberGenerator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Generates millions of order numbers from several simulated instances (one generator per
+ * node id) on many threads at once, then checks that every number is unique and that each
+ * thread saw its numbers in increasing order. Exits non-zero on any failure:
+ * <pre>
+ * mvn -Pbenchmarks compile exec:exec -Djmh.main=com.tastetrack.benchmark.OrderNumberCollisionCheck \
+ *     -Djmh.args="4 8 1000000"
+ * </pre>
+ * Arguments: nodes, threads per node, numbers per thread.
+ */
+public class OrderNumberCollisionCheck {
+    public static void main(String[] args) throws Exception {
+        int nodes = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int threadsPerNode = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        int perThread = args.length > 2 ? Integer.parseInt(args[2]) : 250_000;
+
+        ExecutorService pool = Executors.newFixedThreadPool(nodes * threadsPerNode);
+        List<Future<String[]>> futures = new ArrayList<>();
+        long started = System.nanoTime();
+        for (int node = 0; node < nodes; node++) {
+            SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(node);
+            for (int t = 0; t < threadsPerNode; t++) {
+                futures.add(pool.submit(() -> {
+                    String[] numbers = new String[perThread];
+                    for (int i = 0; i < perThread; i++) {
+                        numbers[i] = generator.next();
+                    }
+                    return numbers;
+                }));
+            }
+        }
+
+        String[] all = new String[nodes * threadsPerNode * perThread];
+        int offset = 0;
+        int unordered = 0;
+        for (Future<String[]> future : futures) {
+            String[] numbers = future.get();
+            for (int i = 1; i < numbers.length; i++) {
+                if (numbers[i].compareTo(numbers[i - 1]) <= 0) {
+                    unordered++;
+                }
+            }
+            System.arraycopy(numbers, 0, all, offset, numbers.length);
+            offset += numbers.length;
+        }
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        pool.shutdown();
+
+        Arrays.sort(all);
+        int duplicates = 0;
+        for (int i = 1; i < all.length; i++) {
+            if (all[i].equals(all[i - 1])) {
+                duplicates++;
+            }
+        }
+
+        System.out.printf("%d order numbers from %d nodes x %d threads in %d ms: %d duplicates, %d out of order%n",
+                all.length, nodes, threadsPerNode, elapsedMillis, duplicates, unordered);
+        if (duplicates > 0 || unordered > 0) {
+            System.exit(1);
+        }
+    }
+}
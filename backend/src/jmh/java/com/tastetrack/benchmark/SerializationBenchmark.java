@@ -0,0 +1,164 @@
+package com.tastetrack.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tastetrack.dto.OrderResponse;
+import com.tastetrack.entity.Delivery;
+import com.tastetrack.entity.MenuItem;
+import com.tastetrack.entity.Order;
+import com.tastetrack.entity.OrderItem;
+import com.tastetrack.entity.Payment;
+import com.tastetrack.entity.Restaurant;
+import com.tastetrack.entity.User;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of order graphs, both as raw entities and as the response DTOs the
+ * order endpoints return, using an object mapper configured like Spring Boot's. The payload
+ * size of each variant is reported as the "bytes" secondary metric.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+    @Param({"3", "25"})
+    public int itemCount;
+
+    private ObjectMapper objectMapper;
+    private Order order;
+    private List<Order> orders;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Payload {
+        public long bytes;
+    }
+
+    @Setup
+    public void start() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        order = order(1L);
+        orders = new ArrayList<>();
+        for (long id = 1; id <= 20; id++) {
+            orders.add(order(id));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeOrderEntity(Payload payload) throws JsonProcessingException {
+        return measure(payload, objectMapper.writeValueAsBytes(order));
+    }
+
+    @Benchmark
+    public byte[] serializeOrderEntityList(Payload payload) throws JsonProcessingException {
+        return measure(payload, objectMapper.writeValueAsBytes(orders));
+    }
+
+    @Benchmark
+    public byte[] serializeOrderResponse(Payload payload) throws JsonProcessingException {
+        return measure(payload, objectMapper.writeValueAsBytes(OrderResponse.from(order)));
+    }
+
+    @Benchmark
+    public byte[] serializeOrderResponseList(Payload payload) throws JsonProcessingException {
+        return measure(payload, objectMapper.writeValueAsBytes(OrderResponse.from(orders)));
+    }
+
+    private static byte[] measure(Payload payload, byte[] json) {
+        payload.bytes = json.length;
+        return json;
+    }
+
+    private Order order(Long id) {
+        User user = new User();
+        user.setId(1L);
+        user.setFirstName("Bench");
+        user.setLastName("Mark");
+        user.setEmail("benchmark@tastetrack.com");
+        user.setPassword("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z4Jk3uKSZL9H6uZ4Y0Ww5vyu");
+
+        Restaurant restaurant = new Restaurant();
+        restaurant.setId(1L);
+        restaurant.setName("Luigi's Italian Kitchen");
+        restaurant.setCuisine("Italian");
+        restaurant.setRating(4.5);
+        restaurant.setDeliveryTime("25-35 min");
+        restaurant.setMinOrder(10.0);
+        restaurant.setAddress("1 Market Street");
+
+        Order order = new Order();
+        order.setId(id);
+        order.setOrderNumber("ORD-" + id);
+        order.setUser(user);
+        order.setRestaurant(restaurant);
+        order.setDeliveryAddress("1 Main Street, Springfield, IL 62701");
+        order.setOrderDate(LocalDateTime.of(2024, 1, 1, 12, 0));
+        order.setEstimatedDelivery(order.getOrderDate().plusMinutes(45));
+
+        List<OrderItem> items = new ArrayList<>();
+        double total = 0;
+        for (int i = 0; i < itemCount; i++) {
+            MenuItem menuItem = new MenuItem();
+            menuItem.setId((long) i + 1);
+            menuItem.setName("Margherita Pizza " + i);
+            menuItem.setDescription("Fresh mozzarella, tomato sauce and basil");
+            menuItem.setPrice(12.99);
+            menuItem.setCategory("Pizza");
+            menuItem.setRating(4.6);
+            menuItem.setRestaurant(restaurant);
+
+            OrderItem item = new OrderItem();
+            item.setId((long) i + 1);
+            item.setOrder(order);
+            item.setMenuItem(menuItem);
+            item.setQuantity(1 + i % 3);
+            item.setPrice(menuItem.getPrice() * item.getQuantity());
+            items.add(item);
+            total += item.getPrice();
+        }
+        order.setItems(items);
+        order.setTotal(total);
+
+        Payment payment = new Payment();
+        payment.setId(id);
+        payment.setOrder(order);
+        payment.setPaymentMethod(Payment.PaymentMethod.CARD);
+        payment.setAmount(total);
+        payment.setStatus(Payment.PaymentStatus.COMPLETED);
+        payment.setPaymentDate(order.getOrderDate());
+        order.setPayment(payment);
+
+        Delivery delivery = new Delivery();
+        delivery.setId(id);
+        delivery.setOrder(order);
+        delivery.setCustomerName("Bench Mark");
+        delivery.setCustomerPhone("555-0100");
+        delivery.setDeliveryAddress("1 Main Street");
+        delivery.setDeliveryCity("Springfield");
+        delivery.setDeliveryState("IL");
+        delivery.setDeliveryZip("62701");
+        delivery.setStatus(Delivery.DeliveryStatus.CONFIRMED);
+        order.setDelivery(delivery);
+        return order;
+    }
+}
@@ -0,0 +1,116 @@
+package com.tastetrack.config;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that follows measured latency, gradient style. Every window of completed
+ * requests is compared with a slow-moving baseline kept per traffic class: while latency stays
+ * within the tolerance the limit grows by about its square root, and when requests start to
+ * queue it shrinks in proportion to the slowdown. Per-class baselines keep a shift in the mix,
+ * such as shedding fast browse requests, from reading as a slowdown.
+ */
+public class AdaptiveConcurrencyLimit {
+    // How far each window moves a class baseline towards its latest mean. It rises slowly so
+    // sustained overload does not become the new normal, and falls quickly once load eases.
+    private static final double BASELINE_RISE = 0.002;
+    private static final double BASELINE_FALL = 0.5;
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final int windowSize;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+
+    // Window and baseline state, guarded by this
+    private final double[] baselineNanos;
+    private final long[] windowNanos;
+    private final int[] windowCounts;
+    private int windowSamples;
+    private int windowMaxInFlight;
+
+    public AdaptiveConcurrencyLimit(int classes, int initialLimit, int minLimit, int maxLimit,
+                                    double tolerance, double smoothing, int windowSize) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.windowSize = Math.max(1, windowSize);
+        this.limit = Math.max(this.minLimit, Math.min(this.maxLimit, initialLimit));
+        this.baselineNanos = new double[classes];
+        this.windowNanos = new long[classes];
+        this.windowCounts = new int[classes];
+    }
+
+    /**
+     * Takes a slot if fewer than {@code share} of the current limit are in use. Lower priority
+     * classes pass a smaller share, so they are turned away first and leave headroom for the rest.
+     */
+    public boolean tryAcquire(double share) {
+        int allowed = Math.max(1, (int) (limit * share));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(int trafficClass, long latencyNanos) {
+        int concurrent = inFlight.getAndDecrement();
+        record(trafficClass, latencyNanos, concurrent);
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void record(int trafficClass, long latencyNanos, int concurrent) {
+        windowNanos[trafficClass] += latencyNanos;
+        windowCounts[trafficClass]++;
+        windowMaxInFlight = Math.max(windowMaxInFlight, concurrent);
+        if (++windowSamples < windowSize) {
+            return;
+        }
+
+        double expected = 0;
+        double actual = 0;
+        for (int i = 0; i < baselineNanos.length; i++) {
+            if (windowCounts[i] == 0) {
+                continue;
+            }
+            double mean = (double) windowNanos[i] / windowCounts[i];
+            if (baselineNanos[i] == 0) {
+                baselineNanos[i] = mean;
+            }
+            expected += baselineNanos[i] * windowCounts[i];
+            actual += windowNanos[i];
+            baselineNanos[i] += (mean - baselineNanos[i]) * (mean > baselineNanos[i] ? BASELINE_RISE : BASELINE_FALL);
+        }
+
+        double current = limit;
+        double gradient = actual > 0 ? Math.max(MIN_GRADIENT, Math.min(1.0, tolerance * expected / actual)) : 1.0;
+        double target = current * gradient + Math.sqrt(current);
+        if (windowMaxInFlight < current / 2) {
+            // Traffic never came near the limit, so the window says nothing about room to grow
+            target = Math.min(target, current);
+        }
+        limit = Math.max(minLimit, Math.min(maxLimit, current * (1 - smoothing) + target * smoothing));
+
+        Arrays.fill(windowNanos, 0);
+        Arrays.fill(windowCounts, 0);
+        windowSamples = 0;
+        windowMaxInFlight = 0;
+    }
+}
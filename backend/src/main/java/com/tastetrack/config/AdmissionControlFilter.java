@@ -0,0 +1,189 @@
+package com.tastetrack.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Sheds load at the edge when the API is saturated. All requests share one
+ * {@link AdaptiveConcurrencyLimit}, and each traffic class may only fill part of it, so browse
+ * and admin traffic are turned away with 503 and Retry-After well before order placement is.
+ * Rejected requests cost no handler work, which keeps checkout latency steady during spikes.
+ * Bulk catalog imports and exports stream for minutes, so they stay out of the latency samples
+ * and get a small fixed cap of their own instead.
+ */
+@Component
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    /**
+     * Highest priority first. BULK_TRANSFER is not part of the adaptive limit.
+     */
+    public enum TrafficClass {
+        ORDER_PLACEMENT, ORDER_TRACKING, BROWSE, ADMIN, BULK_TRANSFER
+    }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${admission.enabled:true}")
+    private boolean enabled;
+
+    @Value("${admission.initial-limit:50}")
+    private int initialLimit;
+
+    @Value("${admission.min-limit:8}")
+    private int minLimit;
+
+    @Value("${admission.max-limit:400}")
+    private int maxLimit;
+
+    // Latency may reach this multiple of the baseline before the limit starts to shrink
+    @Value("${admission.latency-tolerance:1.5}")
+    private double latencyTolerance;
+
+    @Value("${admission.smoothing:0.2}")
+    private double smoothing;
+
+    @Value("${admission.window-size:50}")
+    private int windowSize;
+
+    @Value("${admission.retry-after-seconds:1}")
+    private int retryAfterSeconds;
+
+    @Value("${admission.share.order-tracking:0.9}")
+    private double orderTrackingShare;
+
+    @Value("${admission.share.browse:0.7}")
+    private double browseShare;
+
+    @Value("${admission.share.admin:0.4}")
+    private double adminShare;
+
+    @Value("${admission.bulk-transfer.max-concurrent:2}")
+    private int maxBulkTransfers;
+
+    private AdaptiveConcurrencyLimit limit;
+    private Semaphore bulkTransfers;
+    private final Map<TrafficClass, Double> shares = new EnumMap<>(TrafficClass.class);
+    private final Map<TrafficClass, Counter> rejected = new EnumMap<>(TrafficClass.class);
+
+    @PostConstruct
+    void start() {
+        limit = new AdaptiveConcurrencyLimit(TrafficClass.values().length, initialLimit, minLimit, maxLimit,
+                latencyTolerance, smoothing, windowSize);
+        bulkTransfers = new Semaphore(maxBulkTransfers);
+
+        shares.put(TrafficClass.ORDER_PLACEMENT, 1.0);
+        shares.put(TrafficClass.ORDER_TRACKING, orderTrackingShare);
+        shares.put(TrafficClass.BROWSE, browseShare);
+        shares.put(TrafficClass.ADMIN, adminShare);
+
+        for (TrafficClass trafficClass : TrafficClass.values()) {
+            rejected.put(trafficClass, Counter.builder("http.server.admission.rejected")
+                    .description("Requests shed with 503 because the concurrency limit was reached")
+                    .tag("class", trafficClass.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+        Gauge.builder("http.server.admission.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                .description("Current adaptive concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("http.server.admission.in_flight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                .description("Requests currently admitted")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // CORS preflights and the metrics scrape must get through exactly when the API is saturated
+        return !enabled
+                || HttpMethod.OPTIONS.matches(request.getMethod())
+                || request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        TrafficClass trafficClass = classify(request);
+        if (trafficClass == TrafficClass.BULK_TRANSFER) {
+            filterBulkTransfer(request, response, chain);
+            return;
+        }
+        if (!limit.tryAcquire(shares.get(trafficClass))) {
+            rejected.get(trafficClass).increment();
+            reject(response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            limit.release(trafficClass.ordinal(), System.nanoTime() - start);
+        }
+    }
+
+    // Streams as fast as the client sends or reads, so its duration says nothing about server load
+    private void filterBulkTransfer(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!bulkTransfers.tryAcquire()) {
+            rejected.get(TrafficClass.BULK_TRANSFER).increment();
+            reject(response);
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            bulkTransfers.release();
+        }
+    }
+
+    static TrafficClass classify(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        if (uri.startsWith("/api/admin/catalog/") && (uri.endsWith("/import") || uri.endsWith("/export"))) {
+            return TrafficClass.BULK_TRANSFER;
+        }
+        if (uri.startsWith("/api/orders")) {
+            boolean placement = HttpMethod.POST.matches(request.getMethod())
+                    && (uri.equals("/api/orders") || uri.equals("/api/orders/"));
+            return placement ? TrafficClass.ORDER_PLACEMENT : TrafficClass.ORDER_TRACKING;
+        }
+        // Signing in is the step before checkout, so it ranks with tracking rather than browsing
+        if (uri.startsWith("/api/auth")) {
+            return TrafficClass.ORDER_TRACKING;
+        }
+        // Courier pickups and drop-offs move live orders forward
+        if (uri.startsWith("/api/couriers")) {
+            return TrafficClass.ORDER_TRACKING;
+        }
+        if (uri.startsWith("/api/admin") || uri.startsWith("/api/analytics")) {
+            return TrafficClass.ADMIN;
+        }
+        return TrafficClass.BROWSE;
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.getWriter().write("Server is busy, please retry shortly");
+    }
+}
@@ -0,0 +1,16 @@
+package com.tastetrack.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The caller of the current request, taken from the verified JWT claims without a database
+ * lookup. Controllers receive it through {@code @AuthenticationPrincipal}.
+ */
+@Getter
+@AllArgsConstructor
+public class AuthenticatedUser {
+    private final Long id;
+    private final String email;
+    private final String role;
+}
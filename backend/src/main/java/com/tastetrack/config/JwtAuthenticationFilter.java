@@ -0,0 +1,64 @@
+package com.tastetrack.config;
+
+import com.tastetrack.util.JwtUtil;
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Authenticates requests carrying a bearer token. The user id and role come from the token
+ * claims, which {@link JwtUtil} caches after the first verification, so resolving the
+ * caller costs no query. Requests without a valid token continue unauthenticated.
+ */
+@Component
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+    private static final String BEARER = "Bearer ";
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.startsWith(BEARER)
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            authenticate(header.substring(BEARER.length()).trim(), request);
+        }
+        chain.doFilter(request, response);
+    }
+
+    private void authenticate(String token, HttpServletRequest request) {
+        JwtUtil.VerifiedToken verified;
+        try {
+            verified = jwtUtil.verify(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return;
+        }
+        if (verified.getUserId() == null) {
+            // Issued before tokens carried the user id; the client has to sign in again
+            return;
+        }
+
+        AuthenticatedUser user = new AuthenticatedUser(verified.getUserId(), verified.getEmail(), verified.getRole());
+        List<SimpleGrantedAuthority> authorities = verified.getRole() != null
+                ? List.of(new SimpleGrantedAuthority("ROLE_" + verified.getRole()))
+                : List.of();
+        UsernamePasswordAuthenticationToken authentication =
+                new UsernamePasswordAuthenticationToken(user, null, authorities);
+        authentication.setDetails(request.getRemoteAddr());
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+}
@@ -0,0 +1,109 @@
+package com.tastetrack.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read-replica routing, enabled by listing replica JDBC URLs in {@code datasource.replica.urls}.
+ * The primary pool keeps the {@code spring.datasource} settings; replicas share the primary's
+ * credentials unless {@code datasource.replica.username/password} are set.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.replica.urls")
+public class ReplicaRoutingConfig implements DisposableBean {
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties, Environment environment,
+                                 ObjectProvider<MeterRegistry> meterRegistry) {
+        Binder binder = Binder.get(environment);
+
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+
+        String username = environment.getProperty("datasource.replica.username", properties.determineUsername());
+        String password = environment.getProperty("datasource.replica.password", properties.determinePassword());
+        String[] urls = environment.getProperty("datasource.replica.urls", String[].class);
+
+        List<ReplicaRoutingDataSource.Replica> replicas = new ArrayList<>();
+        for (int i = 0; i < urls.length; i++) {
+            HikariDataSource replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(properties.determineDriverClassName())
+                    .url(urls[i].trim())
+                    .username(username)
+                    .password(password)
+                    .build();
+            binder.bind("datasource.replica.hikari", Bindable.ofInstance(replica));
+            replica.setPoolName("replica-" + (i + 1));
+            replica.setReadOnly(true);
+            meterRegistry.ifAvailable(registry ->
+                    replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+            replicas.add(new ReplicaRoutingDataSource.Replica(replica.getPoolName(), replica));
+        }
+
+        routingDataSource = new ReplicaRoutingDataSource(primary, replicas,
+                environment.getProperty("datasource.replica.max-lag-seconds", Long.class, 2L),
+                environment.getProperty("datasource.replica.lag-query", "SHOW REPLICA STATUS"),
+                environment.getProperty("datasource.replica.lag-column", "Seconds_Behind_Source"));
+        meterRegistry.ifAvailable(this::registerReplicaGauges);
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    // Each transaction must fetch its own connection so it can be routed; with open-in-view the
+    // default would hold the first transaction's connection for the rest of the request
+    @Bean
+    public HibernatePropertiesCustomizer replicaConnectionHandling() {
+        return properties -> properties.put("hibernate.connection.handling_mode",
+                "DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION");
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.check-interval-ms:1000}")
+    public void checkReplicas() {
+        if (routingDataSource != null) {
+            routingDataSource.checkReplicas();
+        }
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        if (routingDataSource != null) {
+            routingDataSource.close();
+        }
+    }
+
+    private void registerReplicaGauges(MeterRegistry registry) {
+        for (ReplicaRoutingDataSource.Replica replica : routingDataSource.getReplicas()) {
+            Gauge.builder("datasource.replica.lag", replica, ReplicaRoutingDataSource.Replica::getLagSeconds)
+                    .description("Replication lag in seconds, -1 when unknown")
+                    .baseUnit("seconds")
+                    .tag("replica", replica.getName())
+                    .register(registry);
+            Gauge.builder("datasource.replica.available", replica, r -> r.isAvailable() ? 1 : 0)
+                    .description("Whether the replica is serving reads")
+                    .tag("replica", replica.getName())
+                    .register(registry);
+        }
+    }
+}
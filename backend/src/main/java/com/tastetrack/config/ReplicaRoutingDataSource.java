@@ -0,0 +1,160 @@
+package com.tastetrack.config;
+
+import com.tastetrack.util.ReplicaRouting;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to the read replicas, round robin, and everything else to the
+ * primary. Replicas are probed periodically; one that is unreachable, not replicating or
+ * lagging more than the allowed seconds is skipped until it catches up, and reads fall back
+ * to the primary when no replica qualifies. Must sit behind a lazy connection proxy so the
+ * connection is fetched after the transaction's read-only flag is set.
+ */
+public class ReplicaRoutingDataSource extends DelegatingDataSource implements Closeable {
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private final List<Replica> replicas;
+    private final long maxLagSeconds;
+    private final String lagQuery;
+    private final String lagColumn;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<Replica> replicas, long maxLagSeconds,
+                                    String lagQuery, String lagColumn) {
+        super(primary);
+        this.replicas = replicas;
+        this.maxLagSeconds = maxLagSeconds;
+        this.lagQuery = lagQuery;
+        this.lagColumn = lagColumn;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (ReplicaRouting.isReplicaAllowed()) {
+            Replica replica = selectReplica();
+            if (replica != null) {
+                try {
+                    return replica.dataSource.getConnection();
+                } catch (SQLException e) {
+                    replica.markUnavailable("connection failed: " + e.getMessage());
+                }
+            }
+        }
+        return super.getConnection();
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * Measures every replica's lag and updates which ones may serve reads.
+     */
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                long lag = measureLag(connection);
+                if (lag < 0) {
+                    replica.markUnavailable("not replicating");
+                } else if (lag > maxLagSeconds) {
+                    replica.lagSeconds = lag;
+                    replica.markUnavailable("lagging " + lag + "s");
+                } else {
+                    replica.lagSeconds = lag;
+                    replica.markAvailable();
+                }
+            } catch (SQLException e) {
+                replica.markUnavailable("check failed: " + e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+        if (getTargetDataSource() instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+
+    private Replica selectReplica() {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.available) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    // Lag in seconds, or -1 when the replica reports no running replication
+    private long measureLag(Connection connection) throws SQLException {
+        if (lagQuery == null || lagQuery.isBlank()) {
+            return connection.isValid(1) ? 0 : -1;
+        }
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(lagQuery)) {
+            if (!rs.next()) {
+                return -1;
+            }
+            long lag = rs.getLong(lagColumn);
+            return rs.wasNull() ? -1 : lag;
+        }
+    }
+
+    public static class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean available;
+        private volatile long lagSeconds = -1;
+
+        public Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isAvailable() {
+            return available;
+        }
+
+        public long getLagSeconds() {
+            return lagSeconds;
+        }
+
+        private void markAvailable() {
+            if (!available) {
+                log.info("Read replica {} is serving reads (lag {}s)", name, lagSeconds);
+            }
+            available = true;
+        }
+
+        private void markUnavailable(String reason) {
+            if (available) {
+                log.warn("Read replica {} taken out of rotation: {}", name, reason);
+            }
+            available = false;
+        }
+    }
+}
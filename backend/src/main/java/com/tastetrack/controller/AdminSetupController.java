@@ -6,6 +6,9 @@ import com.tastetrack.entity.MenuItem;
 import com.tastetrack.repository.UserRepository;
 import com.tastetrack.repository.RestaurantRepository;
 import com.tastetrack.repository.MenuItemRepository;
+import com.tastetrack.service.MenuItemService;
+import com.tastetrack.service.RestaurantService;
+import com.tastetrack.util.ReplicaRouting;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -36,6 +39,12 @@ public class AdminSetupController {
     @Autowired
     private MenuItemRepository menuItemRepository;
 
+    @Autowired
+    private MenuItemService menuItemService;
+
+    @Autowired
+    private RestaurantService restaurantService;
+
     @Autowired
     private EntityManager entityManager;
     
@@ -45,7 +54,7 @@ public class AdminSetupController {
         
         try {
             // Check if admin already exists
-            Optional<User> existingAdmin = userRepository.findByEmail("admin@tastetrack.com");
+            Optional<User> existingAdmin = ReplicaRouting.onPrimary(() -> userRepository.findByEmail("admin@tastetrack.com"));
             
             User admin;
             if (existingAdmin.isPresent()) {
@@ -88,7 +97,7 @@ public class AdminSetupController {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            Optional<User> userOpt = userRepository.findByEmail(email);
+            Optional<User> userOpt = ReplicaRouting.onPrimary(() -> userRepository.findByEmail(email));
             
             if (userOpt.isEmpty()) {
                 response.put("found", false);
@@ -124,9 +133,9 @@ public class AdminSetupController {
         Map<String, Object> response = new HashMap<>();
 
         try {
-            // Delete all existing menu items and restaurants
-            menuItemRepository.deleteAll();
-            restaurantRepository.deleteAll();
+            // Delete all existing menu items and restaurants with one statement per table
+            menuItemRepository.deleteAllInBatch();
+            restaurantRepository.deleteAllInBatch();
 
             // Reset auto-increment counters
             entityManager.createNativeQuery("ALTER TABLE restaurants AUTO_INCREMENT = 1").executeUpdate();
@@ -144,6 +153,8 @@ public class AdminSetupController {
             luigi.setMinOrder(15.00);
             luigi.setImage("https://images.unsplash.com/photo-1555396273-367ea4eb4db5?w=800&h=600&fit=crop");
             luigi.setAddress("123 Main St, Downtown");
+            luigi.setLatitude(40.7128);
+            luigi.setLongitude(-74.0060);
             luigi.setIsOpen(true);
             restaurants.add(luigi);
 
@@ -155,6 +166,8 @@ public class AdminSetupController {
             tokyo.setMinOrder(20.00);
             tokyo.setImage("https://images.unsplash.com/photo-1579584425555-c3ce17fd4351?w=800&h=600&fit=crop");
             tokyo.setAddress("456 Oak Ave, Midtown");
+            tokyo.setLatitude(40.7549);
+            tokyo.setLongitude(-73.9840);
             tokyo.setIsOpen(true);
             restaurants.add(tokyo);
 
@@ -166,6 +179,8 @@ public class AdminSetupController {
             burger.setMinOrder(10.00);
             burger.setImage("https://images.unsplash.com/photo-1550547660-d9450f859349?w=800&h=600&fit=crop");
             burger.setAddress("789 Elm St, Uptown");
+            burger.setLatitude(40.7870);
+            burger.setLongitude(-73.9754);
             burger.setIsOpen(true);
             restaurants.add(burger);
 
@@ -177,6 +192,8 @@ public class AdminSetupController {
             greens.setMinOrder(12.00);
             greens.setImage("https://images.unsplash.com/photo-1512621776951-a57141f2eefd?w=800&h=600&fit=crop");
             greens.setAddress("321 Pine Rd, Downtown");
+            greens.setLatitude(40.7075);
+            greens.setLongitude(-74.0113);
             greens.setIsOpen(true);
             restaurants.add(greens);
 
@@ -188,6 +205,8 @@ public class AdminSetupController {
             tacos.setMinOrder(10.00);
             tacos.setImage("https://images.unsplash.com/photo-1565299585323-38d6b0865b47?w=800&h=600&fit=crop");
             tacos.setAddress("567 Sunset Blvd, Westside");
+            tacos.setLatitude(40.7306);
+            tacos.setLongitude(-74.0027);
             tacos.setIsOpen(true);
             restaurants.add(tacos);
 
@@ -199,6 +218,8 @@ public class AdminSetupController {
             thai.setMinOrder(15.00);
             thai.setImage("https://images.unsplash.com/photo-1559314809-0d155014e29e?w=800&h=600&fit=crop");
             thai.setAddress("890 Market St, Chinatown");
+            thai.setLatitude(40.7158);
+            thai.setLongitude(-73.9970);
             thai.setIsOpen(true);
             restaurants.add(thai);
 
@@ -210,6 +231,8 @@ public class AdminSetupController {
             indian.setMinOrder(18.00);
             indian.setImage("https://images.unsplash.com/photo-1585937421612-70a008356fbe?w=800&h=600&fit=crop");
             indian.setAddress("234 Curry Lane, Little India");
+            indian.setLatitude(40.7440);
+            indian.setLongitude(-73.9830);
             indian.setIsOpen(true);
             restaurants.add(indian);
 
@@ -221,6 +244,8 @@ public class AdminSetupController {
             bbq.setMinOrder(16.00);
             bbq.setImage("https://images.unsplash.com/photo-1555939594-58d7cb561ad1?w=800&h=600&fit=crop");
             bbq.setAddress("456 Grill Ave, Smoketown");
+            bbq.setLatitude(40.6782);
+            bbq.setLongitude(-73.9442);
             bbq.setIsOpen(true);
             restaurants.add(bbq);
 
@@ -304,6 +329,8 @@ public class AdminSetupController {
 
             // Save all menu items
             menuItemRepository.saveAll(menuItems);
+            menuItemService.invalidateMenuCache();
+            restaurantService.invalidateIndexes();
 
             response.put("success", true);
             response.put("message", "Menu data refreshed successfully");
@@ -0,0 +1,44 @@
+package com.tastetrack.controller;
+
+import com.tastetrack.dto.OrderAnalytics;
+import com.tastetrack.service.OrderAnalyticsService;
+import com.tastetrack.service.OrderAnalyticsService.Resolution;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Locale;
+
+@RestController
+@RequestMapping("/api/analytics")
+@CrossOrigin(origins = "*")
+public class AnalyticsController {
+
+    @Autowired
+    private OrderAnalyticsService orderAnalyticsService;
+
+    @GetMapping("/orders")
+    public ResponseEntity<OrderAnalytics> getOrderAnalytics(
+            @RequestParam(defaultValue = "HOUR") String resolution,
+            @RequestParam(defaultValue = "24") int buckets,
+            @RequestParam(required = false) Long restaurantId) {
+        return ResponseEntity.ok(orderAnalyticsService.getAnalytics(restaurantId, resolve(resolution), buckets));
+    }
+
+    @GetMapping("/orders/restaurants")
+    public ResponseEntity<List<OrderAnalytics>> getRestaurantTotals(
+            @RequestParam(defaultValue = "DAY") String resolution,
+            @RequestParam(defaultValue = "1") int buckets,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(orderAnalyticsService.getRestaurantTotals(resolve(resolution), buckets, limit));
+    }
+
+    private static Resolution resolve(String resolution) {
+        try {
+            return Resolution.valueOf(resolution.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Unsupported resolution: " + resolution);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.tastetrack.controller;
+
+import com.tastetrack.dto.CatalogImportReport;
+import com.tastetrack.service.CatalogTransferService;
+import com.tastetrack.service.CatalogTransferService.Entity;
+import com.tastetrack.service.CatalogTransferService.Format;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Locale;
+
+@RestController
+@RequestMapping("/api/admin/catalog")
+@CrossOrigin(origins = "*")
+public class CatalogTransferController {
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String CSV = "text/csv";
+
+    @Autowired
+    private CatalogTransferService catalogTransferService;
+
+    @PostMapping("/{entity}/import")
+    public ResponseEntity<CatalogImportReport> importCatalog(
+            @PathVariable String entity,
+            @RequestParam(required = false) String format,
+            HttpServletRequest request) throws IOException {
+        Format resolved = resolveFormat(format, request.getContentType());
+        CatalogImportReport report = catalogTransferService.importRows(
+                Entity.fromPath(entity), resolved, request.getInputStream());
+        return report.getStatus() == CatalogImportReport.Status.FAILED
+                ? ResponseEntity.badRequest().body(report)
+                : ResponseEntity.ok(report);
+    }
+
+    @GetMapping("/{entity}/export")
+    public void exportCatalog(
+            @PathVariable String entity,
+            @RequestParam(defaultValue = "ndjson") String format,
+            HttpServletResponse response) throws IOException {
+        Entity resolvedEntity = Entity.fromPath(entity);
+        Format resolved = resolveFormat(format, null);
+        response.setContentType((resolved == Format.CSV ? CSV : NDJSON) + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + entity + "."
+                + resolved.name().toLowerCase(Locale.ROOT) + "\"");
+        catalogTransferService.exportRows(resolvedEntity, resolved, response.getOutputStream());
+    }
+
+    @GetMapping("/imports")
+    public ResponseEntity<Collection<CatalogImportReport>> getImports() {
+        return ResponseEntity.ok(catalogTransferService.getRecentImports());
+    }
+
+    private static Format resolveFormat(String format, String contentType) {
+        String value = format != null ? format : contentType;
+        if (value == null) {
+            throw new RuntimeException("Specify format=csv or format=ndjson, or a text/csv or application/x-ndjson body");
+        }
+        value = value.toLowerCase(Locale.ROOT);
+        if (value.contains("csv")) {
+            return Format.CSV;
+        }
+        if (value.contains("ndjson") || value.contains("json")) {
+            return Format.NDJSON;
+        }
+        throw new RuntimeException("Unsupported format: " + value);
+    }
+}
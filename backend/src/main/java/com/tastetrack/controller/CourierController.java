@@ -0,0 +1,87 @@
+package com.tastetrack.controller;
+
+import com.tastetrack.config.AuthenticatedUser;
+import com.tastetrack.dto.CourierTrip;
+import com.tastetrack.entity.Courier;
+import com.tastetrack.service.DispatchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/couriers")
+@CrossOrigin(origins = "*")
+public class CourierController {
+    @Autowired
+    private DispatchService dispatchService;
+
+    @PostMapping
+    public ResponseEntity<Courier> registerCourier(@RequestBody Courier courier) {
+        return ResponseEntity.ok(dispatchService.registerCourier(courier));
+    }
+
+    @GetMapping
+    public ResponseEntity<List<Courier>> getCouriers() {
+        return ResponseEntity.ok(dispatchService.getCouriers());
+    }
+
+    @PutMapping("/{id}/online")
+    public ResponseEntity<Courier> goOnline(@PathVariable Long id, @RequestParam double lat, @RequestParam double lng,
+                                            @AuthenticationPrincipal AuthenticatedUser user) {
+        requireCourier(id, user, false);
+        return ResponseEntity.ok(dispatchService.goOnline(id, lat, lng));
+    }
+
+    @PutMapping("/{id}/offline")
+    public ResponseEntity<Courier> goOffline(@PathVariable Long id, @AuthenticationPrincipal AuthenticatedUser user) {
+        requireCourier(id, user, true);
+        return ResponseEntity.ok(dispatchService.goOffline(id));
+    }
+
+    @PutMapping("/{id}/location")
+    public ResponseEntity<Void> updateLocation(@PathVariable Long id, @RequestParam double lat, @RequestParam double lng,
+                                               @AuthenticationPrincipal AuthenticatedUser user) {
+        requireCourier(id, user, false);
+        dispatchService.updateLocation(id, lat, lng);
+        return ResponseEntity.ok().build();
+    }
+
+    @GetMapping("/{id}/trip")
+    public ResponseEntity<CourierTrip> getTrip(@PathVariable Long id, @AuthenticationPrincipal AuthenticatedUser user) {
+        requireCourier(id, user, true);
+        return ResponseEntity.ok(dispatchService.getTrip(id));
+    }
+
+    @PostMapping("/{id}/pickup")
+    public ResponseEntity<CourierTrip> pickUp(@PathVariable Long id, @AuthenticationPrincipal AuthenticatedUser user) {
+        requireCourier(id, user, false);
+        return ResponseEntity.ok(dispatchService.pickUp(id));
+    }
+
+    @PostMapping("/{id}/deliveries/{orderId}/delivered")
+    public ResponseEntity<CourierTrip> markDelivered(@PathVariable Long id, @PathVariable Long orderId,
+                                                     @AuthenticationPrincipal AuthenticatedUser user) {
+        requireCourier(id, user, false);
+        return ResponseEntity.ok(dispatchService.markDelivered(id, orderId));
+    }
+
+    @GetMapping("/dispatch/stats")
+    public ResponseEntity<Map<String, Object>> getDispatchStats() {
+        return ResponseEntity.ok(dispatchService.getStats());
+    }
+
+    // Couriers act only on their own record; admins may also look at a trip or take a courier offline
+    private void requireCourier(Long courierId, AuthenticatedUser user, boolean adminAllowed) {
+        if (adminAllowed && "ADMIN".equals(user.getRole())) {
+            return;
+        }
+        if (!dispatchService.isOperatedBy(courierId, user.getId())) {
+            throw new AccessDeniedException("Courier " + courierId + " belongs to another account");
+        }
+    }
+}
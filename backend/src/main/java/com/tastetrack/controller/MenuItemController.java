@@ -1,7 +1,9 @@
 package com.tastetrack.controller;
 
+import com.tastetrack.dto.MenuItemResponse;
 import com.tastetrack.entity.MenuItem;
 import com.tastetrack.service.MenuItemService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -16,32 +18,34 @@ public class MenuItemController {
     private MenuItemService menuItemService;
 
     @GetMapping("/restaurant/{restaurantId}")
-    public ResponseEntity<List<MenuItem>> getMenuItemsByRestaurant(@PathVariable Long restaurantId) {
-        return ResponseEntity.ok(menuItemService.getMenuItemsByRestaurant(restaurantId));
+    public ResponseEntity<byte[]> getMenuItemsByRestaurant(@PathVariable Long restaurantId,
+                                                           HttpServletRequest request) {
+        return SnapshotResponses.of(menuItemService.getMenuSnapshot(restaurantId), request);
     }
 
     @GetMapping("/restaurant/{restaurantId}/category/{category}")
-    public ResponseEntity<List<MenuItem>> getMenuItemsByCategory(
+    public ResponseEntity<List<MenuItemResponse>> getMenuItemsByCategory(
             @PathVariable Long restaurantId,
             @PathVariable String category) {
-        return ResponseEntity.ok(menuItemService.getMenuItemsByRestaurantAndCategory(restaurantId, category));
+        return ResponseEntity.ok(MenuItemResponse.from(
+                menuItemService.getMenuItemsByRestaurantAndCategory(restaurantId, category)));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<MenuItem> getMenuItemById(@PathVariable Long id) {
+    public ResponseEntity<MenuItemResponse> getMenuItemById(@PathVariable Long id) {
         return menuItemService.getMenuItemById(id)
-                .map(ResponseEntity::ok)
+                .map(item -> ResponseEntity.ok(MenuItemResponse.from(item)))
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @PostMapping
-    public ResponseEntity<MenuItem> createMenuItem(@RequestBody MenuItem menuItem) {
-        return ResponseEntity.ok(menuItemService.createMenuItem(menuItem));
+    public ResponseEntity<MenuItemResponse> createMenuItem(@RequestBody MenuItem menuItem) {
+        return ResponseEntity.ok(MenuItemResponse.from(menuItemService.createMenuItem(menuItem)));
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<MenuItem> updateMenuItem(@PathVariable Long id, @RequestBody MenuItem menuItem) {
-        return ResponseEntity.ok(menuItemService.updateMenuItem(id, menuItem));
+    public ResponseEntity<MenuItemResponse> updateMenuItem(@PathVariable Long id, @RequestBody MenuItem menuItem) {
+        return ResponseEntity.ok(MenuItemResponse.from(menuItemService.updateMenuItem(id, menuItem)));
     }
 
     @DeleteMapping("/{id}")
@@ -1,13 +1,25 @@
 package com.tastetrack.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.tastetrack.config.AuthenticatedUser;
+import com.tastetrack.dto.OrderPage;
 import com.tastetrack.dto.OrderRequest;
+import com.tastetrack.dto.OrderResponse;
 import com.tastetrack.entity.Order;
+import com.tastetrack.service.IdempotencyStore;
 import com.tastetrack.service.OrderService;
+import com.tastetrack.service.OrderTrackingService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.List;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 
 @RestController
 @RequestMapping("/api/orders")
@@ -16,49 +28,88 @@ public class OrderController {
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private OrderTrackingService orderTrackingService;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @PostMapping
-    public ResponseEntity<Order> createOrder(@RequestBody OrderRequest request) {
-        // In real app, get userId from JWT token
-        Long userId = 1L; // Mock userId
-        return ResponseEntity.ok(orderService.createOrder(userId, request));
+    public ResponseEntity<OrderResponse> createOrder(
+            @RequestBody OrderRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        Long userId = user.getId();
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return ResponseEntity.ok(orderService.createOrder(userId, request));
+        }
+        // Retries with the same key get the first response; the order is created only once
+        return ResponseEntity.ok(idempotencyStore.execute(userId + ":" + idempotencyKey, fingerprint(request),
+                () -> orderService.createOrder(userId, request)));
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Order>> getUserOrdersById(@PathVariable Long userId) {
-        return ResponseEntity.ok(orderService.getUserOrders(userId));
+    public ResponseEntity<OrderPage> getUserOrdersById(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(orderService.getUserOrderPage(userId, cursor, limit));
+    }
+
+    @GetMapping
+    public ResponseEntity<OrderPage> getOrders(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(orderService.getOrderPage(cursor, limit));
     }
 
     @GetMapping("/user")
-    public ResponseEntity<List<Order>> getUserOrders() {
-        // In real app, get userId from JWT token
-        Long userId = 1L; // Mock userId
-        return ResponseEntity.ok(orderService.getUserOrders(userId));
+    public ResponseEntity<OrderPage> getUserOrders(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(orderService.getUserOrderPage(user.getId(), cursor, limit));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Order> getOrderById(@PathVariable Long id) {
+    public ResponseEntity<OrderResponse> getOrderById(@PathVariable Long id) {
         return orderService.getOrderById(id)
+                .map(order -> ResponseEntity.ok(OrderResponse.from(order)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/{id}/track")
+    public ResponseEntity<SseEmitter> trackOrder(@PathVariable Long id) {
+        return orderTrackingService.subscribe(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/order-number/{orderNumber}")
-    public ResponseEntity<Order> getOrderByOrderNumber(@PathVariable String orderNumber) {
+    public ResponseEntity<OrderResponse> getOrderByOrderNumber(@PathVariable String orderNumber) {
         return orderService.getOrderByOrderNumber(orderNumber)
-                .map(ResponseEntity::ok)
+                .map(order -> ResponseEntity.ok(OrderResponse.from(order)))
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<Order>> getOrdersByStatus(@PathVariable String status) {
-        return ResponseEntity.ok(orderService.getOrdersByStatus(Order.OrderStatus.valueOf(status.toUpperCase())));
+    public ResponseEntity<OrderPage> getOrdersByStatus(
+            @PathVariable String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(orderService.getOrderPageByStatus(
+                Order.OrderStatus.valueOf(status.toUpperCase()), cursor, limit));
     }
 
     @PutMapping("/{id}/status/{status}")
-    public ResponseEntity<Order> updateOrderStatus(
+    public ResponseEntity<OrderResponse> updateOrderStatus(
             @PathVariable Long id,
             @PathVariable String status) {
-        return ResponseEntity.ok(orderService.updateOrderStatus(id, Order.OrderStatus.valueOf(status.toUpperCase())));
+        return ResponseEntity.ok(OrderResponse.from(
+                orderService.updateOrderStatus(id, Order.OrderStatus.valueOf(status.toUpperCase()))));
     }
 
     @PutMapping("/{id}/cancel")
@@ -72,4 +123,20 @@ public class OrderController {
         orderService.cancelOrder(id);
         return ResponseEntity.ok().build();
     }
+
+    // SHA-256 of the request without the card details, which must not be kept after the order is placed
+    private String fingerprint(OrderRequest request) {
+        ObjectNode body = objectMapper.valueToTree(request);
+        if (body.get("payment") instanceof ObjectNode payment) {
+            payment.remove("cardNumber");
+            payment.remove("expiryDate");
+            payment.remove("cvv");
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(body));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not fingerprint the order request", e);
+        }
+    }
 }
@@ -1,7 +1,9 @@
 package com.tastetrack.controller;
 
+import com.tastetrack.dto.NearbyRestaurant;
 import com.tastetrack.entity.Restaurant;
 import com.tastetrack.service.RestaurantService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -16,13 +18,13 @@ public class RestaurantController {
     private RestaurantService restaurantService;
 
     @GetMapping
-    public ResponseEntity<List<Restaurant>> getAllRestaurants() {
-        return ResponseEntity.ok(restaurantService.getAllRestaurants());
+    public ResponseEntity<byte[]> getAllRestaurants(HttpServletRequest request) {
+        return SnapshotResponses.of(restaurantService.getAllRestaurantsSnapshot(), request);
     }
 
     @GetMapping("/open")
-    public ResponseEntity<List<Restaurant>> getOpenRestaurants() {
-        return ResponseEntity.ok(restaurantService.getOpenRestaurants());
+    public ResponseEntity<byte[]> getOpenRestaurants(HttpServletRequest request) {
+        return SnapshotResponses.of(restaurantService.getOpenRestaurantsSnapshot(), request);
     }
 
     @GetMapping("/{id}")
@@ -33,8 +35,23 @@ public class RestaurantController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<Restaurant>> searchRestaurants(@RequestParam String q) {
-        return ResponseEntity.ok(restaurantService.searchRestaurants(q));
+    public ResponseEntity<List<Restaurant>> searchRestaurants(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(restaurantService.searchRestaurants(q, limit));
+    }
+
+    @GetMapping("/nearby")
+    public ResponseEntity<List<NearbyRestaurant>> getNearbyRestaurants(
+            @RequestParam double lat,
+            @RequestParam double lng,
+            @RequestParam(defaultValue = "5") double radiusKm,
+            @RequestParam(required = false) Boolean isOpen,
+            @RequestParam(required = false) String cuisine,
+            @RequestParam(required = false) Double minRating,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(restaurantService.findNearbyRestaurants(
+                lat, lng, radiusKm, isOpen, cuisine, minRating, limit));
     }
 
     @PostMapping
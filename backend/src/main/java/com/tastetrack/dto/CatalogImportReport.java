@@ -0,0 +1,30 @@
+package com.tastetrack.dto;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Progress and outcome of a bulk catalog import. Each instance is an immutable snapshot;
+ * the import publishes a new one after every batch, so readers always see consistent counts.
+ */
+@Value
+public class CatalogImportReport {
+    public enum Status {
+        RUNNING, COMPLETED, FAILED
+    }
+
+    String id;
+    String entity;
+    String format;
+    Status status;
+    LocalDateTime startedAt;
+    LocalDateTime finishedAt;
+    long rowsRead;
+    long rowsWritten;
+    long rowsRejected;
+    long batches;
+    // First rejections only, so a bad file cannot grow the report without bound
+    List<String> errors;
+}
@@ -0,0 +1,21 @@
+package com.tastetrack.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * What a courier is carrying: orders waiting at the pickup restaurant and orders on the way.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourierTrip {
+    private Long courierId;
+    private boolean online;
+    private Long restaurantId;
+    private List<Long> awaitingPickup;
+    private List<Long> outForDelivery;
+}
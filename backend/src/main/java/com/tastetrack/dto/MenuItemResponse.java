@@ -0,0 +1,77 @@
+package com.tastetrack.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.tastetrack.entity.MenuItem;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.tastetrack.util.JsonFields.writeBoolean;
+import static com.tastetrack.util.JsonFields.writeNumber;
+
+/**
+ * Menu item as returned by the menu endpoints, with the owning restaurant reduced to its id and name.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonSerialize(using = MenuItemResponse.Serializer.class)
+public class MenuItemResponse {
+    private Long id;
+    private String name;
+    private String description;
+    private Double price;
+    private String image;
+    private String category;
+    private Boolean isVeg;
+    private Double rating;
+    private Long restaurantId;
+    private String restaurantName;
+
+    public static MenuItemResponse from(MenuItem item) {
+        return new MenuItemResponse(
+                item.getId(),
+                item.getName(),
+                item.getDescription(),
+                item.getPrice(),
+                item.getImage(),
+                item.getCategory(),
+                item.getIsVeg(),
+                item.getRating(),
+                item.getRestaurant() != null ? item.getRestaurant().getId() : null,
+                item.getRestaurant() != null ? item.getRestaurant().getName() : null);
+    }
+
+    public static List<MenuItemResponse> from(List<MenuItem> items) {
+        List<MenuItemResponse> responses = new ArrayList<>(items.size());
+        for (MenuItem item : items) {
+            responses.add(from(item));
+        }
+        return responses;
+    }
+
+    public static class Serializer extends JsonSerializer<MenuItemResponse> {
+        @Override
+        public void serialize(MenuItemResponse item, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject();
+            writeNumber(gen, "id", item.id);
+            gen.writeStringField("name", item.name);
+            gen.writeStringField("description", item.description);
+            writeNumber(gen, "price", item.price);
+            gen.writeStringField("image", item.image);
+            gen.writeStringField("category", item.category);
+            writeBoolean(gen, "isVeg", item.isVeg);
+            writeNumber(gen, "rating", item.rating);
+            writeNumber(gen, "restaurantId", item.restaurantId);
+            gen.writeStringField("restaurantName", item.restaurantName);
+            gen.writeEndObject();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.tastetrack.dto;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import com.tastetrack.entity.Restaurant;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyRestaurant {
+    @JsonUnwrapped
+    private Restaurant restaurant;
+    private double distanceKm;
+}
@@ -0,0 +1,42 @@
+package com.tastetrack.dto;
+
+import com.tastetrack.entity.Order;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Order metrics over a window of time buckets, for all restaurants or one restaurant.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderAnalytics {
+    private Long restaurantId;
+    private String resolution;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private Bucket totals;
+    // Orders currently in each non-terminal status, as seen by this instance
+    private Map<Order.OrderStatus, Integer> inProgress;
+    private List<Bucket> buckets;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Bucket {
+        private LocalDateTime start;
+        private long orders;
+        private double revenue;
+        private double averageOrderValue;
+        private double averageItemsPerOrder;
+        // Transitions into each status during the bucket
+        private Map<Order.OrderStatus, Long> entered;
+        // Mean time spent in each status, for orders that left it during the bucket
+        private Map<Order.OrderStatus, Double> averageDwellSeconds;
+    }
+}
@@ -0,0 +1,215 @@
+package com.tastetrack.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.tastetrack.entity.Delivery;
+import com.tastetrack.entity.Order;
+import com.tastetrack.entity.OrderItem;
+import com.tastetrack.entity.Payment;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static com.tastetrack.util.JsonFields.writeDate;
+import static com.tastetrack.util.JsonFields.writeEnum;
+import static com.tastetrack.util.JsonFields.writeNumber;
+
+/**
+ * Order detail as returned by the order endpoints. The restaurant and menu items are
+ * reduced to what the order views show, and the customer to their id, so the password
+ * hash and repeated restaurant copies never leave the server.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonSerialize(using = OrderResponse.Serializer.class)
+public class OrderResponse {
+    private Long id;
+    private String orderNumber;
+    private Order.OrderStatus status;
+    private Double total;
+    private String deliveryAddress;
+    private LocalDateTime orderDate;
+    private LocalDateTime estimatedDelivery;
+    private Long userId;
+    private Long restaurantId;
+    private String restaurantName;
+    private String restaurantImage;
+    private String restaurantAddress;
+    private List<Item> items;
+    private PaymentDetails payment;
+    private DeliveryDetails delivery;
+
+    public static OrderResponse from(Order order) {
+        return from(order, order.getRestaurant().getName(), order.getRestaurant().getImage(),
+                order.getRestaurant().getAddress(),
+                item -> new Item(item.getId(), item.getMenuItem().getId(), item.getMenuItem().getName(),
+                        item.getMenuItem().getImage(), item.getQuantity(), item.getPrice()));
+    }
+
+    /**
+     * For an order whose restaurant and menu items are unloaded references: the caller supplies
+     * what the response shows of them, and only their ids are read from the entities.
+     */
+    public static OrderResponse from(Order order, String restaurantName, String restaurantImage,
+                                     String restaurantAddress, Function<OrderItem, Item> itemMapper) {
+        List<Item> items = new ArrayList<>();
+        if (order.getItems() != null) {
+            for (OrderItem item : order.getItems()) {
+                items.add(itemMapper.apply(item));
+            }
+        }
+        return new OrderResponse(
+                order.getId(),
+                order.getOrderNumber(),
+                order.getStatus(),
+                order.getTotal(),
+                order.getDeliveryAddress(),
+                order.getOrderDate(),
+                order.getEstimatedDelivery(),
+                order.getUser() != null ? order.getUser().getId() : null,
+                order.getRestaurant().getId(),
+                restaurantName,
+                restaurantImage,
+                restaurantAddress,
+                items,
+                order.getPayment() != null ? PaymentDetails.from(order.getPayment()) : null,
+                order.getDelivery() != null ? DeliveryDetails.from(order.getDelivery()) : null);
+    }
+
+    public static List<OrderResponse> from(List<Order> orders) {
+        List<OrderResponse> responses = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            responses.add(from(order));
+        }
+        return responses;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        private Long id;
+        private Long menuItemId;
+        private String name;
+        private String image;
+        private Integer quantity;
+        private Double price;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PaymentDetails {
+        private Payment.PaymentMethod paymentMethod;
+        private Payment.PaymentStatus status;
+        private Double amount;
+        private LocalDateTime paymentDate;
+        private String transactionId;
+
+        static PaymentDetails from(Payment payment) {
+            return new PaymentDetails(payment.getPaymentMethod(), payment.getStatus(), payment.getAmount(),
+                    payment.getPaymentDate(), payment.getTransactionId());
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DeliveryDetails {
+        private String customerName;
+        private String customerPhone;
+        private String deliveryAddress;
+        private String deliveryCity;
+        private String deliveryState;
+        private String deliveryZip;
+        private String deliveryInstructions;
+        private LocalDateTime deliveryDate;
+        private Delivery.DeliveryStatus status;
+        private Long courierId;
+
+        static DeliveryDetails from(Delivery delivery) {
+            return new DeliveryDetails(delivery.getCustomerName(), delivery.getCustomerPhone(),
+                    delivery.getDeliveryAddress(), delivery.getDeliveryCity(), delivery.getDeliveryState(),
+                    delivery.getDeliveryZip(), delivery.getDeliveryInstructions(), delivery.getDeliveryDate(),
+                    delivery.getStatus(), delivery.getCourierId());
+        }
+    }
+
+    public static class Serializer extends JsonSerializer<OrderResponse> {
+        @Override
+        public void serialize(OrderResponse order, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject();
+            writeNumber(gen, "id", order.id);
+            gen.writeStringField("orderNumber", order.orderNumber);
+            writeEnum(gen, "status", order.status);
+            writeNumber(gen, "total", order.total);
+            gen.writeStringField("deliveryAddress", order.deliveryAddress);
+            writeDate(gen, provider, "orderDate", order.orderDate);
+            writeDate(gen, provider, "estimatedDelivery", order.estimatedDelivery);
+            writeNumber(gen, "userId", order.userId);
+
+            gen.writeObjectFieldStart("restaurant");
+            writeNumber(gen, "id", order.restaurantId);
+            gen.writeStringField("name", order.restaurantName);
+            gen.writeStringField("image", order.restaurantImage);
+            gen.writeStringField("address", order.restaurantAddress);
+            gen.writeEndObject();
+
+            gen.writeArrayFieldStart("items");
+            for (Item item : order.items) {
+                gen.writeStartObject();
+                writeNumber(gen, "id", item.id);
+                writeNumber(gen, "quantity", item.quantity);
+                writeNumber(gen, "price", item.price);
+                gen.writeObjectFieldStart("menuItem");
+                writeNumber(gen, "id", item.menuItemId);
+                gen.writeStringField("name", item.name);
+                gen.writeStringField("image", item.image);
+                gen.writeEndObject();
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+
+            if (order.payment == null) {
+                gen.writeNullField("payment");
+            } else {
+                PaymentDetails payment = order.payment;
+                gen.writeObjectFieldStart("payment");
+                writeEnum(gen, "paymentMethod", payment.getPaymentMethod());
+                writeEnum(gen, "status", payment.getStatus());
+                writeNumber(gen, "amount", payment.getAmount());
+                writeDate(gen, provider, "paymentDate", payment.getPaymentDate());
+                gen.writeStringField("transactionId", payment.getTransactionId());
+                gen.writeEndObject();
+            }
+
+            if (order.delivery == null) {
+                gen.writeNullField("delivery");
+            } else {
+                DeliveryDetails delivery = order.delivery;
+                gen.writeObjectFieldStart("delivery");
+                gen.writeStringField("customerName", delivery.getCustomerName());
+                gen.writeStringField("customerPhone", delivery.getCustomerPhone());
+                gen.writeStringField("deliveryAddress", delivery.getDeliveryAddress());
+                gen.writeStringField("deliveryCity", delivery.getDeliveryCity());
+                gen.writeStringField("deliveryState", delivery.getDeliveryState());
+                gen.writeStringField("deliveryZip", delivery.getDeliveryZip());
+                gen.writeStringField("deliveryInstructions", delivery.getDeliveryInstructions());
+                writeDate(gen, provider, "deliveryDate", delivery.getDeliveryDate());
+                writeEnum(gen, "status", delivery.getStatus());
+                writeNumber(gen, "courierId", delivery.getCourierId());
+                gen.writeEndObject();
+            }
+            gen.writeEndObject();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.tastetrack.dto;
+
+import com.tastetrack.entity.Delivery;
+import com.tastetrack.entity.Order;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * A committed change to an order: its placement, a status change, or a delivery status change
+ * that leaves the order status as it was. Published once per change after the writing
+ * transaction commits, and followed by tracking, analytics, delivery estimates and dispatch.
+ */
+@Value
+public class OrderStatusChange {
+    public enum Source {
+        PLACEMENT,
+        // Status updates and cancellations through the order API
+        STAFF,
+        COURIER,
+        DISPATCH,
+        // The order pipeline, which moves orders on a timer rather than on staff or courier events
+        PIPELINE;
+
+        /**
+         * Whether the change reflects something that happened, so its timing can be learned from.
+         */
+        public boolean isObserved() {
+            return this == STAFF || this == COURIER;
+        }
+    }
+
+    Long orderId;
+    // Set on placement; null when the publisher does not have it at hand
+    Long restaurantId;
+    // Null for a delivery status change alone
+    Order.OrderStatus status;
+    // Null when the delivery status did not change
+    Delivery.DeliveryStatus deliveryStatus;
+    // Null when the estimate did not change
+    LocalDateTime estimatedDelivery;
+    LocalDateTime at;
+    Source source;
+    // Placement only
+    double total;
+    int itemCount;
+
+    public static OrderStatusChange placed(Long orderId, Long restaurantId, LocalDateTime orderDate,
+                                           LocalDateTime estimatedDelivery, double total, int itemCount) {
+        return new OrderStatusChange(orderId, restaurantId, Order.OrderStatus.PENDING,
+                Delivery.DeliveryStatus.PENDING, estimatedDelivery, orderDate, Source.PLACEMENT, total, itemCount);
+    }
+
+    public static OrderStatusChange status(Long orderId, Order.OrderStatus status,
+                                           Delivery.DeliveryStatus deliveryStatus, LocalDateTime estimatedDelivery,
+                                           LocalDateTime at, Source source) {
+        return new OrderStatusChange(orderId, null, status, deliveryStatus, estimatedDelivery, at, source, 0, 0);
+    }
+
+    public static OrderStatusChange delivery(Long orderId, Delivery.DeliveryStatus deliveryStatus,
+                                             LocalDateTime at, Source source) {
+        return new OrderStatusChange(orderId, null, null, deliveryStatus, null, at, source, 0, 0);
+    }
+
+    public boolean isPlacement() {
+        return source == Source.PLACEMENT;
+    }
+}
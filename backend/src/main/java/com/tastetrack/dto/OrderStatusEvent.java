@@ -0,0 +1,20 @@
+package com.tastetrack.dto;
+
+import com.tastetrack.entity.Delivery;
+import com.tastetrack.entity.Order;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusEvent {
+    private Long orderId;
+    private Order.OrderStatus status;
+    private Delivery.DeliveryStatus deliveryStatus;
+    private LocalDateTime updatedAt;
+    private LocalDateTime estimatedDelivery;
+}
@@ -0,0 +1,58 @@
+package com.tastetrack.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.tastetrack.entity.Order;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+import static com.tastetrack.util.JsonFields.writeDate;
+import static com.tastetrack.util.JsonFields.writeEnum;
+import static com.tastetrack.util.JsonFields.writeNumber;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonSerialize(using = OrderSummary.Serializer.class)
+public class OrderSummary {
+    private Long id;
+    private String orderNumber;
+    private Order.OrderStatus status;
+    private Double total;
+    private LocalDateTime orderDate;
+    private LocalDateTime estimatedDelivery;
+    private String deliveryAddress;
+    private Long restaurantId;
+    private String restaurantName;
+    private Long userId;
+    private String customerFirstName;
+    private String customerLastName;
+    private Integer itemCount;
+
+    public static class Serializer extends JsonSerializer<OrderSummary> {
+        @Override
+        public void serialize(OrderSummary order, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject();
+            writeNumber(gen, "id", order.id);
+            gen.writeStringField("orderNumber", order.orderNumber);
+            writeEnum(gen, "status", order.status);
+            writeNumber(gen, "total", order.total);
+            writeDate(gen, provider, "orderDate", order.orderDate);
+            writeDate(gen, provider, "estimatedDelivery", order.estimatedDelivery);
+            gen.writeStringField("deliveryAddress", order.deliveryAddress);
+            writeNumber(gen, "restaurantId", order.restaurantId);
+            gen.writeStringField("restaurantName", order.restaurantName);
+            writeNumber(gen, "userId", order.userId);
+            gen.writeStringField("customerFirstName", order.customerFirstName);
+            gen.writeStringField("customerLastName", order.customerLastName);
+            writeNumber(gen, "itemCount", order.itemCount);
+            gen.writeEndObject();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.tastetrack.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "couriers")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Courier {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // The account the courier signs in with
+    @Column(name = "user_id", unique = true)
+    private Long userId;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(nullable = false)
+    private String phone;
+
+    // Orders the courier can carry on one trip
+    @Column(nullable = false)
+    private Integer capacity = 3;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private CourierStatus status = CourierStatus.OFFLINE;
+
+    // Last reported position; the live position is kept in memory by the courier pool
+    @Column
+    private Double latitude;
+
+    @Column
+    private Double longitude;
+
+    @Column(name = "last_seen_at")
+    private LocalDateTime lastSeenAt;
+
+    public enum CourierStatus {
+        OFFLINE, ONLINE
+    }
+}
@@ -4,7 +4,9 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.time.LocalDateTime;
 
@@ -15,12 +17,15 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class Delivery {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "deliveries_id_gen")
+    @SequenceGenerator(name = "deliveries_id_gen", sequenceName = "deliveries_seq", allocationSize = 50)
     private Long id;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "order_id", nullable = false, unique = true)
     @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private Order order;
 
     @Column(nullable = false)
@@ -51,7 +56,14 @@ public class Delivery {
     @Column(nullable = false)
     private DeliveryStatus status = DeliveryStatus.PENDING;
 
+    // Set by dispatch; deliveries without a courier are moved along by the order pipeline
+    @Column(name = "courier_id")
+    private Long courierId;
+
+    @Column(name = "assigned_at")
+    private LocalDateTime assignedAt;
+
     public enum DeliveryStatus {
-        PENDING, CONFIRMED, OUT_FOR_DELIVERY, DELIVERED, CANCELLED
+        PENDING, CONFIRMED, ASSIGNED, OUT_FOR_DELIVERY, DELIVERED, CANCELLED
     }
 }
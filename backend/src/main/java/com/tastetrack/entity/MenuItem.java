@@ -3,14 +3,20 @@ package com.tastetrack.entity;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 @Entity
 @Table(name = "menu_items")
+@NamedEntityGraph(name = MenuItem.WITH_RESTAURANT, attributeNodes = @NamedAttributeNode("restaurant"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class MenuItem {
+    // Menu pages show the restaurant name next to each item
+    public static final String WITH_RESTAURANT = "MenuItem.withRestaurant";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -30,8 +36,10 @@ public class MenuItem {
     @Column(nullable = false)
     private String category;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "restaurant_id", nullable = false)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private Restaurant restaurant;
 
     @Column(name = "is_veg", nullable = false)
@@ -4,34 +4,62 @@ import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
+/**
+ * Associations are lazy; each use case loads what it renders through a named graph. The inverse
+ * payment and delivery sides cannot be proxied, so every graph fetches them in the same query.
+ */
 @Entity
 @Table(name = "orders")
+@NamedEntityGraph(name = Order.DETAIL, attributeNodes = {
+        @NamedAttributeNode("restaurant"),
+        @NamedAttributeNode(value = "items", subgraph = "items"),
+        @NamedAttributeNode("payment"),
+        @NamedAttributeNode("delivery")
+}, subgraphs = @NamedSubgraph(name = "items", attributeNodes = @NamedAttributeNode("menuItem")))
+@NamedEntityGraph(name = Order.FULFILLMENT, attributeNodes = {
+        @NamedAttributeNode("payment"),
+        @NamedAttributeNode("delivery")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Order {
+    // Full order as the confirmation, tracking and order-list pages show it
+    public static final String DETAIL = "Order.detail";
+    // Status changes, which only touch the order row and its payment and delivery
+    public static final String FULFILLMENT = "Order.fulfillment";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_id_gen")
+    @SequenceGenerator(name = "orders_id_gen", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "order_number", nullable = false, unique = true)
     private String orderNumber;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private User user;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "restaurant_id", nullable = false)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private Restaurant restaurant;
 
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
     @JsonManagedReference
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private List<OrderItem> items;
 
     @Column(nullable = false)
@@ -50,6 +78,10 @@ public class Order {
     @Column(name = "estimated_delivery")
     private LocalDateTime estimatedDelivery;
 
+    // Version of the menu price snapshot the order was validated and totalled against
+    @Column(name = "menu_snapshot_version")
+    private Long menuSnapshotVersion;
+
     @OneToOne(mappedBy = "order", cascade = CascadeType.ALL)
     private Payment payment;
 
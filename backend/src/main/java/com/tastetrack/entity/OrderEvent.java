@@ -0,0 +1,57 @@
+package com.tastetrack.entity;
+
+import com.tastetrack.dto.OrderStatusChange;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A committed order change as relayed between instances; see {@code OrderEventRelay}.
+ */
+@Entity
+@Table(name = "order_events")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderEvent {
+    // Rows are read back in id order, so ids must follow insertion order across instances
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "instance_id", nullable = false, length = 36)
+    private String instanceId;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "restaurant_id")
+    private Long restaurantId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private Order.OrderStatus status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "delivery_status", length = 20)
+    private Delivery.DeliveryStatus deliveryStatus;
+
+    @Column(name = "estimated_delivery")
+    private LocalDateTime estimatedDelivery;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private OrderStatusChange.Source source;
+
+    @Column(nullable = false)
+    private Double total = 0.0;
+
+    @Column(name = "item_count", nullable = false)
+    private Integer itemCount = 0;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+}
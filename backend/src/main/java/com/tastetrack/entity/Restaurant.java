@@ -36,6 +36,16 @@ public class Restaurant {
     @Column(nullable = false)
     private String address;
 
+    @Column
+    private Double latitude;
+
+    @Column
+    private Double longitude;
+
+    // Null means the default delivery radius applies
+    @Column(name = "delivery_radius_km")
+    private Double deliveryRadiusKm;
+
     @Column(name = "is_open", nullable = false)
     private Boolean isOpen = true;
 }
@@ -0,0 +1,15 @@
+package com.tastetrack.repository;
+
+import com.tastetrack.entity.Courier;
+import com.tastetrack.entity.Courier.CourierStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CourierRepository extends JpaRepository<Courier, Long> {
+    List<Courier> findByStatus(CourierStatus status);
+
+    boolean existsByUserId(Long userId);
+}
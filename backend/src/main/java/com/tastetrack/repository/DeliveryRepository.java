@@ -1,12 +1,113 @@
 package com.tastetrack.repository;
 
 import com.tastetrack.entity.Delivery;
+import com.tastetrack.entity.Delivery.DeliveryStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface DeliveryRepository extends JpaRepository<Delivery, Long> {
     Optional<Delivery> findByOrderId(Long orderId);
+
+    // Dispatch assignments update the same row, so a courier cannot be assigned while it is held
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM Delivery d WHERE d.order.id = :orderId")
+    Optional<Delivery> findForUpdateByOrderId(@Param("orderId") Long orderId);
+
+    @Modifying
+    @Query("UPDATE Delivery d SET d.status = :status WHERE d.order.id = :orderId")
+    int updateStatusByOrderId(@Param("orderId") Long orderId, @Param("status") DeliveryStatus status);
+
+    @Modifying
+    @Query("UPDATE Delivery d SET d.status = :status, d.deliveryDate = :deliveredAt WHERE d.order.id = :orderId")
+    int updateStatusAndDateByOrderId(@Param("orderId") Long orderId,
+                                     @Param("status") DeliveryStatus status,
+                                     @Param("deliveredAt") LocalDateTime deliveredAt);
+
+    @Modifying
+    @Query("UPDATE Delivery d SET d.status = :to WHERE d.order.id = :orderId AND d.status = :from")
+    int updateStatusIfCurrent(@Param("orderId") Long orderId,
+                              @Param("from") DeliveryStatus from,
+                              @Param("to") DeliveryStatus to);
+
+    // Pipeline fallback: only deliveries dispatch has not handed to a courier
+    @Modifying
+    @Query("UPDATE Delivery d SET d.status = :to WHERE d.order.id = :orderId AND d.courierId IS NULL AND d.status IN :from")
+    int updateUnassignedStatus(@Param("orderId") Long orderId,
+                               @Param("from") Collection<DeliveryStatus> from,
+                               @Param("to") DeliveryStatus to);
+
+    @Modifying
+    @Query("UPDATE Delivery d SET d.status = :to, d.deliveryDate = :deliveredAt " +
+           "WHERE d.order.id = :orderId AND d.courierId IS NULL AND d.status IN :from")
+    int updateUnassignedStatusAndDate(@Param("orderId") Long orderId,
+                                      @Param("from") Collection<DeliveryStatus> from,
+                                      @Param("to") DeliveryStatus to,
+                                      @Param("deliveredAt") LocalDateTime deliveredAt);
+
+    @Modifying
+    @Query("UPDATE Delivery d SET d.status = :to " +
+           "WHERE d.courierId = :courierId AND d.order.id IN :orderIds AND d.status = :from")
+    int updateCourierStatus(@Param("courierId") Long courierId,
+                            @Param("orderIds") Collection<Long> orderIds,
+                            @Param("from") DeliveryStatus from,
+                            @Param("to") DeliveryStatus to);
+
+    @Modifying
+    @Query("UPDATE Delivery d SET d.status = :to, d.deliveryDate = :deliveredAt " +
+           "WHERE d.courierId = :courierId AND d.order.id IN :orderIds AND d.status = :from")
+    int updateCourierStatusAndDate(@Param("courierId") Long courierId,
+                                   @Param("orderIds") Collection<Long> orderIds,
+                                   @Param("from") DeliveryStatus from,
+                                   @Param("to") DeliveryStatus to,
+                                   @Param("deliveredAt") LocalDateTime deliveredAt);
+
+    @Modifying
+    @Query("UPDATE Delivery d SET d.courierId = NULL, d.assignedAt = NULL, d.status = :to " +
+           "WHERE d.courierId = :courierId AND d.order.id IN :orderIds AND d.status = :from")
+    int unassign(@Param("courierId") Long courierId,
+                 @Param("orderIds") Collection<Long> orderIds,
+                 @Param("from") DeliveryStatus from,
+                 @Param("to") DeliveryStatus to);
+
+    @Query("SELECT d.order.id AS orderId, d.order.restaurant.id AS restaurantId, d.order.orderDate AS orderDate " +
+           "FROM Delivery d WHERE d.courierId IS NULL AND d.status IN :statuses")
+    List<DispatchableView> findDispatchable(@Param("statuses") Collection<DeliveryStatus> statuses);
+
+    @Query("SELECT d.order.id AS orderId, d.order.restaurant.id AS restaurantId, d.order.orderDate AS orderDate " +
+           "FROM Delivery d WHERE d.order.id IN :orderIds AND d.courierId IS NULL AND d.status IN :statuses")
+    List<DispatchableView> findDispatchable(@Param("orderIds") Collection<Long> orderIds,
+                                            @Param("statuses") Collection<DeliveryStatus> statuses);
+
+    @Query("SELECT d.courierId AS courierId, d.order.id AS orderId, d.order.restaurant.id AS restaurantId, " +
+           "d.status AS status FROM Delivery d WHERE d.courierId IS NOT NULL AND d.status IN :statuses")
+    List<CourierDeliveryView> findCourierDeliveries(@Param("statuses") Collection<DeliveryStatus> statuses);
+
+    interface DispatchableView {
+        Long getOrderId();
+
+        Long getRestaurantId();
+
+        LocalDateTime getOrderDate();
+    }
+
+    interface CourierDeliveryView {
+        Long getCourierId();
+
+        Long getOrderId();
+
+        Long getRestaurantId();
+
+        DeliveryStatus getStatus();
+    }
 }
@@ -1,16 +1,54 @@
 package com.tastetrack.repository;
 
 import com.tastetrack.entity.MenuItem;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface MenuItemRepository extends JpaRepository<MenuItem, Long> {
+    @Override
+    @EntityGraph(MenuItem.WITH_RESTAURANT)
+    Optional<MenuItem> findById(Long id);
+
+    // Menu pages and the menu cache; cached items outlive the session, so the restaurant must be loaded
+    @EntityGraph(MenuItem.WITH_RESTAURANT)
     List<MenuItem> findByRestaurantId(Long restaurantId);
-    
+
+    @EntityGraph(MenuItem.WITH_RESTAURANT)
     List<MenuItem> findByRestaurantIdAndCategory(Long restaurantId, String category);
-    
+
+    @EntityGraph(MenuItem.WITH_RESTAURANT)
     List<MenuItem> findByCategory(String category);
+
+    @Query("SELECT m.id AS id, m.restaurant.id AS restaurantId, m.name AS name FROM MenuItem m")
+    List<MenuItemNameView> findAllNames();
+
+    @Query("SELECT m.id AS id, m.restaurant.id AS restaurantId, m.price AS price, m.name AS name, m.image AS image " +
+           "FROM MenuItem m")
+    List<MenuItemPriceView> findAllPrices();
+
+    interface MenuItemNameView {
+        Long getId();
+
+        Long getRestaurantId();
+
+        String getName();
+    }
+
+    interface MenuItemPriceView {
+        Long getId();
+
+        Long getRestaurantId();
+
+        Double getPrice();
+
+        String getName();
+
+        String getImage();
+    }
 }
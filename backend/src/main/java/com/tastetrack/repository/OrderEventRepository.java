@@ -0,0 +1,31 @@
+package com.tastetrack.repository;
+
+import com.tastetrack.entity.OrderEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OrderEventRepository extends JpaRepository<OrderEvent, Long> {
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM OrderEvent e")
+    long findMaxId();
+
+    @Query("SELECT e FROM OrderEvent e WHERE e.id > :afterId ORDER BY e.id")
+    List<OrderEvent> findAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    @Query("SELECT e FROM OrderEvent e WHERE e.id IN :ids ORDER BY e.id")
+    List<OrderEvent> findByIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM OrderEvent e WHERE e.occurredAt < :before")
+    int deleteOlderThan(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,39 @@
+package com.tastetrack.repository;
+
+import com.tastetrack.entity.OrderOutbox;
+import com.tastetrack.entity.OrderOutbox.OutboxStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OrderOutboxRepository extends JpaRepository<OrderOutbox, Long> {
+    @Query("SELECT e.id FROM OrderOutbox e " +
+           "WHERE e.status = :status AND e.nextAttemptAt <= :now " +
+           "ORDER BY e.nextAttemptAt")
+    List<Long> findDueIds(@Param("status") OutboxStatus status, @Param("now") LocalDateTime now, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE OrderOutbox e SET e.status = :to, e.claimedAt = :claimedAt " +
+           "WHERE e.id = :id AND e.status = :from")
+    int transition(@Param("id") Long id,
+                   @Param("from") OutboxStatus from,
+                   @Param("to") OutboxStatus to,
+                   @Param("claimedAt") LocalDateTime claimedAt);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE OrderOutbox e SET e.status = :to, e.claimedAt = null " +
+           "WHERE e.status = :from AND e.claimedAt < :before")
+    int releaseStaleClaims(@Param("from") OutboxStatus from,
+                           @Param("to") OutboxStatus to,
+                           @Param("before") LocalDateTime before);
+}
@@ -1,44 +1,160 @@
 package com.tastetrack.repository;
 
+import com.tastetrack.dto.OrderSummary;
 import com.tastetrack.entity.Order;
 import com.tastetrack.entity.Order.OrderStatus;
 import com.tastetrack.entity.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
-    List<Order> findByUserId(Long userId);
+    @Override
+    @EntityGraph(Order.FULFILLMENT)
+    Optional<Order> findById(Long id);
 
-    @Query("SELECT DISTINCT o FROM Order o " +
-           "LEFT JOIN FETCH o.restaurant " +
-           "LEFT JOIN FETCH o.items oi " +
-           "LEFT JOIN FETCH oi.menuItem " +
-           "WHERE o.user.id = :userId " +
-           "ORDER BY o.orderDate DESC")
-    List<Order> findByUserIdOrderByOrderDateDesc(@Param("userId") Long userId);
+    @EntityGraph(Order.FULFILLMENT)
+    List<Order> findByUserId(Long userId);
 
+    @EntityGraph(Order.FULFILLMENT)
     List<Order> findByStatus(OrderStatus status);
 
+    @Query("SELECT new com.tastetrack.dto.OrderSummary(o.id, o.orderNumber, o.status, o.total, o.orderDate, " +
+           "o.estimatedDelivery, o.deliveryAddress, r.id, r.name, u.id, u.firstName, u.lastName, SIZE(o.items)) " +
+           "FROM Order o JOIN o.restaurant r JOIN o.user u " +
+           "WHERE u.id = :userId " +
+           "ORDER BY o.orderDate DESC, o.id DESC")
+    List<OrderSummary> findUserOrderSummaries(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT new com.tastetrack.dto.OrderSummary(o.id, o.orderNumber, o.status, o.total, o.orderDate, " +
+           "o.estimatedDelivery, o.deliveryAddress, r.id, r.name, u.id, u.firstName, u.lastName, SIZE(o.items)) " +
+           "FROM Order o JOIN o.restaurant r JOIN o.user u " +
+           "WHERE u.id = :userId " +
+           "AND (o.orderDate < :orderDate OR (o.orderDate = :orderDate AND o.id < :id)) " +
+           "ORDER BY o.orderDate DESC, o.id DESC")
+    List<OrderSummary> findUserOrderSummariesBefore(@Param("userId") Long userId,
+                                                    @Param("orderDate") LocalDateTime orderDate,
+                                                    @Param("id") Long id,
+                                                    Pageable pageable);
+
+    @Query("SELECT new com.tastetrack.dto.OrderSummary(o.id, o.orderNumber, o.status, o.total, o.orderDate, " +
+           "o.estimatedDelivery, o.deliveryAddress, r.id, r.name, u.id, u.firstName, u.lastName, SIZE(o.items)) " +
+           "FROM Order o JOIN o.restaurant r JOIN o.user u " +
+           "ORDER BY o.orderDate DESC, o.id DESC")
+    List<OrderSummary> findOrderSummaries(Pageable pageable);
+
+    @Query("SELECT new com.tastetrack.dto.OrderSummary(o.id, o.orderNumber, o.status, o.total, o.orderDate, " +
+           "o.estimatedDelivery, o.deliveryAddress, r.id, r.name, u.id, u.firstName, u.lastName, SIZE(o.items)) " +
+           "FROM Order o JOIN o.restaurant r JOIN o.user u " +
+           "WHERE o.orderDate < :orderDate OR (o.orderDate = :orderDate AND o.id < :id) " +
+           "ORDER BY o.orderDate DESC, o.id DESC")
+    List<OrderSummary> findOrderSummariesBefore(@Param("orderDate") LocalDateTime orderDate,
+                                                @Param("id") Long id,
+                                                Pageable pageable);
+
+    @Query("SELECT new com.tastetrack.dto.OrderSummary(o.id, o.orderNumber, o.status, o.total, o.orderDate, " +
+           "o.estimatedDelivery, o.deliveryAddress, r.id, r.name, u.id, u.firstName, u.lastName, SIZE(o.items)) " +
+           "FROM Order o JOIN o.restaurant r JOIN o.user u " +
+           "WHERE o.status = :status " +
+           "ORDER BY o.orderDate DESC, o.id DESC")
+    List<OrderSummary> findStatusOrderSummaries(@Param("status") OrderStatus status, Pageable pageable);
+
+    @Query("SELECT new com.tastetrack.dto.OrderSummary(o.id, o.orderNumber, o.status, o.total, o.orderDate, " +
+           "o.estimatedDelivery, o.deliveryAddress, r.id, r.name, u.id, u.firstName, u.lastName, SIZE(o.items)) " +
+           "FROM Order o JOIN o.restaurant r JOIN o.user u " +
+           "WHERE o.status = :status " +
+           "AND (o.orderDate < :orderDate OR (o.orderDate = :orderDate AND o.id < :id)) " +
+           "ORDER BY o.orderDate DESC, o.id DESC")
+    List<OrderSummary> findStatusOrderSummariesBefore(@Param("status") OrderStatus status,
+                                                      @Param("orderDate") LocalDateTime orderDate,
+                                                      @Param("id") Long id,
+                                                      Pageable pageable);
+
+    @EntityGraph(Order.FULFILLMENT)
     @Query("SELECT o FROM Order o WHERE o.user = :user AND o.status IN :statuses")
     List<Order> findByUserAndStatusIn(User user, List<OrderStatus> statuses);
 
-    @Query("SELECT DISTINCT o FROM Order o " +
-           "LEFT JOIN FETCH o.restaurant " +
-           "LEFT JOIN FETCH o.items oi " +
-           "LEFT JOIN FETCH oi.menuItem " +
-           "WHERE o.orderNumber = :orderNumber")
-    Optional<Order> findByOrderNumber(@Param("orderNumber") String orderNumber);
-
-    @Query("SELECT DISTINCT o FROM Order o " +
-           "LEFT JOIN FETCH o.restaurant " +
-           "LEFT JOIN FETCH o.items oi " +
-           "LEFT JOIN FETCH oi.menuItem " +
-           "WHERE o.id = :id")
+    @EntityGraph(Order.DETAIL)
+    Optional<Order> findByOrderNumber(String orderNumber);
+
+    @EntityGraph(Order.DETAIL)
+    @Query("SELECT o FROM Order o WHERE o.id = :id")
     Optional<Order> findByIdWithDetails(@Param("id") Long id);
+
+    @Query("SELECT o.status FROM Order o WHERE o.id = :id")
+    Optional<OrderStatus> findStatusById(@Param("id") Long id);
+
+    @Query("SELECT o.id AS id, o.restaurant.id AS restaurantId, o.orderDate AS orderDate, o.total AS total, " +
+           "(SELECT COALESCE(SUM(i.quantity), 0) FROM OrderItem i WHERE i.order = o) AS itemCount " +
+           "FROM Order o " +
+           "WHERE o.orderDate >= :since AND o.orderDate < :until AND o.id > :afterId " +
+           "ORDER BY o.id")
+    List<OrderFactView> findOrderFactsAfter(@Param("since") LocalDateTime since,
+                                            @Param("until") LocalDateTime until,
+                                            @Param("afterId") Long afterId,
+                                            Pageable pageable);
+
+    @Query("SELECT o.id AS id, o.restaurant.id AS restaurantId, o.status AS status, o.orderDate AS orderDate " +
+           "FROM Order o WHERE o.status NOT IN :statuses")
+    List<OrderStatusView> findOrderStatusesExcluding(@Param("statuses") List<OrderStatus> statuses);
+
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :to WHERE o.id = :id AND o.status = :from")
+    int updateStatusIfCurrent(@Param("id") Long id, @Param("from") OrderStatus from, @Param("to") OrderStatus to);
+
+    @Query("SELECT o.id FROM Order o WHERE o.id IN :ids AND o.status IN :statuses")
+    List<Long> findIdsWithStatus(@Param("ids") Collection<Long> ids,
+                                 @Param("statuses") Collection<OrderStatus> statuses);
+
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :to, o.estimatedDelivery = :estimate WHERE o.id = :id AND o.status = :from")
+    int updateStatusAndEstimateIfCurrent(@Param("id") Long id,
+                                         @Param("from") OrderStatus from,
+                                         @Param("to") OrderStatus to,
+                                         @Param("estimate") LocalDateTime estimate);
+
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :to WHERE o.id IN :ids AND o.status IN :from")
+    int updateStatusIfCurrent(@Param("ids") Collection<Long> ids,
+                              @Param("from") Collection<OrderStatus> from,
+                              @Param("to") OrderStatus to);
+
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :to, o.estimatedDelivery = :estimate WHERE o.id IN :ids AND o.status IN :from")
+    int updateStatusAndEstimateIfCurrent(@Param("ids") Collection<Long> ids,
+                                         @Param("from") Collection<OrderStatus> from,
+                                         @Param("to") OrderStatus to,
+                                         @Param("estimate") LocalDateTime estimate);
+
+    interface OrderFactView {
+        Long getId();
+
+        Long getRestaurantId();
+
+        LocalDateTime getOrderDate();
+
+        Double getTotal();
+
+        Number getItemCount();
+    }
+
+    interface OrderStatusView {
+        Long getId();
+
+        Long getRestaurantId();
+
+        OrderStatus getStatus();
+
+        LocalDateTime getOrderDate();
+    }
 }
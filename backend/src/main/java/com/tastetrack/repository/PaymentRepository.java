@@ -1,12 +1,35 @@
 package com.tastetrack.repository;
 
 import com.tastetrack.entity.Payment;
+import com.tastetrack.entity.Payment.PaymentStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Optional;
 
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
     Optional<Payment> findByOrderId(Long orderId);
+
+    @Modifying
+    @Query("UPDATE Payment p SET p.status = :to, p.paymentDate = :at " +
+           "WHERE p.order.id = :orderId AND p.status = :from")
+    int updateStatusIfCurrent(@Param("orderId") Long orderId,
+                              @Param("from") PaymentStatus from,
+                              @Param("to") PaymentStatus to,
+                              @Param("at") LocalDateTime at);
+
+    @Modifying
+    @Query("UPDATE Payment p SET p.status = :to, p.paymentDate = :at " +
+           "WHERE p.order.id = :orderId AND p.paymentMethod IN :methods AND p.status = :from")
+    int updateStatusIfCurrent(@Param("orderId") Long orderId,
+                              @Param("methods") Collection<Payment.PaymentMethod> methods,
+                              @Param("from") PaymentStatus from,
+                              @Param("to") PaymentStatus to,
+                              @Param("at") LocalDateTime at);
 }
@@ -16,4 +16,20 @@ public interface RestaurantRepository extends JpaRepository<Restaurant, Long> {
     
     @Query("SELECT r FROM Restaurant r WHERE r.name LIKE %:name% OR r.cuisine LIKE %:name%")
     List<Restaurant> findByNameOrCuisineContaining(String name);
+
+    @Query("SELECT r.id AS id, r.isOpen AS isOpen, r.name AS name, r.image AS image, r.address AS address " +
+           "FROM Restaurant r")
+    List<RestaurantOpenView> findAllOpenFlags();
+
+    interface RestaurantOpenView {
+        Long getId();
+
+        Boolean getIsOpen();
+
+        String getName();
+
+        String getImage();
+
+        String getAddress();
+    }
 }
@@ -0,0 +1,207 @@
+package com.tastetrack.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tastetrack.util.TransactionHooks;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Catalog responses kept as ready-to-send JSON bytes, plain and gzip-compressed, with a strong
+ * ETag derived from the content. The restaurant lists and each restaurant's menu are serialized
+ * once and reused until a restaurant or menu write drops them, so repeat reads skip both the
+ * query and Jackson. Menus are held in a bounded LRU like {@link MenuCatalogCache}, and every
+ * snapshot is also rebuilt after a TTL to pick up writes made by other instances; an unchanged
+ * rebuild keeps its ETag, so clients still get 304.
+ */
+@Component
+public class CatalogSnapshotCache {
+    private static final String ALL_RESTAURANTS = "all";
+    private static final String OPEN_RESTAURANTS = "open";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${catalog.snapshot.max-menus:1000}")
+    private int maxMenus;
+
+    @Value("${catalog.snapshot.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    // Bumped on every invalidation; a build that started before one is served but not kept
+    private final AtomicLong version = new AtomicLong();
+
+    private final Map<String, Snapshot> restaurantLists = new ConcurrentHashMap<>();
+
+    private final LinkedHashMap<Long, Snapshot> menus = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Snapshot> eldest) {
+            return size() > maxMenus;
+        }
+    };
+
+    public Snapshot getRestaurants(Supplier<?> loader) {
+        return getRestaurantList(ALL_RESTAURANTS, loader);
+    }
+
+    public Snapshot getOpenRestaurants(Supplier<?> loader) {
+        return getRestaurantList(OPEN_RESTAURANTS, loader);
+    }
+
+    public Snapshot getMenu(Long restaurantId, Supplier<?> loader) {
+        synchronized (menus) {
+            Snapshot snapshot = menus.get(restaurantId);
+            if (snapshot != null && isFresh(snapshot)) {
+                return snapshot;
+            }
+        }
+        long startVersion = version.get();
+        Snapshot snapshot = build(startVersion, loader.get());
+        synchronized (menus) {
+            if (version.get() == startVersion) {
+                menus.put(restaurantId, snapshot);
+            }
+        }
+        return snapshot;
+    }
+
+    public void invalidateRestaurants() {
+        evictRestaurants();
+        // A reader could rebuild from the old rows before the writing transaction commits
+        TransactionHooks.afterCommit(this::evictRestaurants);
+    }
+
+    public void invalidateMenu(Long restaurantId) {
+        if (restaurantId == null) {
+            return;
+        }
+        evictMenu(restaurantId);
+        TransactionHooks.afterCommit(() -> evictMenu(restaurantId));
+    }
+
+    public void invalidateMenus() {
+        evictMenus();
+        TransactionHooks.afterCommit(this::evictMenus);
+    }
+
+    private Snapshot getRestaurantList(String key, Supplier<?> loader) {
+        Snapshot snapshot = restaurantLists.get(key);
+        if (snapshot != null && isFresh(snapshot)) {
+            return snapshot;
+        }
+        long startVersion = version.get();
+        snapshot = build(startVersion, loader.get());
+        synchronized (restaurantLists) {
+            if (version.get() == startVersion) {
+                restaurantLists.put(key, snapshot);
+            }
+        }
+        return snapshot;
+    }
+
+    private boolean isFresh(Snapshot snapshot) {
+        return System.nanoTime() - snapshot.builtAt < ttlSeconds * 1_000_000_000L;
+    }
+
+    private void evictRestaurants() {
+        synchronized (restaurantLists) {
+            version.incrementAndGet();
+            restaurantLists.clear();
+        }
+    }
+
+    private void evictMenu(Long restaurantId) {
+        synchronized (menus) {
+            version.incrementAndGet();
+            menus.remove(restaurantId);
+        }
+    }
+
+    private void evictMenus() {
+        synchronized (menus) {
+            version.incrementAndGet();
+            menus.clear();
+        }
+    }
+
+    private Snapshot build(long version, Object body) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            return new Snapshot(version, json, gzip(json), etag(json));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    // Derived from the content, so every instance and restart hands out the same tag for the same data
+    private static String etag(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static final class Snapshot {
+        private final long version;
+        private final byte[] json;
+        private final byte[] gzip;
+        private final String etag;
+        // The gzip bytes are a different representation, so they get their own strong ETag
+        private final String gzipEtag;
+        private final long builtAt = System.nanoTime();
+
+        private Snapshot(long version, byte[] json, byte[] gzip, String etag) {
+            this.version = version;
+            this.json = json;
+            this.gzip = gzip;
+            this.etag = etag;
+            this.gzipEtag = etag.substring(0, etag.length() - 1) + "-gzip\"";
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public byte[] getJson() {
+            return json;
+        }
+
+        public byte[] getGzip() {
+            return gzip;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public String getGzipEtag() {
+            return gzipEtag;
+        }
+    }
+}
@@ -0,0 +1,580 @@
+package com.tastetrack.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tastetrack.dto.CatalogImportReport;
+import com.tastetrack.util.CsvReader;
+import com.tastetrack.util.CsvWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Bulk import and export of restaurants and menu items as CSV or NDJSON. Imports read the
+ * request one row at a time and upsert by id in fixed-size JDBC batches, each in its own
+ * transaction, so memory stays bounded by the batch size and a bad row only costs its own
+ * batch a retry row by row. Exports page through the table by id and write as they go.
+ */
+@Service
+public class CatalogTransferService {
+    private static final Logger log = LoggerFactory.getLogger(CatalogTransferService.class);
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final int MAX_RETAINED_REPORTS = 20;
+
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    public enum Entity {
+        RESTAURANTS("restaurants",
+                column("id", "id", Type.LONG),
+                required("name", "name", Type.STRING),
+                required("cuisine", "cuisine", Type.STRING),
+                required("rating", "rating", Type.DOUBLE),
+                required("deliveryTime", "delivery_time", Type.STRING),
+                required("minOrder", "min_order", Type.DOUBLE),
+                column("image", "image", Type.STRING),
+                required("address", "address", Type.STRING),
+                column("latitude", "latitude", Type.DOUBLE),
+                column("longitude", "longitude", Type.DOUBLE),
+                column("deliveryRadiusKm", "delivery_radius_km", Type.DOUBLE),
+                column("isOpen", "is_open", Type.BOOLEAN).withDefault(true)),
+        MENU_ITEMS("menu_items",
+                column("id", "id", Type.LONG),
+                required("restaurantId", "restaurant_id", Type.LONG),
+                required("name", "name", Type.STRING),
+                column("description", "description", Type.STRING),
+                required("price", "price", Type.DOUBLE),
+                column("image", "image", Type.STRING),
+                required("category", "category", Type.STRING),
+                column("isVeg", "is_veg", Type.BOOLEAN).withDefault(false),
+                required("rating", "rating", Type.DOUBLE));
+
+        private final List<Column> columns;
+        private final String upsertSql;
+        private final String pageSql;
+
+        Entity(String table, Column... columns) {
+            this.columns = List.of(columns);
+
+            List<String> names = new ArrayList<>();
+            List<String> updates = new ArrayList<>();
+            for (Column column : columns) {
+                names.add(column.sqlName);
+                if (!column.sqlName.equals("id")) {
+                    updates.add(column.sqlName + " = VALUES(" + column.sqlName + ")");
+                }
+            }
+            // Rows without an id are inserted; rows with one replace the existing row or are inserted with it
+            this.upsertSql = "INSERT INTO " + table + " (" + String.join(", ", names) + ") VALUES ("
+                    + String.join(", ", Collections.nCopies(names.size(), "?")) + ")"
+                    + " ON DUPLICATE KEY UPDATE " + String.join(", ", updates);
+            this.pageSql = "SELECT " + String.join(", ", names) + " FROM " + table
+                    + " WHERE id > ? ORDER BY id LIMIT ?";
+        }
+
+        public static Entity fromPath(String path) {
+            return switch (path) {
+                case "restaurants" -> RESTAURANTS;
+                case "menu-items" -> MENU_ITEMS;
+                default -> throw new RuntimeException("Unknown catalog entity: " + path);
+            };
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MenuItemService menuItemService;
+
+    @Autowired
+    private RestaurantService restaurantService;
+
+    @Value("${catalog.import.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${catalog.export.page-size:5000}")
+    private int pageSize;
+
+    private final Map<String, CatalogImportReport> reports = new LinkedHashMap<>();
+
+    public CatalogImportReport importRows(Entity entity, Format format, InputStream input) {
+        Progress progress = new Progress(UUID.randomUUID().toString(), entity, format);
+        publish(progress);
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        List<Long> batchLines = new ArrayList<>(batchSize);
+        try (RowSource rows = format == Format.CSV ? new CsvRows(input) : new NdjsonRows(input)) {
+            Function<String, String> row;
+            while ((row = rows.next()) != null) {
+                progress.rowsRead++;
+                try {
+                    batch.add(toParameters(entity, row));
+                    batchLines.add(rows.line());
+                } catch (IllegalArgumentException e) {
+                    progress.reject(rows.line(), e.getMessage());
+                }
+                if (batch.size() >= batchSize) {
+                    flush(entity, transaction, batch, batchLines, progress);
+                }
+            }
+            flush(entity, transaction, batch, batchLines, progress);
+            progress.status = CatalogImportReport.Status.COMPLETED;
+        } catch (IOException | RuntimeException e) {
+            progress.status = CatalogImportReport.Status.FAILED;
+            progress.addError("Import stopped after " + progress.rowsRead + " rows: " + e.getMessage());
+            log.warn("Catalog import {} failed after {} rows", progress.id, progress.rowsRead, e);
+        } finally {
+            progress.finishedAt = LocalDateTime.now();
+            // Committed batches are visible even when the import stopped part way
+            menuItemService.invalidateMenuCache();
+            restaurantService.invalidateIndexes();
+        }
+
+        CatalogImportReport report = publish(progress);
+        log.info("Catalog import {} {}: {} read, {} written, {} rejected",
+                report.getId(), report.getStatus(), report.getRowsRead(), report.getRowsWritten(), report.getRowsRejected());
+        return report;
+    }
+
+    public void exportRows(Entity entity, Format format, OutputStream output) throws IOException {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+        CsvWriter csv = null;
+        JsonGenerator json = null;
+        if (format == Format.CSV) {
+            csv = new CsvWriter(writer);
+            csv.writeRecord(entity.columns.stream().map(column -> column.field).toArray());
+        } else {
+            json = objectMapper.getFactory().createGenerator(writer);
+            json.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+        }
+
+        long lastId = 0;
+        while (true) {
+            long afterId = lastId;
+            List<Object[]> page = readOnly.execute(status -> jdbcTemplate.query(entity.pageSql,
+                    (rs, rowNum) -> readRow(entity, rs), afterId, pageSize));
+            if (page == null || page.isEmpty()) {
+                break;
+            }
+            for (Object[] values : page) {
+                if (csv != null) {
+                    csv.writeRecord(values);
+                } else {
+                    writeJson(json, entity, values);
+                }
+            }
+            lastId = ((Number) page.get(page.size() - 1)[0]).longValue();
+            if (page.size() < pageSize) {
+                break;
+            }
+        }
+
+        if (json != null) {
+            json.flush();
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    public Collection<CatalogImportReport> getRecentImports() {
+        synchronized (reports) {
+            return new ArrayList<>(reports.values());
+        }
+    }
+
+    private void flush(Entity entity, TransactionTemplate transaction, List<Object[]> batch, List<Long> batchLines,
+                       Progress progress) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transaction.executeWithoutResult(status -> jdbcTemplate.batchUpdate(entity.upsertSql,
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            bind(entity, ps, batch.get(i));
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return batch.size();
+                        }
+                    }));
+            progress.rowsWritten += batch.size();
+        } catch (RuntimeException batchError) {
+            // Isolate the failing rows (unknown restaurant, oversized value) and keep the rest
+            log.warn("Catalog import {} batch {} failed, retrying row by row: {}",
+                    progress.id, progress.batches + 1, rootMessage(batchError));
+            for (int i = 0; i < batch.size(); i++) {
+                Object[] parameters = batch.get(i);
+                try {
+                    transaction.executeWithoutResult(status -> jdbcTemplate.update(entity.upsertSql,
+                            ps -> bind(entity, ps, parameters)));
+                    progress.rowsWritten++;
+                } catch (RuntimeException rowError) {
+                    progress.reject(batchLines.get(i), rootMessage(rowError));
+                }
+            }
+        }
+        progress.batches++;
+        batch.clear();
+        batchLines.clear();
+        publish(progress);
+    }
+
+    private static Object[] toParameters(Entity entity, Function<String, String> row) {
+        Object[] parameters = new Object[entity.columns.size()];
+        for (int i = 0; i < parameters.length; i++) {
+            Column column = entity.columns.get(i);
+            String raw = row.apply(column.field);
+            Object value = raw == null || raw.isBlank() ? column.defaultValue : column.type.parse(column.field, raw.trim());
+            if (value == null && column.required) {
+                throw new IllegalArgumentException("Missing " + column.field);
+            }
+            parameters[i] = value;
+        }
+        return parameters;
+    }
+
+    // Typed binding, so null parameters do not need a parameter metadata lookup per row
+    private static void bind(Entity entity, PreparedStatement ps, Object[] parameters) throws SQLException {
+        for (int i = 0; i < parameters.length; i++) {
+            if (parameters[i] == null) {
+                ps.setNull(i + 1, entity.columns.get(i).type.sqlType);
+            } else {
+                ps.setObject(i + 1, parameters[i], entity.columns.get(i).type.sqlType);
+            }
+        }
+    }
+
+    private static Object[] readRow(Entity entity, ResultSet rs) throws SQLException {
+        Object[] values = new Object[entity.columns.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = entity.columns.get(i).type.read(rs, i + 1);
+        }
+        return values;
+    }
+
+    private static void writeJson(JsonGenerator json, Entity entity, Object[] values) throws IOException {
+        json.writeStartObject();
+        for (int i = 0; i < values.length; i++) {
+            Column column = entity.columns.get(i);
+            Object value = values[i];
+            if (value == null) {
+                json.writeNullField(column.field);
+            } else if (value instanceof Long number) {
+                json.writeNumberField(column.field, number);
+            } else if (value instanceof Double number) {
+                json.writeNumberField(column.field, number);
+            } else if (value instanceof Boolean flag) {
+                json.writeBooleanField(column.field, flag);
+            } else {
+                json.writeStringField(column.field, value.toString());
+            }
+        }
+        json.writeEndObject();
+    }
+
+    // Replaces the import's entry with a fresh snapshot; readers never see the counters mid-update
+    private CatalogImportReport publish(Progress progress) {
+        CatalogImportReport report = progress.snapshot();
+        synchronized (reports) {
+            reports.put(report.getId(), report);
+            if (reports.size() > MAX_RETAINED_REPORTS) {
+                reports.values().removeIf(old -> old.getStatus() != CatalogImportReport.Status.RUNNING
+                        && reports.size() > MAX_RETAINED_REPORTS);
+            }
+        }
+        return report;
+    }
+
+    private static String rootMessage(Throwable error) {
+        Throwable root = error;
+        while (root.getCause() != null) {
+            root = root.getCause();
+        }
+        String message = String.valueOf(root.getMessage());
+        int lineBreak = message.indexOf('\n');
+        return lineBreak >= 0 ? message.substring(0, lineBreak) : message;
+    }
+
+    // Header names match the JSON field names or the column names, ignoring case and underscores
+    private static String normalize(String name) {
+        return name.replace("_", "").replace(" ", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static Column column(String field, String sqlName, Type type) {
+        return new Column(field, sqlName, type, false, null);
+    }
+
+    private static Column required(String field, String sqlName, Type type) {
+        return new Column(field, sqlName, type, true, null);
+    }
+
+    private enum Type {
+        LONG(Types.BIGINT) {
+            @Override
+            Object parse(String field, String raw) {
+                try {
+                    return Long.parseLong(raw);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid " + field + ": " + raw);
+                }
+            }
+
+            @Override
+            Object read(ResultSet rs, int index) throws SQLException {
+                long value = rs.getLong(index);
+                return rs.wasNull() ? null : value;
+            }
+        },
+        DOUBLE(Types.DOUBLE) {
+            @Override
+            Object parse(String field, String raw) {
+                try {
+                    return Double.parseDouble(raw);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid " + field + ": " + raw);
+                }
+            }
+
+            @Override
+            Object read(ResultSet rs, int index) throws SQLException {
+                double value = rs.getDouble(index);
+                return rs.wasNull() ? null : value;
+            }
+        },
+        BOOLEAN(Types.BOOLEAN) {
+            @Override
+            Object parse(String field, String raw) {
+                return switch (raw.toLowerCase(Locale.ROOT)) {
+                    case "true", "1", "yes", "y" -> true;
+                    case "false", "0", "no", "n" -> false;
+                    default -> throw new IllegalArgumentException("Invalid " + field + ": " + raw);
+                };
+            }
+
+            @Override
+            Object read(ResultSet rs, int index) throws SQLException {
+                boolean value = rs.getBoolean(index);
+                return rs.wasNull() ? null : value;
+            }
+        },
+        STRING(Types.VARCHAR) {
+            @Override
+            Object parse(String field, String raw) {
+                return raw;
+            }
+
+            @Override
+            Object read(ResultSet rs, int index) throws SQLException {
+                return rs.getString(index);
+            }
+        };
+
+        private final int sqlType;
+
+        Type(int sqlType) {
+            this.sqlType = sqlType;
+        }
+
+        abstract Object parse(String field, String raw);
+
+        abstract Object read(ResultSet rs, int index) throws SQLException;
+    }
+
+    // Counters owned by the importing thread; only snapshots of them are shared
+    private static final class Progress {
+        private final String id;
+        private final Entity entity;
+        private final Format format;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final List<String> errors = new ArrayList<>();
+        private CatalogImportReport.Status status = CatalogImportReport.Status.RUNNING;
+        private LocalDateTime finishedAt;
+        private long rowsRead;
+        private long rowsWritten;
+        private long rowsRejected;
+        private long batches;
+
+        private Progress(String id, Entity entity, Format format) {
+            this.id = id;
+            this.entity = entity;
+            this.format = format;
+        }
+
+        private void reject(long line, String reason) {
+            rowsRejected++;
+            addError("Line " + line + ": " + reason);
+        }
+
+        private void addError(String error) {
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(error);
+            }
+        }
+
+        private CatalogImportReport snapshot() {
+            return new CatalogImportReport(id, entity.name(), format.name(), status, startedAt, finishedAt,
+                    rowsRead, rowsWritten, rowsRejected, batches, List.copyOf(errors));
+        }
+    }
+
+    private static final class Column {
+        private final String field;
+        private final String sqlName;
+        private final Type type;
+        private final boolean required;
+        private final Object defaultValue;
+
+        private Column(String field, String sqlName, Type type, boolean required, Object defaultValue) {
+            this.field = field;
+            this.sqlName = sqlName;
+            this.type = type;
+            this.required = required;
+            this.defaultValue = defaultValue;
+        }
+
+        private Column withDefault(Object value) {
+            return new Column(field, sqlName, type, required, value);
+        }
+    }
+
+    private interface RowSource extends AutoCloseable {
+        /**
+         * Returns a field lookup for the next row, or null at end of input.
+         */
+        Function<String, String> next() throws IOException;
+
+        long line();
+
+        @Override
+        void close() throws IOException;
+    }
+
+    private static final class CsvRows implements RowSource {
+        private final BufferedReader reader;
+        private final CsvReader csv;
+        private final Map<String, Integer> header = new HashMap<>();
+
+        private CsvRows(InputStream input) throws IOException {
+            reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+            csv = new CsvReader(reader);
+            List<String> names = csv.next();
+            if (names == null) {
+                throw new IllegalArgumentException("Missing CSV header");
+            }
+            for (int i = 0; i < names.size(); i++) {
+                String name = i == 0 ? names.get(i).replace("\uFEFF", "") : names.get(i);
+                header.put(normalize(name), i);
+            }
+        }
+
+        @Override
+        public Function<String, String> next() throws IOException {
+            List<String> fields = csv.next();
+            if (fields == null) {
+                return null;
+            }
+            return field -> {
+                Integer index = header.get(normalize(field));
+                return index != null && index < fields.size() ? fields.get(index) : null;
+            };
+        }
+
+        @Override
+        public long line() {
+            return csv.getRecordLine();
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    private final class NdjsonRows implements RowSource {
+        private final MappingIterator<JsonNode> nodes;
+        private long line;
+
+        private NdjsonRows(InputStream input) throws IOException {
+            nodes = objectMapper.readerFor(JsonNode.class).readValues(input);
+        }
+
+        @Override
+        public Function<String, String> next() throws IOException {
+            if (!nodes.hasNextValue()) {
+                return null;
+            }
+            JsonNode node = nodes.nextValue();
+            line++;
+            if (!node.isObject()) {
+                return field -> {
+                    throw new IllegalArgumentException("Not a JSON object");
+                };
+            }
+            Map<String, JsonNode> fields = new HashMap<>();
+            node.fields().forEachRemaining(entry -> fields.put(normalize(entry.getKey()), entry.getValue()));
+            return field -> {
+                JsonNode value = fields.get(normalize(field));
+                return value == null || value.isNull() ? null : value.asText();
+            };
+        }
+
+        @Override
+        public long line() {
+            return line;
+        }
+
+        @Override
+        public void close() throws IOException {
+            nodes.close();
+        }
+    }
+}
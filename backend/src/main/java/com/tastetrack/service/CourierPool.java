@@ -0,0 +1,216 @@
+package com.tastetrack.service;
+
+import com.tastetrack.dto.CourierTrip;
+import com.tastetrack.entity.Courier;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Live state of every online courier: last reported position, the orders waiting at their
+ * pickup restaurant and the orders out for delivery. Location pings only touch this pool;
+ * the database is written when a courier's status or orders change. A courier can take new
+ * orders while it has room and nothing is out for delivery.
+ */
+@Component
+public class CourierPool {
+    private final Map<Long, State> couriers = new HashMap<>();
+    private final Map<Long, Long> courierByOrder = new HashMap<>();
+
+    public synchronized void online(Courier courier) {
+        State state = couriers.computeIfAbsent(courier.getId(), State::new);
+        state.userId = courier.getUserId();
+        state.capacity = courier.getCapacity() != null ? courier.getCapacity() : 1;
+        if (courier.getLatitude() != null && courier.getLongitude() != null) {
+            state.latitude = courier.getLatitude();
+            state.longitude = courier.getLongitude();
+            state.located = true;
+        }
+    }
+
+    /**
+     * Takes the courier out of the pool and returns the orders it had not picked up yet.
+     */
+    public synchronized List<Long> offline(Long courierId) {
+        State state = couriers.remove(courierId);
+        if (state == null) {
+            return List.of();
+        }
+        List<Long> unpicked = new ArrayList<>(state.assigned);
+        for (Long orderId : state.assigned) {
+            courierByOrder.remove(orderId);
+        }
+        for (Long orderId : state.onTrip) {
+            courierByOrder.remove(orderId);
+        }
+        return unpicked;
+    }
+
+    public synchronized boolean isOnline(Long courierId) {
+        return couriers.containsKey(courierId);
+    }
+
+    /**
+     * The user account an online courier signs in with, null if the courier is not online.
+     */
+    public synchronized Long ownerOf(Long courierId) {
+        State state = couriers.get(courierId);
+        return state != null ? state.userId : null;
+    }
+
+    public synchronized boolean updateLocation(Long courierId, double latitude, double longitude) {
+        State state = couriers.get(courierId);
+        if (state == null) {
+            return false;
+        }
+        state.latitude = latitude;
+        state.longitude = longitude;
+        state.located = true;
+        return true;
+    }
+
+    /**
+     * Couriers the matcher may hand orders to.
+     */
+    public synchronized List<DispatchMatcher.CourierSlot> availableSlots() {
+        List<DispatchMatcher.CourierSlot> slots = new ArrayList<>();
+        for (State state : couriers.values()) {
+            if (state.located && state.onTrip.isEmpty() && state.assigned.size() < state.capacity) {
+                slots.add(new DispatchMatcher.CourierSlot(state.id, state.latitude, state.longitude,
+                        state.assigned.size(), state.capacity, state.restaurantId));
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * Records orders the database has handed to the courier. False if the courier has gone
+     * offline or is now heading elsewhere, in which case the caller has to take them back.
+     */
+    public synchronized boolean assign(Long courierId, long restaurantId, Collection<Long> orderIds) {
+        State state = couriers.get(courierId);
+        if (state == null || !state.onTrip.isEmpty()
+                || (state.restaurantId != 0 && state.restaurantId != restaurantId)) {
+            return false;
+        }
+        state.restaurantId = restaurantId;
+        for (Long orderId : orderIds) {
+            state.assigned.add(orderId);
+            courierByOrder.put(orderId, courierId);
+        }
+        return true;
+    }
+
+    /**
+     * Reloads an order an online courier held before a restart.
+     */
+    public synchronized void restore(Long courierId, long restaurantId, Long orderId, boolean pickedUp) {
+        State state = couriers.get(courierId);
+        if (state == null) {
+            return;
+        }
+        if (pickedUp) {
+            state.onTrip.add(orderId);
+        } else {
+            state.restaurantId = restaurantId;
+            state.assigned.add(orderId);
+        }
+        courierByOrder.put(orderId, courierId);
+    }
+
+    public synchronized List<Long> getAssigned(Long courierId) {
+        State state = couriers.get(courierId);
+        return state != null ? new ArrayList<>(state.assigned) : List.of();
+    }
+
+    public synchronized boolean isOnTrip(Long courierId, Long orderId) {
+        State state = couriers.get(courierId);
+        return state != null && state.onTrip.contains(orderId);
+    }
+
+    public synchronized void pickedUp(Long courierId, Collection<Long> orderIds) {
+        State state = couriers.get(courierId);
+        if (state == null) {
+            return;
+        }
+        for (Long orderId : orderIds) {
+            if (state.assigned.remove(orderId)) {
+                state.onTrip.add(orderId);
+            }
+        }
+        if (state.assigned.isEmpty()) {
+            state.restaurantId = 0;
+        }
+    }
+
+    public synchronized void delivered(Long courierId, Long orderId) {
+        State state = couriers.get(courierId);
+        if (state != null && state.onTrip.remove(orderId)) {
+            courierByOrder.remove(orderId);
+        }
+    }
+
+    /**
+     * Forgets an order that was cancelled or finished outside the courier flow, freeing its slot.
+     */
+    public synchronized void release(Long orderId) {
+        Long courierId = courierByOrder.remove(orderId);
+        State state = courierId != null ? couriers.get(courierId) : null;
+        if (state == null) {
+            return;
+        }
+        state.assigned.remove(orderId);
+        state.onTrip.remove(orderId);
+        if (state.assigned.isEmpty()) {
+            state.restaurantId = 0;
+        }
+    }
+
+    public synchronized CourierTrip getTrip(Long courierId) {
+        State state = couriers.get(courierId);
+        if (state == null) {
+            return new CourierTrip(courierId, false, null, List.of(), List.of());
+        }
+        return new CourierTrip(courierId, true, state.restaurantId != 0 ? state.restaurantId : null,
+                new ArrayList<>(state.assigned), new ArrayList<>(state.onTrip));
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        int available = 0;
+        int busy = 0;
+        for (State state : couriers.values()) {
+            if (state.assigned.isEmpty() && state.onTrip.isEmpty()) {
+                available++;
+            } else {
+                busy++;
+            }
+        }
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("online", couriers.size());
+        stats.put("idle", available);
+        stats.put("busy", busy);
+        stats.put("ordersHeld", courierByOrder.size());
+        return stats;
+    }
+
+    private static final class State {
+        private final long id;
+        private Long userId;
+        private double latitude;
+        private double longitude;
+        private boolean located;
+        private int capacity = 1;
+        // Restaurant of the orders awaiting pickup, 0 when there are none
+        private long restaurantId;
+        private final List<Long> assigned = new ArrayList<>();
+        private final List<Long> onTrip = new ArrayList<>();
+
+        private State(long id) {
+            this.id = id;
+        }
+    }
+}
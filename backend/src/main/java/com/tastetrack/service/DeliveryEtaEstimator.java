@@ -0,0 +1,298 @@
+package com.tastetrack.service;
+
+import com.tastetrack.dto.OrderStatusChange;
+import com.tastetrack.entity.Order.OrderStatus;
+import com.tastetrack.repository.OrderRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Delivery time estimates learned from the orders themselves. Each order's prep duration
+ * (placement to pickup) and transit duration (pickup to drop-off) update exponentially
+ * weighted means per restaurant and time-of-day bucket, an O(1) update that follows drift
+ * without revisiting history. An estimate blends each level with the one above
+ * it by sample count (default, then all restaurants in the bucket, then the restaurant, then
+ * the restaurant in the bucket), so new restaurants and quiet hours borrow from the rest.
+ * Orders are re-estimated at every status change. Only changes reported by staff or couriers
+ * are learned from; the order pipeline's timed stages say nothing about real durations.
+ * Learned statistics live in memory and start from the defaults after a restart.
+ */
+@Service
+public class DeliveryEtaEstimator {
+    private static final Logger log = LoggerFactory.getLogger(DeliveryEtaEstimator.class);
+
+    private static final int PREP = 0;
+    private static final int TRANSIT = 1;
+    // Outliers are clamped to this many standard deviations once a level has enough samples
+    private static final double CLAMP_STDDEVS = 4;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${eta.default-prep-minutes:25}")
+    private double defaultPrepMinutes;
+
+    @Value("${eta.default-transit-minutes:20}")
+    private double defaultTransitMinutes;
+
+    @Value("${eta.bucket-hours:2}")
+    private int bucketHours;
+
+    // Weight of the newest sample once a level has 1/decay samples; until then a plain mean
+    @Value("${eta.decay:0.05}")
+    private double decay;
+
+    // Samples a level needs before it counts as much as the level above it
+    @Value("${eta.prior-weight:5}")
+    private double priorWeight;
+
+    @Value("${eta.max-observed-minutes:240}")
+    private double maxObservedMinutes;
+
+    private int buckets;
+    private Profile overall;
+    private final Map<Long, Profile> restaurants = new ConcurrentHashMap<>();
+    private final Map<Long, Tracked> orders = new ConcurrentHashMap<>();
+
+    private Timer error;
+
+    @PostConstruct
+    void start() {
+        bucketHours = Math.max(1, Math.min(24, bucketHours));
+        buckets = (24 + bucketHours - 1) / bucketHours;
+        overall = new Profile(buckets);
+        error = Timer.builder("orders.eta.error")
+                .description("Absolute difference between the placement estimate and the actual delivery time")
+                .register(meterRegistry);
+        try {
+            for (OrderRepository.OrderStatusView order : orderRepository.findOrderStatusesExcluding(
+                    List.of(OrderStatus.DELIVERED, OrderStatus.CANCELLED))) {
+                // Pickup time of orders already out for delivery is unknown, so their transit is not learned
+                Tracked tracked = new Tracked(order.getRestaurantId(), toSeconds(order.getOrderDate()), Double.NaN);
+                if (order.getStatus() == OrderStatus.OUT_FOR_DELIVERY) {
+                    tracked.pickedUpAt = -1;
+                }
+                orders.put(order.getId(), tracked);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not load in-flight orders for delivery estimates: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Estimated delivery time of an order placed now.
+     */
+    public LocalDateTime estimate(Long restaurantId, LocalDateTime placedAt) {
+        double placed = toSeconds(placedAt);
+        double pickup = placed + minutes(PREP, restaurantId, bucket(placed)) * 60;
+        return toDateTime(pickup + minutes(TRANSIT, restaurantId, bucket(pickup)) * 60);
+    }
+
+    /**
+     * Starts following a placed order, quoted {@code estimate} at placement.
+     */
+    public void track(Long orderId, Long restaurantId, LocalDateTime placedAt, LocalDateTime estimate) {
+        orders.put(orderId, new Tracked(restaurantId, toSeconds(placedAt), toSeconds(estimate)));
+    }
+
+    /**
+     * The revised estimate for an order entering {@code status} at {@code at}, or null when the
+     * order is not followed or has finished. Nothing is learned until {@link #recordStatusChange}.
+     */
+    public LocalDateTime revise(Long orderId, OrderStatus status, LocalDateTime at) {
+        Tracked order = orders.get(orderId);
+        if (order == null || status == OrderStatus.DELIVERED || status == OrderStatus.CANCELLED) {
+            return null;
+        }
+        if (status == OrderStatus.OUT_FOR_DELIVERY) {
+            return estimateDropOff(order.restaurantId, at);
+        }
+        // Still in the kitchen: the expected pickup, but never earlier than now
+        double now = toSeconds(at);
+        double pickup = Math.max(now, order.placedAt + minutes(PREP, order.restaurantId, bucket(order.placedAt)) * 60);
+        return toDateTime(pickup + minutes(TRANSIT, order.restaurantId, bucket(pickup)) * 60);
+    }
+
+    /**
+     * Estimated drop-off of orders from a restaurant picked up at {@code pickedUpAt}.
+     */
+    public LocalDateTime estimateDropOff(Long restaurantId, LocalDateTime pickedUpAt) {
+        double pickup = toSeconds(pickedUpAt);
+        return toDateTime(pickup + minutes(TRANSIT, restaurantId, bucket(pickup)) * 60);
+    }
+
+    @EventListener
+    public void onStatusChange(OrderStatusChange change) {
+        if (change.isPlacement()) {
+            track(change.getOrderId(), change.getRestaurantId(), change.getAt(), change.getEstimatedDelivery());
+        } else if (change.getStatus() != null) {
+            if (change.getSource().isObserved()) {
+                recordStatusChange(change.getOrderId(), change.getStatus(), change.getAt());
+            } else {
+                skipStatusChange(change.getOrderId(), change.getStatus());
+            }
+        }
+    }
+
+    /**
+     * Learns from a committed status change: pickup closes the prep duration, delivery the transit.
+     */
+    public void recordStatusChange(Long orderId, OrderStatus status, LocalDateTime at) {
+        Tracked order = orders.get(orderId);
+        if (order == null) {
+            return;
+        }
+        double now = toSeconds(at);
+        if (status == OrderStatus.OUT_FOR_DELIVERY) {
+            synchronized (order) {
+                if (order.pickedUpAt != 0) {
+                    return;
+                }
+                order.pickedUpAt = now;
+            }
+            observe(PREP, order.restaurantId, bucket(order.placedAt), (now - order.placedAt) / 60);
+        } else if (status == OrderStatus.DELIVERED) {
+            orders.remove(orderId);
+            double pickedUpAt;
+            synchronized (order) {
+                pickedUpAt = order.pickedUpAt;
+            }
+            if (pickedUpAt > 0) {
+                observe(TRANSIT, order.restaurantId, bucket(pickedUpAt), (now - pickedUpAt) / 60);
+            }
+            if (!Double.isNaN(order.quoted)) {
+                error.record(Duration.ofMillis((long) (Math.abs(now - order.quoted) * 1000)));
+            }
+        } else if (status == OrderStatus.CANCELLED) {
+            orders.remove(orderId);
+        }
+    }
+
+    // Follows a change that was not observed without learning from it
+    private void skipStatusChange(Long orderId, OrderStatus status) {
+        Tracked order = orders.get(orderId);
+        if (order == null) {
+            return;
+        }
+        if (status == OrderStatus.OUT_FOR_DELIVERY) {
+            synchronized (order) {
+                if (order.pickedUpAt == 0) {
+                    order.pickedUpAt = -1;
+                }
+            }
+        } else if (status == OrderStatus.DELIVERED || status == OrderStatus.CANCELLED) {
+            orders.remove(orderId);
+        }
+    }
+
+    private void observe(int phase, Long restaurantId, int bucket, double minutes) {
+        if (!(minutes > 0) || minutes > maxObservedMinutes) {
+            return;
+        }
+        overall.add(phase, bucket, minutes, decay, priorWeight);
+        restaurants.computeIfAbsent(restaurantId, id -> new Profile(buckets))
+                .add(phase, bucket, minutes, decay, priorWeight);
+    }
+
+    private double minutes(int phase, Long restaurantId, int bucket) {
+        double estimate = phase == PREP ? defaultPrepMinutes : defaultTransitMinutes;
+        estimate = overall.blend(phase, bucket, estimate, priorWeight);
+        Profile restaurant = restaurants.get(restaurantId);
+        if (restaurant != null) {
+            estimate = restaurant.blend(phase, buckets, estimate, priorWeight);
+            estimate = restaurant.blend(phase, bucket, estimate, priorWeight);
+        }
+        return estimate;
+    }
+
+    private int bucket(double epochSeconds) {
+        return toDateTime(epochSeconds).getHour() / bucketHours;
+    }
+
+    private static double toSeconds(LocalDateTime dateTime) {
+        if (dateTime == null) {
+            return System.currentTimeMillis() / 1000.0;
+        }
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() / 1000.0;
+    }
+
+    private static LocalDateTime toDateTime(double epochSeconds) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli((long) (epochSeconds * 1000)), ZoneId.systemDefault());
+    }
+
+    /**
+     * Weighted mean and variance of prep and transit minutes for each time-of-day bucket,
+     * with the all-day figures in the last slot.
+     */
+    private static final class Profile {
+        private final long[][] counts;
+        private final double[][] means;
+        private final double[][] variances;
+
+        private Profile(int buckets) {
+            counts = new long[2][buckets + 1];
+            means = new double[2][buckets + 1];
+            variances = new double[2][buckets + 1];
+        }
+
+        private synchronized void add(int phase, int bucket, double minutes, double decay, double priorWeight) {
+            update(phase, bucket, minutes, decay, priorWeight);
+            update(phase, counts[phase].length - 1, minutes, decay, priorWeight);
+        }
+
+        private void update(int phase, int slot, double minutes, double decay, double priorWeight) {
+            long count = ++counts[phase][slot];
+            double mean = means[phase][slot];
+            if (count > priorWeight && variances[phase][slot] > 0) {
+                double limit = CLAMP_STDDEVS * Math.sqrt(variances[phase][slot]);
+                minutes = Math.max(mean - limit, Math.min(mean + limit, minutes));
+            }
+            double weight = Math.max(1.0 / count, decay);
+            double diff = minutes - mean;
+            double step = weight * diff;
+            means[phase][slot] = mean + step;
+            variances[phase][slot] = (1 - weight) * (variances[phase][slot] + diff * step);
+        }
+
+        private synchronized double blend(int phase, int slot, double prior, double priorWeight) {
+            long count = counts[phase][slot];
+            if (count == 0) {
+                return prior;
+            }
+            return (count * means[phase][slot] + priorWeight * prior) / (count + priorWeight);
+        }
+    }
+
+    private static final class Tracked {
+        private final Long restaurantId;
+        private final double placedAt;
+        // Epoch seconds of the placement quote, NaN for orders loaded at startup
+        private final double quoted;
+        // 0 until picked up, -1 when the pickup time is unknown
+        private double pickedUpAt;
+
+        private Tracked(Long restaurantId, double placedAt, double quoted) {
+            this.restaurantId = restaurantId;
+            this.placedAt = placedAt;
+            this.quoted = quoted;
+        }
+    }
+}
@@ -0,0 +1,374 @@
+package com.tastetrack.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Batch assignment of waiting deliveries to couriers, free of Spring and the database so it
+ * can be driven with simulated couriers. Deliveries are grouped by restaurant and the longest
+ * waiting restaurant goes first. Each group goes to the courier with the lowest cost: the
+ * pickup distance for an idle courier, and for one already heading to that restaurant nothing
+ * but a penalty per order it carries, so batches fill up unless an idle courier is much closer.
+ * A courier takes as much of a group as its capacity allows. Idle couriers are found by a ring
+ * search over a grid around the pickup that stops once no closer courier can exist.
+ */
+public final class DispatchMatcher {
+    private static final double KM_PER_DEGREE = Math.PI * 6371.0088 / 180;
+
+    private final double cellSizeKm;
+    private final double maxPickupKm;
+    private final double loadPenaltyKm;
+
+    public DispatchMatcher(double cellSizeKm, double maxPickupKm, double loadPenaltyKm) {
+        this.cellSizeKm = cellSizeKm;
+        this.maxPickupKm = maxPickupKm;
+        this.loadPenaltyKm = loadPenaltyKm;
+    }
+
+    public List<Assignment> match(List<Job> jobs, List<CourierSlot> couriers) {
+        if (jobs.isEmpty() || couriers.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return new Round(jobs, couriers).run();
+    }
+
+    /**
+     * State of one matching round: courier positions projected onto a local kilometre plane
+     * (equirectangular around the first job, well within a city's accuracy) plus a dense grid
+     * over the idle couriers' bounding box, kept as linked lists in arrays.
+     */
+    private final class Round {
+        // Bounds the grid array; a wider spread of couriers gets coarser cells
+        private static final int MAX_CELLS = 1 << 20;
+
+        private final List<Job> jobs;
+        private final List<CourierSlot> couriers;
+        private final double kmPerDegreeLon;
+
+        private final double[] xs;
+        private final double[] ys;
+        private final int[] loads;
+        private final int[] spare;
+
+        private final Map<Long, List<Integer>> pickingUp = new HashMap<>();
+
+        private double cellKm = cellSizeKm;
+        private double minX;
+        private double minY;
+        private int columns;
+        private int rows;
+        private int[] head;
+        private final int[] next;
+        private final int[] prev;
+        private final int[] cellOf;
+        private int idle;
+
+        private Round(List<Job> jobs, List<CourierSlot> couriers) {
+            this.jobs = jobs;
+            this.couriers = couriers;
+            this.kmPerDegreeLon = KM_PER_DEGREE * Math.cos(Math.toRadians(jobs.get(0).getLatitude()));
+
+            int count = couriers.size();
+            xs = new double[count];
+            ys = new double[count];
+            loads = new int[count];
+            spare = new int[count];
+            next = new int[count];
+            prev = new int[count];
+            cellOf = new int[count];
+
+            minX = Double.MAX_VALUE;
+            minY = Double.MAX_VALUE;
+            double maxX = -Double.MAX_VALUE;
+            double maxY = -Double.MAX_VALUE;
+            for (int i = 0; i < count; i++) {
+                CourierSlot courier = couriers.get(i);
+                loads[i] = courier.getLoad();
+                spare[i] = courier.getCapacity() - courier.getLoad();
+                cellOf[i] = -1;
+                if (spare[i] <= 0) {
+                    continue;
+                }
+                xs[i] = courier.getLongitude() * kmPerDegreeLon;
+                ys[i] = courier.getLatitude() * KM_PER_DEGREE;
+                if (courier.getRestaurantId() != 0) {
+                    pickingUp.computeIfAbsent(courier.getRestaurantId(), id -> new ArrayList<>()).add(i);
+                } else {
+                    minX = Math.min(minX, xs[i]);
+                    minY = Math.min(minY, ys[i]);
+                    maxX = Math.max(maxX, xs[i]);
+                    maxY = Math.max(maxY, ys[i]);
+                    idle++;
+                }
+            }
+            if (idle == 0) {
+                return;
+            }
+
+            while (true) {
+                columns = (int) ((maxX - minX) / cellKm) + 1;
+                rows = (int) ((maxY - minY) / cellKm) + 1;
+                if ((long) columns * rows <= MAX_CELLS) {
+                    break;
+                }
+                cellKm *= 2;
+            }
+            head = new int[columns * rows];
+            Arrays.fill(head, -1);
+            for (int i = 0; i < count; i++) {
+                if (spare[i] > 0 && couriers.get(i).getRestaurantId() == 0) {
+                    int cell = column(xs[i]) + row(ys[i]) * columns;
+                    cellOf[i] = cell;
+                    prev[i] = -1;
+                    next[i] = head[cell];
+                    if (head[cell] >= 0) {
+                        prev[head[cell]] = i;
+                    }
+                    head[cell] = i;
+                }
+            }
+        }
+
+        private List<Assignment> run() {
+            Map<Long, List<Job>> byRestaurant = new HashMap<>();
+            for (Job job : jobs) {
+                byRestaurant.computeIfAbsent(job.getRestaurantId(), id -> new ArrayList<>()).add(job);
+            }
+            List<List<Job>> groups = new ArrayList<>(byRestaurant.values());
+            for (List<Job> group : groups) {
+                group.sort(Comparator.comparingLong(Job::getWaitingSince));
+            }
+            groups.sort(Comparator.comparingLong(group -> group.get(0).getWaitingSince()));
+
+            List<Assignment> assignments = new ArrayList<>();
+            for (List<Job> group : groups) {
+                Job first = group.get(0);
+                double x = first.getLongitude() * kmPerDegreeLon;
+                double y = first.getLatitude() * KM_PER_DEGREE;
+                int taken = 0;
+                while (taken < group.size()) {
+                    int courier = best(first.getRestaurantId(), x, y);
+                    if (courier < 0) {
+                        break;
+                    }
+                    int take = Math.min(spare[courier], group.size() - taken);
+                    long[] orderIds = new long[take];
+                    for (int i = 0; i < take; i++) {
+                        orderIds[i] = group.get(taken + i).getOrderId();
+                    }
+                    taken += take;
+                    assignments.add(new Assignment(couriers.get(courier).getCourierId(), first.getRestaurantId(), orderIds));
+
+                    spare[courier] -= take;
+                    loads[courier] += take;
+                    if (cellOf[courier] >= 0) {
+                        // An idle courier that takes a batch only tops up at that restaurant from now on
+                        unlink(courier);
+                        pickingUp.computeIfAbsent(first.getRestaurantId(), id -> new ArrayList<>()).add(courier);
+                    }
+                }
+            }
+            return assignments;
+        }
+
+        private int best(long restaurantId, double x, double y) {
+            int best = -1;
+            double bestCost = Double.MAX_VALUE;
+
+            List<Integer> headingThere = pickingUp.get(restaurantId);
+            if (headingThere != null) {
+                for (int courier : headingThere) {
+                    if (spare[courier] > 0) {
+                        double cost = loadPenaltyKm * loads[courier];
+                        if (cost < bestCost) {
+                            best = courier;
+                            bestCost = cost;
+                        }
+                    }
+                }
+            }
+            if (idle == 0) {
+                return best;
+            }
+
+            int cx = column(x);
+            int cy = row(y);
+            int maxRing = (int) Math.ceil(maxPickupKm / cellKm);
+            for (int ring = 0; ring <= maxRing; ring++) {
+                // Every courier in this ring or beyond is at least this far away
+                if ((ring - 1) * cellKm > bestCost) {
+                    break;
+                }
+                for (int dx = -ring; dx <= ring; dx++) {
+                    int column = cx + dx;
+                    if (column < 0 || column >= columns) {
+                        continue;
+                    }
+                    int step = Math.abs(dx) == ring ? 1 : 2 * ring;
+                    for (int dy = -ring; dy <= ring; dy += step) {
+                        int row = cy + dy;
+                        if (row < 0 || row >= rows) {
+                            continue;
+                        }
+                        for (int courier = head[column + row * columns]; courier >= 0; courier = next[courier]) {
+                            double distance = distance(courier, x, y);
+                            if (distance > maxPickupKm) {
+                                continue;
+                            }
+                            if (distance < bestCost || (distance == bestCost && best >= 0
+                                    && couriers.get(courier).getCourierId() < couriers.get(best).getCourierId())) {
+                                best = courier;
+                                bestCost = distance;
+                            }
+                        }
+                    }
+                }
+            }
+            return best;
+        }
+
+        private void unlink(int courier) {
+            if (prev[courier] >= 0) {
+                next[prev[courier]] = next[courier];
+            } else {
+                head[cellOf[courier]] = next[courier];
+            }
+            if (next[courier] >= 0) {
+                prev[next[courier]] = prev[courier];
+            }
+            cellOf[courier] = -1;
+            idle--;
+        }
+
+        private double distance(int courier, double x, double y) {
+            double dx = xs[courier] - x;
+            double dy = ys[courier] - y;
+            return Math.sqrt(dx * dx + dy * dy);
+        }
+
+        // Pickups outside the grid land on negative or overflowing cells, which are skipped
+        private int column(double x) {
+            return (int) Math.floor((x - minX) / cellKm);
+        }
+
+        private int row(double y) {
+            return (int) Math.floor((y - minY) / cellKm);
+        }
+    }
+
+    /**
+     * A delivery waiting for a courier, located at its restaurant.
+     */
+    public static final class Job {
+        private final long orderId;
+        private final long restaurantId;
+        private final double latitude;
+        private final double longitude;
+        private final long waitingSince;
+
+        public Job(long orderId, long restaurantId, double latitude, double longitude, long waitingSince) {
+            this.orderId = orderId;
+            this.restaurantId = restaurantId;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.waitingSince = waitingSince;
+        }
+
+        public long getOrderId() {
+            return orderId;
+        }
+
+        public long getRestaurantId() {
+            return restaurantId;
+        }
+
+        public double getLatitude() {
+            return latitude;
+        }
+
+        public double getLongitude() {
+            return longitude;
+        }
+
+        public long getWaitingSince() {
+            return waitingSince;
+        }
+    }
+
+    /**
+     * A courier that can take orders: idle (restaurant id 0) or on its way to a pickup with room left.
+     */
+    public static final class CourierSlot {
+        private final long courierId;
+        private final double latitude;
+        private final double longitude;
+        private final int load;
+        private final int capacity;
+        private final long restaurantId;
+
+        public CourierSlot(long courierId, double latitude, double longitude, int load, int capacity, long restaurantId) {
+            this.courierId = courierId;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.load = load;
+            this.capacity = capacity;
+            this.restaurantId = restaurantId;
+        }
+
+        public long getCourierId() {
+            return courierId;
+        }
+
+        public double getLatitude() {
+            return latitude;
+        }
+
+        public double getLongitude() {
+            return longitude;
+        }
+
+        public int getLoad() {
+            return load;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public long getRestaurantId() {
+            return restaurantId;
+        }
+    }
+
+    /**
+     * Orders from one restaurant handed to one courier.
+     */
+    public static final class Assignment {
+        private final long courierId;
+        private final long restaurantId;
+        private final long[] orderIds;
+
+        public Assignment(long courierId, long restaurantId, long[] orderIds) {
+            this.courierId = courierId;
+            this.restaurantId = restaurantId;
+            this.orderIds = orderIds;
+        }
+
+        public long getCourierId() {
+            return courierId;
+        }
+
+        public long getRestaurantId() {
+            return restaurantId;
+        }
+
+        public long[] getOrderIds() {
+            return orderIds;
+        }
+    }
+}
@@ -0,0 +1,480 @@
+package com.tastetrack.service;
+
+import com.tastetrack.dto.CourierTrip;
+import com.tastetrack.dto.OrderStatusChange;
+import com.tastetrack.entity.Courier;
+import com.tastetrack.entity.Courier.CourierStatus;
+import com.tastetrack.entity.Delivery.DeliveryStatus;
+import com.tastetrack.entity.Order.OrderStatus;
+import com.tastetrack.entity.Restaurant;
+import com.tastetrack.entity.User;
+import com.tastetrack.repository.CourierRepository;
+import com.tastetrack.repository.DeliveryRepository;
+import com.tastetrack.repository.OrderRepository;
+import com.tastetrack.repository.UserRepository;
+import com.tastetrack.util.ReplicaRouting;
+import com.tastetrack.util.TransactionHooks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Assigns deliveries to couriers. Placed orders wait in memory until the periodic matcher
+ * hands them, batched per restaurant, to couriers from the {@link CourierPool}; each tick's
+ * assignments are written in one JDBC batch of conditional updates, so orders that were
+ * cancelled or moved on by the order pipeline meanwhile are simply dropped. Couriers then
+ * move their deliveries forward by reporting pickup and drop-off.
+ * <p>
+ * The queue and the courier pool live in memory, so exactly one instance may run dispatch
+ * ({@code dispatch.enabled}); it learns of orders placed anywhere through
+ * {@link OrderEventRelay}. Courier requests must be routed to that instance; the others
+ * reject them.
+ */
+@Service
+public class DispatchService {
+    private static final Logger log = LoggerFactory.getLogger(DispatchService.class);
+
+    private static final List<DeliveryStatus> DISPATCHABLE = List.of(DeliveryStatus.PENDING, DeliveryStatus.CONFIRMED);
+    private static final List<OrderStatus> READY_FOR_PICKUP = List.of(OrderStatus.CONFIRMED, OrderStatus.PREPARING);
+    private static final List<OrderStatus> LEAVES_QUEUE =
+            List.of(OrderStatus.OUT_FOR_DELIVERY, OrderStatus.DELIVERED, OrderStatus.CANCELLED);
+
+    private static final String ASSIGN_SQL =
+            "UPDATE deliveries SET courier_id = ?, assigned_at = ?, status = 'ASSIGNED' " +
+            "WHERE order_id = ? AND courier_id IS NULL AND status IN ('PENDING', 'CONFIRMED') " +
+            "AND order_id IN (SELECT id FROM orders WHERE id = ? AND status IN ('PENDING', 'CONFIRMED', 'PREPARING'))";
+
+    @Autowired
+    private CourierRepository courierRepository;
+
+    @Autowired
+    private DeliveryRepository deliveryRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourierPool courierPool;
+
+    @Autowired
+    private RestaurantGeoIndex restaurantGeoIndex;
+
+    @Autowired
+    private DeliveryEtaEstimator deliveryEtaEstimator;
+
+    @Autowired
+    private OrderEventPublisher orderEventPublisher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${dispatch.enabled:true}")
+    private boolean enabled;
+
+    @Value("${dispatch.cell-size-km:1}")
+    private double cellSizeKm;
+
+    @Value("${dispatch.max-pickup-km:10}")
+    private double maxPickupKm;
+
+    @Value("${dispatch.load-penalty-km:1.5}")
+    private double loadPenaltyKm;
+
+    private DispatchMatcher matcher;
+
+    // Orders waiting for a courier, by order id
+    private final Map<Long, DispatchMatcher.Job> pending = new LinkedHashMap<>();
+
+    private Timer matchTimer;
+    private Counter assigned;
+
+    @PostConstruct
+    void start() {
+        matcher = new DispatchMatcher(cellSizeKm, maxPickupKm, loadPenaltyKm);
+        matchTimer = Timer.builder("dispatch.match")
+                .description("Time to match waiting deliveries to couriers")
+                .register(meterRegistry);
+        assigned = Counter.builder("dispatch.assigned")
+                .description("Deliveries handed to couriers")
+                .register(meterRegistry);
+        Gauge.builder("dispatch.pending", pending, p -> {
+            synchronized (p) {
+                return p.size();
+            }
+        }).description("Deliveries waiting for a courier").register(meterRegistry);
+
+        if (!enabled) {
+            return;
+        }
+        ReplicaRouting.onPrimary(() -> {
+            for (Courier courier : courierRepository.findByStatus(CourierStatus.ONLINE)) {
+                courierPool.online(courier);
+            }
+            for (DeliveryRepository.CourierDeliveryView delivery : deliveryRepository.findCourierDeliveries(
+                    List.of(DeliveryStatus.ASSIGNED, DeliveryStatus.OUT_FOR_DELIVERY))) {
+                courierPool.restore(delivery.getCourierId(), delivery.getRestaurantId(), delivery.getOrderId(),
+                        delivery.getStatus() == DeliveryStatus.OUT_FOR_DELIVERY);
+            }
+            for (DeliveryRepository.DispatchableView delivery : deliveryRepository.findDispatchable(DISPATCHABLE)) {
+                enqueue(delivery.getOrderId(), delivery.getRestaurantId(), delivery.getOrderDate());
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Placed orders join the queue; orders that were cancelled or went out without a courier leave it.
+     */
+    @EventListener
+    public void onStatusChange(OrderStatusChange change) {
+        if (change.isPlacement()) {
+            enqueue(change.getOrderId(), change.getRestaurantId(), change.getAt());
+        } else if (change.getStatus() != null && LEAVES_QUEUE.contains(change.getStatus())
+                && change.getSource() != OrderStatusChange.Source.COURIER) {
+            release(change.getOrderId());
+        }
+    }
+
+    /**
+     * Queues a placed order for the next matching round. Orders from restaurants without
+     * coordinates cannot be matched by distance and are left to the order pipeline.
+     */
+    public void enqueue(Long orderId, Long restaurantId, LocalDateTime orderDate) {
+        if (!enabled) {
+            return;
+        }
+        Restaurant restaurant = restaurantGeoIndex.getRestaurant(restaurantId);
+        if (restaurant == null) {
+            return;
+        }
+        long waitingSince = orderDate != null
+                ? orderDate.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : System.currentTimeMillis();
+        DispatchMatcher.Job job = new DispatchMatcher.Job(orderId, restaurantId,
+                restaurant.getLatitude(), restaurant.getLongitude(), waitingSince);
+        synchronized (pending) {
+            pending.put(orderId, job);
+        }
+    }
+
+    /**
+     * Stops dispatching an order that was cancelled or finished without a courier.
+     */
+    public void release(Long orderId) {
+        synchronized (pending) {
+            pending.remove(orderId);
+        }
+        courierPool.release(orderId);
+    }
+
+    @Scheduled(fixedDelayString = "${dispatch.interval-ms:1000}")
+    public void scheduledDispatch() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            dispatch();
+        } catch (RuntimeException e) {
+            log.warn("Dispatch round failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Runs one matching round and returns how many deliveries were assigned.
+     */
+    public int dispatch() {
+        List<DispatchMatcher.Job> jobs;
+        synchronized (pending) {
+            if (pending.isEmpty()) {
+                return 0;
+            }
+            jobs = new ArrayList<>(pending.values());
+        }
+        List<DispatchMatcher.CourierSlot> couriers = courierPool.availableSlots();
+        if (couriers.isEmpty()) {
+            return 0;
+        }
+
+        long start = System.nanoTime();
+        List<DispatchMatcher.Assignment> assignments = matcher.match(jobs, couriers);
+        matchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (assignments.isEmpty()) {
+            return 0;
+        }
+
+        List<long[]> rows = new ArrayList<>();
+        for (DispatchMatcher.Assignment assignment : assignments) {
+            for (long orderId : assignment.getOrderIds()) {
+                rows.add(new long[]{assignment.getCourierId(), orderId});
+            }
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[] counts = new TransactionTemplate(transactionManager).execute(status ->
+                jdbcTemplate.batchUpdate(ASSIGN_SQL, new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        ps.setLong(1, rows.get(i)[0]);
+                        ps.setTimestamp(2, now);
+                        ps.setLong(3, rows.get(i)[1]);
+                        ps.setLong(4, rows.get(i)[1]);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return rows.size();
+                    }
+                }));
+
+        int total = 0;
+        int row = 0;
+        for (DispatchMatcher.Assignment assignment : assignments) {
+            List<Long> orderIds = new ArrayList<>(assignment.getOrderIds().length);
+            for (long orderId : assignment.getOrderIds()) {
+                // A driver that cannot report per-row counts returns SUCCESS_NO_INFO (-2)
+                if (counts[row++] != 0) {
+                    orderIds.add(orderId);
+                }
+            }
+            synchronized (pending) {
+                for (long orderId : assignment.getOrderIds()) {
+                    pending.remove(orderId);
+                }
+            }
+            if (orderIds.isEmpty()) {
+                continue;
+            }
+            if (!courierPool.assign(assignment.getCourierId(), assignment.getRestaurantId(), orderIds)) {
+                // The courier went offline while the round ran; hand the orders back
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> deliveryRepository.unassign(
+                        assignment.getCourierId(), orderIds, DeliveryStatus.ASSIGNED, DeliveryStatus.PENDING));
+                for (Long orderId : orderIds) {
+                    enqueue(orderId, assignment.getRestaurantId(), null);
+                }
+                continue;
+            }
+            LocalDateTime assignedAt = now.toLocalDateTime();
+            for (Long orderId : orderIds) {
+                orderEventPublisher.publish(OrderStatusChange.delivery(orderId, DeliveryStatus.ASSIGNED,
+                        assignedAt, OrderStatusChange.Source.DISPATCH));
+            }
+            total += orderIds.size();
+        }
+        assigned.increment(total);
+        return total;
+    }
+
+    /**
+     * Registers the courier profile of an existing user. The user gets the courier role, which
+     * takes effect the next time they sign in.
+     */
+    @Transactional
+    public Courier registerCourier(Courier courier) {
+        if (courier.getUserId() == null) {
+            throw new RuntimeException("A courier needs a user account to sign in with");
+        }
+        User user = userRepository.findById(courier.getUserId())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        if (courierRepository.existsByUserId(user.getId())) {
+            throw new RuntimeException("User is already registered as a courier");
+        }
+        if (user.getRole() == User.Role.CUSTOMER) {
+            user.setRole(User.Role.COURIER);
+        }
+        courier.setId(null);
+        courier.setStatus(CourierStatus.OFFLINE);
+        if (courier.getCapacity() == null || courier.getCapacity() < 1) {
+            courier.setCapacity(1);
+        }
+        return courierRepository.save(courier);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Courier> getCouriers() {
+        return courierRepository.findAll();
+    }
+
+    @Transactional
+    public Courier goOnline(Long courierId, double latitude, double longitude) {
+        requireDispatcher();
+        Courier courier = courierRepository.findById(courierId)
+                .orElseThrow(() -> new RuntimeException("Courier not found"));
+        courier.setStatus(CourierStatus.ONLINE);
+        courier.setLatitude(latitude);
+        courier.setLongitude(longitude);
+        courier.setLastSeenAt(LocalDateTime.now());
+        Courier saved = courierRepository.save(courier);
+        TransactionHooks.afterCommitOrNow(() -> courierPool.online(saved));
+        return saved;
+    }
+
+    @Transactional
+    public Courier goOffline(Long courierId) {
+        requireDispatcher();
+        Courier courier = courierRepository.findById(courierId)
+                .orElseThrow(() -> new RuntimeException("Courier not found"));
+        if (!courierPool.getTrip(courierId).getOutForDelivery().isEmpty()) {
+            throw new RuntimeException("Courier still has orders out for delivery");
+        }
+        courier.setStatus(CourierStatus.OFFLINE);
+        courier.setLastSeenAt(LocalDateTime.now());
+        Courier saved = courierRepository.save(courier);
+
+        // Orders not picked up yet go back to the queue for another courier
+        List<Long> unpicked = courierPool.offline(courierId);
+        if (!unpicked.isEmpty()) {
+            deliveryRepository.unassign(courierId, unpicked, DeliveryStatus.ASSIGNED, DeliveryStatus.PENDING);
+            TransactionHooks.afterCommitOrNow(() -> {
+                for (DeliveryRepository.DispatchableView delivery : deliveryRepository.findDispatchable(unpicked, DISPATCHABLE)) {
+                    enqueue(delivery.getOrderId(), delivery.getRestaurantId(), delivery.getOrderDate());
+                    orderEventPublisher.publish(OrderStatusChange.delivery(delivery.getOrderId(),
+                            DeliveryStatus.PENDING, LocalDateTime.now(), OrderStatusChange.Source.DISPATCH));
+                }
+            });
+        }
+        return saved;
+    }
+
+    /**
+     * Whether the courier signs in with the given account. Online couriers are answered from the
+     * pool, so location pings stay off the database.
+     */
+    public boolean isOperatedBy(Long courierId, Long userId) {
+        Long owner = courierPool.ownerOf(courierId);
+        if (owner == null) {
+            owner = ReplicaRouting.onPrimary(() -> courierRepository.findById(courierId))
+                    .map(Courier::getUserId)
+                    .orElse(null);
+        }
+        return owner != null && owner.equals(userId);
+    }
+
+    public void updateLocation(Long courierId, double latitude, double longitude) {
+        requireDispatcher();
+        if (!courierPool.updateLocation(courierId, latitude, longitude)) {
+            throw new RuntimeException("Courier is not online");
+        }
+    }
+
+    public CourierTrip getTrip(Long courierId) {
+        requireDispatcher();
+        return courierPool.getTrip(courierId);
+    }
+
+    /**
+     * The courier collected its orders at the restaurant. Orders the kitchen has not accepted
+     * yet stay waiting; the rest go out for delivery.
+     */
+    @Transactional
+    public CourierTrip pickUp(Long courierId) {
+        requireDispatcher();
+        CourierTrip trip = courierPool.getTrip(courierId);
+        if (trip.getAwaitingPickup().isEmpty()) {
+            throw new RuntimeException("No orders to pick up");
+        }
+        List<Long> ready = orderRepository.findIdsWithStatus(trip.getAwaitingPickup(), READY_FOR_PICKUP);
+        if (ready.isEmpty()) {
+            throw new RuntimeException("Orders are not ready for pickup yet");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        // The orders share a restaurant and a pickup time, so they share an estimate
+        LocalDateTime estimatedDelivery = deliveryEtaEstimator.estimateDropOff(trip.getRestaurantId(), now);
+        deliveryRepository.updateCourierStatus(courierId, ready, DeliveryStatus.ASSIGNED, DeliveryStatus.OUT_FOR_DELIVERY);
+        orderRepository.updateStatusAndEstimateIfCurrent(ready, READY_FOR_PICKUP, OrderStatus.OUT_FOR_DELIVERY,
+                estimatedDelivery);
+
+        TransactionHooks.afterCommitOrNow(() -> courierPool.pickedUp(courierId, ready));
+        for (Long orderId : ready) {
+            orderEventPublisher.publish(OrderStatusChange.status(orderId, OrderStatus.OUT_FOR_DELIVERY,
+                    DeliveryStatus.OUT_FOR_DELIVERY, estimatedDelivery, now, OrderStatusChange.Source.COURIER));
+        }
+        return pickedUpTrip(courierId, ready);
+    }
+
+    @Transactional
+    public CourierTrip markDelivered(Long courierId, Long orderId) {
+        requireDispatcher();
+        if (!courierPool.isOnTrip(courierId, orderId)) {
+            throw new RuntimeException("Order is not out for delivery with this courier");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        deliveryRepository.updateCourierStatusAndDate(courierId, List.of(orderId),
+                DeliveryStatus.OUT_FOR_DELIVERY, DeliveryStatus.DELIVERED, now);
+        orderRepository.updateStatusIfCurrent(orderId, OrderStatus.OUT_FOR_DELIVERY, OrderStatus.DELIVERED);
+
+        TransactionHooks.afterCommitOrNow(() -> courierPool.delivered(courierId, orderId));
+        orderEventPublisher.publish(OrderStatusChange.status(orderId, OrderStatus.DELIVERED,
+                DeliveryStatus.DELIVERED, null, now, OrderStatusChange.Source.COURIER));
+        CourierTrip trip = courierPool.getTrip(courierId);
+        trip.getOutForDelivery().remove(orderId);
+        return trip;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>(courierPool.getStats());
+        synchronized (pending) {
+            stats.put("pending", pending.size());
+        }
+        stats.put("assigned", (long) assigned.count());
+        return stats;
+    }
+
+    private void requireDispatcher() {
+        if (!enabled) {
+            throw new RuntimeException("Courier dispatch does not run on this instance");
+        }
+    }
+
+    // The pool only changes after commit, so the response applies the pickup up front
+    private CourierTrip pickedUpTrip(Long courierId, List<Long> pickedUp) {
+        CourierTrip trip = courierPool.getTrip(courierId);
+        List<Long> waiting = new ArrayList<>(trip.getAwaitingPickup());
+        waiting.removeAll(pickedUp);
+        List<Long> onTrip = new ArrayList<>(trip.getOutForDelivery());
+        for (Long orderId : pickedUp) {
+            if (!onTrip.contains(orderId)) {
+                onTrip.add(orderId);
+            }
+        }
+        trip.setAwaitingPickup(waiting);
+        trip.setOutForDelivery(onTrip);
+        if (waiting.isEmpty()) {
+            trip.setRestaurantId(null);
+        }
+        return trip;
+    }
+}
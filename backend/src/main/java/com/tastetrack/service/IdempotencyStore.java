@@ -0,0 +1,21 @@
+package com.tastetrack.service;
+
+import java.util.function.Supplier;
+
+/**
+ * Runs an operation at most once per idempotency key. Concurrent calls with the same key
+ * share one execution, and later calls within the retention window get the stored result
+ * without running the operation again. A failed execution is not stored, so it can be retried.
+ * <p>
+ * The default implementation is in memory; a shared store for several instances can replace
+ * it by providing another bean of this type.
+ */
+public interface IdempotencyStore {
+    /**
+     * @param key         client-supplied key, already scoped to the caller
+     * @param fingerprint digest of the request the key was first used with; reusing a key for a different
+     *                    request is rejected. Stores keep it for the retention window, so it must not carry
+     *                    the request itself.
+     */
+    <T> T execute(String key, String fingerprint, Supplier<T> action);
+}
@@ -0,0 +1,134 @@
+package com.tastetrack.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * {@link IdempotencyStore} backed by a concurrent map. Each key maps to a future: the first
+ * caller completes it, concurrent duplicates wait on it, and completed entries are kept until
+ * their TTL runs out. Inserting past the limit evicts the oldest completed entries; when every
+ * entry is still in progress the new request is refused rather than letting the map grow.
+ */
+@Component
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+    private final long ttlMillis;
+    private final long waitTimeoutMillis;
+    private final int maxEntries;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    // Completed entries in completion order, which is also expiry order since the TTL is fixed
+    private final Queue<Completed> completed = new ConcurrentLinkedQueue<>();
+
+    public InMemoryIdempotencyStore(@Value("${idempotency.ttl-seconds:3600}") long ttlSeconds,
+                                    @Value("${idempotency.wait-timeout-ms:30000}") long waitTimeoutMillis,
+                                    @Value("${idempotency.max-entries:100000}") int maxEntries) {
+        this.ttlMillis = TimeUnit.SECONDS.toMillis(ttlSeconds);
+        this.waitTimeoutMillis = waitTimeoutMillis;
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, String fingerprint, Supplier<T> action) {
+        Entry entry = new Entry(fingerprint);
+        while (true) {
+            Entry existing = entries.putIfAbsent(key, entry);
+            if (existing == null) {
+                if (!makeRoom()) {
+                    entries.remove(key, entry);
+                    throw new RuntimeException("Too many requests in progress, please retry shortly");
+                }
+                break;
+            }
+            if (existing.isExpired(System.currentTimeMillis())) {
+                entries.remove(key, existing);
+                continue;
+            }
+            if (!Objects.equals(existing.fingerprint, fingerprint)) {
+                throw new RuntimeException("Idempotency-Key was already used for a different request");
+            }
+            return (T) await(existing);
+        }
+
+        try {
+            T result = action.get();
+            entry.expiresAt = System.currentTimeMillis() + ttlMillis;
+            entry.result.complete(result);
+            completed.add(new Completed(key, entry));
+            return result;
+        } catch (RuntimeException | Error e) {
+            entries.remove(key, entry);
+            entry.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.sweep-interval-ms:60000}")
+    public void sweep() {
+        long now = System.currentTimeMillis();
+        Completed oldest;
+        while ((oldest = completed.peek()) != null && oldest.entry.isExpired(now)) {
+            if (completed.remove(oldest)) {
+                entries.remove(oldest.key, oldest.entry);
+            }
+        }
+    }
+
+    // Evicts the oldest completed entries until the store is within its limit
+    private boolean makeRoom() {
+        while (entries.size() > maxEntries) {
+            Completed oldest = completed.poll();
+            if (oldest == null) {
+                return false;
+            }
+            entries.remove(oldest.key, oldest.entry);
+        }
+        return true;
+    }
+
+    private Object await(Entry entry) {
+        try {
+            return entry.result.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new RuntimeException("A request with this Idempotency-Key is still in progress");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a request with the same Idempotency-Key");
+        }
+    }
+
+    private static final class Entry {
+        private final String fingerprint;
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+        private volatile long expiresAt = Long.MAX_VALUE;
+
+        private Entry(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+
+        private boolean isExpired(long now) {
+            return result.isDone() && expiresAt <= now;
+        }
+    }
+
+    private record Completed(String key, Entry entry) {
+    }
+}
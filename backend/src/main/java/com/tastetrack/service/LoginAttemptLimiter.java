@@ -0,0 +1,108 @@
+package com.tastetrack.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Counts failed logins per email and per client address over a fixed window. Once either
+ * key reaches its limit, further attempts are refused before the password is hashed,
+ * until the window that holds those failures has passed.
+ */
+@Component
+public class LoginAttemptLimiter {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${auth.login.max-failures-per-email:5}")
+    private int maxFailuresPerEmail;
+
+    @Value("${auth.login.max-failures-per-ip:20}")
+    private int maxFailuresPerIp;
+
+    @Value("${auth.login.failure-window-seconds:300}")
+    private long failureWindowSeconds;
+
+    private final Map<String, Failures> failures = new ConcurrentHashMap<>();
+
+    private Counter blocked;
+
+    @PostConstruct
+    void start() {
+        blocked = Counter.builder("auth.login.blocked")
+                .description("Login attempts refused after repeated failures")
+                .register(meterRegistry);
+    }
+
+    public void check(String email, String clientIp) {
+        long now = System.currentTimeMillis();
+        if (isBlocked(emailKey(email), maxFailuresPerEmail, now)
+                || (clientIp != null && isBlocked(ipKey(clientIp), maxFailuresPerIp, now))) {
+            blocked.increment();
+            throw new RuntimeException("Too many failed login attempts, please try again later");
+        }
+    }
+
+    public void recordFailure(String email, String clientIp) {
+        long now = System.currentTimeMillis();
+        increment(emailKey(email), now);
+        if (clientIp != null) {
+            increment(ipKey(clientIp), now);
+        }
+    }
+
+    public void recordSuccess(String email) {
+        failures.remove(emailKey(email));
+    }
+
+    @Scheduled(fixedDelayString = "${auth.login.sweep-interval-ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        failures.values().removeIf(entry -> isExpired(entry, now));
+    }
+
+    private boolean isBlocked(String key, int maxFailures, long now) {
+        Failures entry = failures.get(key);
+        return entry != null && !isExpired(entry, now) && entry.count >= maxFailures;
+    }
+
+    private void increment(String key, long now) {
+        failures.compute(key, (k, entry) -> {
+            if (entry == null || isExpired(entry, now)) {
+                return new Failures(now);
+            }
+            entry.count++;
+            return entry;
+        });
+    }
+
+    private boolean isExpired(Failures entry, long now) {
+        return now - entry.windowStart >= failureWindowSeconds * 1000;
+    }
+
+    private static String emailKey(String email) {
+        return "email:" + (email != null ? email.trim().toLowerCase(Locale.ROOT) : "");
+    }
+
+    private static String ipKey(String clientIp) {
+        return "ip:" + clientIp;
+    }
+
+    private static final class Failures {
+        private final long windowStart;
+        private volatile int count = 1;
+
+        private Failures(long windowStart) {
+            this.windowStart = windowStart;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.tastetrack.service;
+
+import com.tastetrack.entity.MenuItem;
+import com.tastetrack.util.TransactionHooks;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache of menus keyed by restaurant id, with a per-category index
+ * built once per entry. Entries expire after a TTL and are invalidated on menu writes.
+ * Size, hit and eviction counts are published as {@code menu.cache.*} meters.
+ */
+@Component
+public class MenuCatalogCache {
+    private final int maxRestaurants;
+    private final long ttlNanos;
+
+    private final LinkedHashMap<Long, Entry> entries;
+
+    // Bumped on every invalidation so a load that raced with a write is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public MenuCatalogCache(@Value("${menu.cache.max-restaurants:1000}") int maxRestaurants,
+                            @Value("${menu.cache.ttl-seconds:300}") long ttlSeconds,
+                            MeterRegistry meterRegistry) {
+        this.maxRestaurants = maxRestaurants;
+        this.ttlNanos = ttlSeconds * 1_000_000_000L;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                if (size() > MenuCatalogCache.this.maxRestaurants) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        Gauge.builder("menu.cache.size", entries, e -> {
+            synchronized (e) {
+                return e.size();
+            }
+        }).description("Restaurants whose menu is cached").register(meterRegistry);
+        requests(meterRegistry, "hit", hits);
+        requests(meterRegistry, "miss", misses);
+        removals(meterRegistry, "size", evictions);
+        removals(meterRegistry, "expired", expirations);
+        removals(meterRegistry, "invalidated", invalidations);
+    }
+
+    public List<MenuItem> getMenu(Long restaurantId, Supplier<List<MenuItem>> loader) {
+        return getEntry(restaurantId, loader).items;
+    }
+
+    public List<MenuItem> getMenuByCategory(Long restaurantId, String category, Supplier<List<MenuItem>> loader) {
+        List<MenuItem> items = getEntry(restaurantId, loader).byCategory.get(categoryKey(category));
+        return items != null ? items : Collections.emptyList();
+    }
+
+    public void invalidate(Long restaurantId) {
+        if (restaurantId == null) {
+            return;
+        }
+        evict(restaurantId);
+        // A reader could reload the old menu before the writing transaction commits, so evict again afterwards
+        TransactionHooks.afterCommit(() -> evict(restaurantId));
+    }
+
+    public void invalidateAll() {
+        clear();
+        TransactionHooks.afterCommit(this::clear);
+    }
+
+    private Entry getEntry(Long restaurantId, Supplier<List<MenuItem>> loader) {
+        long now = System.nanoTime();
+        synchronized (entries) {
+            Entry entry = entries.get(restaurantId);
+            if (entry != null) {
+                if (now - entry.loadedAt < ttlNanos) {
+                    hits.incrementAndGet();
+                    return entry;
+                }
+                entries.remove(restaurantId);
+                expirations.incrementAndGet();
+            }
+        }
+
+        misses.incrementAndGet();
+        long startGeneration = generation.get();
+        Entry entry = new Entry(loader.get(), now);
+
+        synchronized (entries) {
+            if (generation.get() == startGeneration) {
+                entries.put(restaurantId, entry);
+            }
+        }
+        return entry;
+    }
+
+    private void evict(Long restaurantId) {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            if (entries.remove(restaurantId) != null) {
+                invalidations.incrementAndGet();
+            }
+        }
+    }
+
+    private void clear() {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            invalidations.addAndGet(entries.size());
+            entries.clear();
+        }
+    }
+
+    private static void requests(MeterRegistry registry, String result, AtomicLong count) {
+        FunctionCounter.builder("menu.cache.requests", count, AtomicLong::get)
+                .tag("result", result)
+                .description("Menu lookups by cache result")
+                .register(registry);
+    }
+
+    private static void removals(MeterRegistry registry, String cause, AtomicLong count) {
+        FunctionCounter.builder("menu.cache.removals", count, AtomicLong::get)
+                .tag("cause", cause)
+                .description("Menus dropped from the cache by cause")
+                .register(registry);
+    }
+
+    private static String categoryKey(String category) {
+        return category == null ? "" : category.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Entry {
+        private final List<MenuItem> items;
+        private final Map<String, List<MenuItem>> byCategory;
+        private final long loadedAt;
+
+        private Entry(List<MenuItem> items, long loadedAt) {
+            this.items = Collections.unmodifiableList(new ArrayList<>(items));
+            this.loadedAt = loadedAt;
+
+            Map<String, List<MenuItem>> index = new HashMap<>();
+            for (MenuItem item : items) {
+                index.computeIfAbsent(categoryKey(item.getCategory()), k -> new ArrayList<>()).add(item);
+            }
+            index.replaceAll((k, v) -> Collections.unmodifiableList(v));
+            this.byCategory = index;
+        }
+    }
+}
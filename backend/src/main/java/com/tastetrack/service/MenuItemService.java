@@ -1,9 +1,12 @@
 package com.tastetrack.service;
 
+import com.tastetrack.dto.MenuItemResponse;
 import com.tastetrack.entity.MenuItem;
 import com.tastetrack.repository.MenuItemRepository;
+import com.tastetrack.util.ReplicaRouting;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -13,28 +16,90 @@ public class MenuItemService {
     @Autowired
     private MenuItemRepository menuItemRepository;
 
+    @Autowired
+    private MenuCatalogCache menuCatalogCache;
+
+    @Autowired
+    private RestaurantSearchIndex restaurantSearchIndex;
+
+    @Autowired
+    private MenuPriceSnapshot menuPriceSnapshot;
+
+    @Autowired
+    private CatalogSnapshotCache catalogSnapshotCache;
+
     public List<MenuItem> getMenuItemsByRestaurant(Long restaurantId) {
-        return menuItemRepository.findByRestaurantId(restaurantId);
+        return menuCatalogCache.getMenu(restaurantId, () -> loadMenu(restaurantId));
+    }
+
+    public CatalogSnapshotCache.Snapshot getMenuSnapshot(Long restaurantId) {
+        return catalogSnapshotCache.getMenu(restaurantId,
+                () -> MenuItemResponse.from(getMenuItemsByRestaurant(restaurantId)));
     }
 
     public List<MenuItem> getMenuItemsByRestaurantAndCategory(Long restaurantId, String category) {
-        return menuItemRepository.findByRestaurantIdAndCategory(restaurantId, category);
+        return menuCatalogCache.getMenuByCategory(restaurantId, category, () -> loadMenu(restaurantId));
     }
 
+    @Transactional(readOnly = true)
     public Optional<MenuItem> getMenuItemById(Long id) {
         return menuItemRepository.findById(id);
     }
 
+    @Transactional
     public MenuItem createMenuItem(MenuItem menuItem) {
-        return menuItemRepository.save(menuItem);
+        MenuItem saved = menuItemRepository.save(menuItem);
+        menuCatalogCache.invalidate(restaurantIdOf(saved));
+        catalogSnapshotCache.invalidateMenu(restaurantIdOf(saved));
+        menuPriceSnapshot.invalidate();
+        restaurantSearchIndex.indexMenuItem(saved);
+        return saved;
     }
 
+    @Transactional
     public MenuItem updateMenuItem(Long id, MenuItem menuItem) {
+        Long previousRestaurantId = menuItemRepository.findById(id)
+                .map(this::restaurantIdOf)
+                .orElse(null);
+
         menuItem.setId(id);
-        return menuItemRepository.save(menuItem);
+        MenuItem saved = menuItemRepository.save(menuItem);
+
+        menuCatalogCache.invalidate(previousRestaurantId);
+        catalogSnapshotCache.invalidateMenu(previousRestaurantId);
+        menuCatalogCache.invalidate(restaurantIdOf(saved));
+        catalogSnapshotCache.invalidateMenu(restaurantIdOf(saved));
+        menuPriceSnapshot.invalidate();
+        restaurantSearchIndex.indexMenuItem(saved);
+        return saved;
     }
 
+    @Transactional
     public void deleteMenuItem(Long id) {
+        Long restaurantId = menuItemRepository.findById(id)
+                .map(this::restaurantIdOf)
+                .orElse(null);
+
         menuItemRepository.deleteById(id);
+        menuCatalogCache.invalidate(restaurantId);
+        catalogSnapshotCache.invalidateMenu(restaurantId);
+        menuPriceSnapshot.invalidate();
+        restaurantSearchIndex.removeMenuItem(id);
+    }
+
+    public void invalidateMenuCache() {
+        menuCatalogCache.invalidateAll();
+        catalogSnapshotCache.invalidateMenus();
+        menuPriceSnapshot.invalidate();
+    }
+
+    // Cache fills read the primary so a reload right after an invalidation cannot cache
+    // the pre-write menu from a lagging replica for the whole TTL
+    private List<MenuItem> loadMenu(Long restaurantId) {
+        return ReplicaRouting.onPrimary(() -> menuItemRepository.findByRestaurantId(restaurantId));
+    }
+
+    private Long restaurantIdOf(MenuItem menuItem) {
+        return menuItem.getRestaurant() != null ? menuItem.getRestaurant().getId() : null;
     }
 }
@@ -0,0 +1,221 @@
+package com.tastetrack.service;
+
+import com.tastetrack.repository.MenuItemRepository;
+import com.tastetrack.repository.RestaurantRepository;
+import com.tastetrack.util.ReplicaRouting;
+import com.tastetrack.util.TransactionHooks;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Immutable copy of every menu item's price and restaurant, plus each restaurant's open flag,
+ * held in open-addressed primitive arrays so order validation reads no entities. It also keeps
+ * the names, images and addresses the order confirmation shows, so placing an order needs no
+ * menu or restaurant entities at all. Menu and
+ * restaurant writes drop it and the next order rebuilds it. Each build carries a version,
+ * the time it was read from the database, which orders record for audit.
+ */
+@Component
+public class MenuPriceSnapshot {
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    // Bumped on every invalidation so a build that raced with a write is not kept
+    private final AtomicLong generation = new AtomicLong();
+
+    private volatile Snapshot snapshot;
+
+    private long lastVersion;
+
+    public Snapshot current() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (snapshot != null) {
+                return snapshot;
+            }
+            long startGeneration = generation.get();
+            lastVersion = Math.max(lastVersion + 1, System.currentTimeMillis());
+            Snapshot built = ReplicaRouting.onPrimary(() -> build(lastVersion));
+            if (generation.get() == startGeneration) {
+                snapshot = built;
+            }
+            return built;
+        }
+    }
+
+    /**
+     * Drops the snapshot so the next order rebuilds it from the database.
+     */
+    public void invalidate() {
+        reset();
+        TransactionHooks.afterCommit(this::reset);
+    }
+
+    private void reset() {
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+
+    private Snapshot build(long version) {
+        List<RestaurantRepository.RestaurantOpenView> restaurants = restaurantRepository.findAllOpenFlags();
+        LongIndex restaurantIndex = new LongIndex(restaurants.size());
+        boolean[] open = new boolean[restaurantIndex.capacity()];
+        String[] restaurantLabels = new String[restaurantIndex.capacity() * 3];
+        for (RestaurantRepository.RestaurantOpenView restaurant : restaurants) {
+            int slot = restaurantIndex.add(restaurant.getId());
+            open[slot] = Boolean.TRUE.equals(restaurant.getIsOpen());
+            restaurantLabels[slot * 3] = restaurant.getName();
+            restaurantLabels[slot * 3 + 1] = restaurant.getImage();
+            restaurantLabels[slot * 3 + 2] = restaurant.getAddress();
+        }
+
+        List<MenuItemRepository.MenuItemPriceView> items = menuItemRepository.findAllPrices();
+        LongIndex itemIndex = new LongIndex(items.size());
+        double[] prices = new double[itemIndex.capacity()];
+        long[] restaurantIds = new long[itemIndex.capacity()];
+        String[] itemLabels = new String[itemIndex.capacity() * 2];
+        for (MenuItemRepository.MenuItemPriceView item : items) {
+            int slot = itemIndex.add(item.getId());
+            prices[slot] = item.getPrice() != null ? item.getPrice() : 0.0;
+            restaurantIds[slot] = item.getRestaurantId();
+            itemLabels[slot * 2] = item.getName();
+            itemLabels[slot * 2 + 1] = item.getImage();
+        }
+        return new Snapshot(version, itemIndex, prices, restaurantIds, itemLabels, restaurantIndex, open,
+                restaurantLabels);
+    }
+
+    public static final class Snapshot {
+        private final long version;
+        private final LongIndex items;
+        private final double[] prices;
+        private final long[] restaurantIds;
+        // Name and image per item slot
+        private final String[] itemLabels;
+        private final LongIndex restaurants;
+        private final boolean[] open;
+        // Name, image and address per restaurant slot
+        private final String[] restaurantLabels;
+
+        private Snapshot(long version, LongIndex items, double[] prices, long[] restaurantIds, String[] itemLabels,
+                         LongIndex restaurants, boolean[] open, String[] restaurantLabels) {
+            this.version = version;
+            this.items = items;
+            this.prices = prices;
+            this.restaurantIds = restaurantIds;
+            this.itemLabels = itemLabels;
+            this.restaurants = restaurants;
+            this.open = open;
+            this.restaurantLabels = restaurantLabels;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public boolean hasRestaurant(long restaurantId) {
+            return restaurants.find(restaurantId) >= 0;
+        }
+
+        public boolean isOpen(long restaurantId) {
+            int slot = restaurants.find(restaurantId);
+            return slot >= 0 && open[slot];
+        }
+
+        public String restaurantName(long restaurantId) {
+            return restaurantLabel(restaurantId, 0);
+        }
+
+        public String restaurantImage(long restaurantId) {
+            return restaurantLabel(restaurantId, 1);
+        }
+
+        public String restaurantAddress(long restaurantId) {
+            return restaurantLabel(restaurantId, 2);
+        }
+
+        /**
+         * Slot of the menu item for {@link #priceAt}, {@link #restaurantAt}, {@link #nameAt} and
+         * {@link #imageAt}, or -1 if it does not exist.
+         */
+        public int findItem(long menuItemId) {
+            return items.find(menuItemId);
+        }
+
+        public double priceAt(int slot) {
+            return prices[slot];
+        }
+
+        public long restaurantAt(int slot) {
+            return restaurantIds[slot];
+        }
+
+        public String nameAt(int slot) {
+            return itemLabels[slot * 2];
+        }
+
+        public String imageAt(int slot) {
+            return itemLabels[slot * 2 + 1];
+        }
+
+        private String restaurantLabel(long restaurantId, int field) {
+            int slot = restaurants.find(restaurantId);
+            return slot >= 0 ? restaurantLabels[slot * 3 + field] : null;
+        }
+    }
+
+    /**
+     * Linear-probing set of positive long keys mapping each key to a stable slot.
+     */
+    private static final class LongIndex {
+        private final long[] keys;
+        private final int mask;
+
+        private LongIndex(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(4, expected * 2 - 1)) << 1;
+            keys = new long[capacity];
+            mask = capacity - 1;
+        }
+
+        private int capacity() {
+            return keys.length;
+        }
+
+        private int add(long key) {
+            int slot = hash(key) & mask;
+            while (keys[slot] != 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            return slot;
+        }
+
+        private int find(long key) {
+            if (key <= 0) {
+                return -1;
+            }
+            int slot = hash(key) & mask;
+            while (keys[slot] != 0) {
+                if (keys[slot] == key) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        private static int hash(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
@@ -0,0 +1,478 @@
+package com.tastetrack.service;
+
+import com.tastetrack.dto.OrderAnalytics;
+import com.tastetrack.dto.OrderStatusChange;
+import com.tastetrack.entity.Order.OrderStatus;
+import com.tastetrack.repository.OrderRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rolling order metrics per restaurant and overall, kept in fixed-size rings of minute, hour
+ * and day buckets backed by primitive arrays. Order placement and status changes update the
+ * current bucket of each ring, so a dashboard query reads only the buckets it asks for.
+ * In-flight orders are loaded at startup so dwell times and in-progress counts survive a
+ * restart, and placements from the retained window are backfilled in the background.
+ * Changes made on other instances arrive through {@link OrderEventRelay}, so every instance
+ * reports on all orders; times are those of the changes, not of their arrival.
+ */
+@Service
+// The relay takes its starting point first, so no placement falls between it and the backfill
+@DependsOn("orderEventRelay")
+public class OrderAnalyticsService {
+    private static final Logger log = LoggerFactory.getLogger(OrderAnalyticsService.class);
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+    private static final int STATUS_COUNT = STATUSES.length;
+
+    public enum Resolution {
+        MINUTE(60_000L), HOUR(3_600_000L), DAY(86_400_000L);
+
+        private final long millis;
+
+        Resolution(long millis) {
+            this.millis = millis;
+        }
+    }
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Value("${analytics.orders.minute-buckets:120}")
+    private int minuteBuckets;
+
+    @Value("${analytics.orders.hour-buckets:168}")
+    private int hourBuckets;
+
+    @Value("${analytics.orders.day-buckets:90}")
+    private int dayBuckets;
+
+    @Value("${analytics.orders.backfill-enabled:true}")
+    private boolean backfillEnabled;
+
+    @Value("${analytics.orders.backfill-page-size:5000}")
+    private int backfillPageSize;
+
+    private final Map<Long, Series> restaurants = new ConcurrentHashMap<>();
+    private final Map<Long, ActiveOrder> activeOrders = new ConcurrentHashMap<>();
+
+    private Series overall;
+    private LocalDateTime startedAt;
+
+    @PostConstruct
+    void start() {
+        startedAt = LocalDateTime.now();
+        overall = newSeries();
+        try {
+            for (OrderRepository.OrderStatusView order : orderRepository.findOrderStatusesExcluding(
+                    List.of(OrderStatus.DELIVERED, OrderStatus.CANCELLED))) {
+                // Entry time unknown, so the first dwell of these orders is not measured
+                track(order.getId(), order.getRestaurantId(), order.getStatus(), -1);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not load in-flight orders for analytics: {}", e.getMessage());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (!backfillEnabled) {
+            return;
+        }
+        Thread thread = new Thread(this::loadPlacedOrders, "order-analytics-backfill");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @EventListener
+    public void onStatusChange(OrderStatusChange change) {
+        if (change.isPlacement()) {
+            recordPlaced(change.getOrderId(), change.getRestaurantId(), change.getAt(),
+                    change.getTotal(), change.getItemCount());
+        } else if (change.getStatus() != null) {
+            recordStatusChange(change.getOrderId(), change.getStatus(), change.getAt());
+        }
+    }
+
+    private void recordPlaced(Long orderId, Long restaurantId, LocalDateTime orderDate, double total, int items) {
+        long at = toMillis(orderDate);
+        // Placed elsewhere before startup but relayed after it; the backfill counts those
+        if (!backfillEnabled || !orderDate.isBefore(startedAt)) {
+            overall.recordPlaced(at, total, items);
+            seriesFor(restaurantId).recordPlaced(at, total, items);
+        }
+        track(orderId, restaurantId, OrderStatus.PENDING, at);
+    }
+
+    /**
+     * Records a status change of a followed order; orders finished before startup are ignored.
+     */
+    private void recordStatusChange(Long orderId, OrderStatus status, LocalDateTime at) {
+        ActiveOrder order = activeOrders.get(orderId);
+        if (order == null) {
+            return;
+        }
+        long now = toMillis(at);
+        synchronized (order) {
+            if (order.finished || order.status == status) {
+                return;
+            }
+            long dwellMillis = order.enteredAt >= 0 ? Math.max(0, now - order.enteredAt) : -1;
+            Series series = seriesFor(order.restaurantId);
+            overall.recordTransition(now, order.status, dwellMillis, status);
+            series.recordTransition(now, order.status, dwellMillis, status);
+
+            if (status == OrderStatus.DELIVERED || status == OrderStatus.CANCELLED) {
+                order.finished = true;
+                activeOrders.remove(orderId);
+            } else {
+                order.status = status;
+                order.enteredAt = now;
+            }
+        }
+    }
+
+    public OrderAnalytics getAnalytics(Long restaurantId, Resolution resolution, int buckets) {
+        int count = checkBuckets(resolution, buckets);
+        Series series = restaurantId == null ? overall : restaurants.get(restaurantId);
+        long lastBucket = Math.floorDiv(toMillis(LocalDateTime.now()), resolution.millis);
+        long firstBucket = lastBucket - count + 1;
+
+        Window window = series != null ? series.read(resolution, firstBucket, count) : new Window(count);
+        List<OrderAnalytics.Bucket> results = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            results.add(window.bucket(i, startOf(firstBucket + i, resolution)));
+        }
+        return new OrderAnalytics(restaurantId, resolution.name(),
+                startOf(firstBucket, resolution), startOf(lastBucket + 1, resolution),
+                window.totals(startOf(firstBucket, resolution)), window.inProgress(), results);
+    }
+
+    /**
+     * Window totals for each restaurant with metrics, highest revenue first. Buckets are left out.
+     */
+    public List<OrderAnalytics> getRestaurantTotals(Resolution resolution, int buckets, int limit) {
+        int count = checkBuckets(resolution, buckets);
+        long lastBucket = Math.floorDiv(toMillis(LocalDateTime.now()), resolution.millis);
+        long firstBucket = lastBucket - count + 1;
+        LocalDateTime from = startOf(firstBucket, resolution);
+        LocalDateTime to = startOf(lastBucket + 1, resolution);
+
+        List<OrderAnalytics> results = new ArrayList<>();
+        for (Map.Entry<Long, Series> entry : restaurants.entrySet()) {
+            Window window = entry.getValue().read(resolution, firstBucket, count);
+            results.add(new OrderAnalytics(entry.getKey(), resolution.name(), from, to,
+                    window.totals(from), window.inProgress(), List.of()));
+        }
+        results.sort(Comparator.comparingDouble((OrderAnalytics a) -> a.getTotals().getRevenue()).reversed()
+                .thenComparing(OrderAnalytics::getRestaurantId));
+        return results.size() > limit ? new ArrayList<>(results.subList(0, Math.max(0, limit))) : results;
+    }
+
+    @Scheduled(fixedDelayString = "${analytics.orders.sweep-interval-ms:3600000}")
+    public void evictIdleRestaurants() {
+        long idleBefore = toMillis(LocalDateTime.now()) - dayBuckets * Resolution.DAY.millis;
+        restaurants.values().removeIf(series -> series.isIdleSince(idleBefore));
+    }
+
+    private void loadPlacedOrders() {
+        LocalDateTime since = startedAt.toLocalDate().minusDays(dayBuckets - 1L).atStartOfDay();
+        long afterId = 0;
+        long loaded = 0;
+        try {
+            while (true) {
+                // Orders placed after startup are recorded live, so the backfill stops at startedAt
+                List<OrderRepository.OrderFactView> page = orderRepository.findOrderFactsAfter(
+                        since, startedAt, afterId, PageRequest.of(0, backfillPageSize));
+                for (OrderRepository.OrderFactView order : page) {
+                    long at = toMillis(order.getOrderDate());
+                    double total = order.getTotal() != null ? order.getTotal() : 0.0;
+                    int items = order.getItemCount() != null ? order.getItemCount().intValue() : 0;
+                    overall.recordPlaced(at, total, items);
+                    seriesFor(order.getRestaurantId()).recordPlaced(at, total, items);
+                    afterId = order.getId();
+                }
+                loaded += page.size();
+                if (page.size() < backfillPageSize) {
+                    break;
+                }
+            }
+            log.info("Order analytics backfilled {} orders since {}", loaded, since);
+        } catch (RuntimeException e) {
+            log.warn("Order analytics backfill stopped after {} orders: {}", loaded, e.getMessage());
+        }
+    }
+
+    private void track(Long orderId, Long restaurantId, OrderStatus status, long enteredAt) {
+        ActiveOrder order = new ActiveOrder(restaurantId, status, enteredAt);
+        if (activeOrders.putIfAbsent(orderId, order) == null) {
+            overall.adjustInProgress(status, 1);
+            seriesFor(restaurantId).adjustInProgress(status, 1);
+        }
+    }
+
+    private Series seriesFor(Long restaurantId) {
+        return restaurants.computeIfAbsent(restaurantId, id -> newSeries());
+    }
+
+    private Series newSeries() {
+        return new Series(new Ring(Resolution.MINUTE.millis, minuteBuckets),
+                new Ring(Resolution.HOUR.millis, hourBuckets),
+                new Ring(Resolution.DAY.millis, dayBuckets));
+    }
+
+    private int checkBuckets(Resolution resolution, int buckets) {
+        int retained = switch (resolution) {
+            case MINUTE -> minuteBuckets;
+            case HOUR -> hourBuckets;
+            case DAY -> dayBuckets;
+        };
+        if (buckets < 1 || buckets > retained) {
+            throw new RuntimeException("Buckets must be between 1 and " + retained + " for " + resolution);
+        }
+        return buckets;
+    }
+
+    // Buckets follow local wall-clock time, like the order dates they are built from
+    private static long toMillis(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static LocalDateTime startOf(long bucket, Resolution resolution) {
+        return LocalDateTime.ofEpochSecond(bucket * resolution.millis / 1000, 0, ZoneOffset.UTC);
+    }
+
+    private static final class ActiveOrder {
+        private final Long restaurantId;
+        private OrderStatus status;
+        private long enteredAt;
+        private boolean finished;
+
+        private ActiveOrder(Long restaurantId, OrderStatus status, long enteredAt) {
+            this.restaurantId = restaurantId;
+            this.status = status;
+            this.enteredAt = enteredAt;
+        }
+    }
+
+    /**
+     * One ring per resolution plus the current in-progress counts, all guarded by the series lock.
+     */
+    private static final class Series {
+        private final Ring[] rings;
+        private final int[] inProgress = new int[STATUS_COUNT];
+        private long lastEventAt = Long.MIN_VALUE;
+
+        private Series(Ring... rings) {
+            this.rings = rings;
+        }
+
+        private synchronized void recordPlaced(long at, double total, int items) {
+            long revenueCents = Math.round(total * 100);
+            for (Ring ring : rings) {
+                int slot = ring.slot(at);
+                if (slot >= 0) {
+                    ring.orders[slot]++;
+                    ring.revenueCents[slot] += revenueCents;
+                    ring.items[slot] += items;
+                    ring.entered[slot * STATUS_COUNT + OrderStatus.PENDING.ordinal()]++;
+                }
+            }
+            lastEventAt = Math.max(lastEventAt, at);
+        }
+
+        private synchronized void recordTransition(long at, OrderStatus from, long dwellMillis, OrderStatus to) {
+            for (Ring ring : rings) {
+                int slot = ring.slot(at);
+                if (slot >= 0) {
+                    ring.entered[slot * STATUS_COUNT + to.ordinal()]++;
+                    if (dwellMillis >= 0) {
+                        ring.dwellMillis[slot * STATUS_COUNT + from.ordinal()] += dwellMillis;
+                        ring.dwellCount[slot * STATUS_COUNT + from.ordinal()]++;
+                    }
+                }
+            }
+            inProgress[from.ordinal()]--;
+            if (to != OrderStatus.DELIVERED && to != OrderStatus.CANCELLED) {
+                inProgress[to.ordinal()]++;
+            }
+            lastEventAt = Math.max(lastEventAt, at);
+        }
+
+        private synchronized void adjustInProgress(OrderStatus status, int delta) {
+            inProgress[status.ordinal()] += delta;
+        }
+
+        private synchronized boolean isIdleSince(long time) {
+            if (lastEventAt >= time) {
+                return false;
+            }
+            for (int count : inProgress) {
+                if (count > 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private synchronized Window read(Resolution resolution, long firstBucket, int count) {
+            Ring ring = rings[resolution.ordinal()];
+            Window window = new Window(count);
+            for (int i = 0; i < count; i++) {
+                long bucket = firstBucket + i;
+                int slot = (int) Math.floorMod(bucket, (long) ring.length);
+                if (ring.bucketIds[slot] != bucket) {
+                    continue;
+                }
+                window.orders[i] = ring.orders[slot];
+                window.revenueCents[i] = ring.revenueCents[slot];
+                window.items[i] = ring.items[slot];
+                System.arraycopy(ring.entered, slot * STATUS_COUNT, window.entered, i * STATUS_COUNT, STATUS_COUNT);
+                System.arraycopy(ring.dwellMillis, slot * STATUS_COUNT, window.dwellMillis, i * STATUS_COUNT, STATUS_COUNT);
+                System.arraycopy(ring.dwellCount, slot * STATUS_COUNT, window.dwellCount, i * STATUS_COUNT, STATUS_COUNT);
+            }
+            System.arraycopy(inProgress, 0, window.inProgress, 0, STATUS_COUNT);
+            return window;
+        }
+    }
+
+    /**
+     * Fixed number of buckets of one size. A slot holds the bucket whose index maps to it,
+     * and is cleared when a newer bucket takes it over; events older than the slot's current
+     * bucket have fallen out of the window and are dropped.
+     */
+    private static final class Ring {
+        private final long size;
+        private final int length;
+        private final long[] bucketIds;
+        private final int[] orders;
+        private final long[] revenueCents;
+        private final int[] items;
+        private final int[] entered;
+        private final long[] dwellMillis;
+        private final int[] dwellCount;
+
+        private Ring(long size, int length) {
+            this.size = size;
+            this.length = length;
+            bucketIds = new long[length];
+            Arrays.fill(bucketIds, Long.MIN_VALUE);
+            orders = new int[length];
+            revenueCents = new long[length];
+            items = new int[length];
+            entered = new int[length * STATUS_COUNT];
+            dwellMillis = new long[length * STATUS_COUNT];
+            dwellCount = new int[length * STATUS_COUNT];
+        }
+
+        private int slot(long at) {
+            long bucket = Math.floorDiv(at, size);
+            int slot = (int) Math.floorMod(bucket, (long) length);
+            if (bucketIds[slot] == bucket) {
+                return slot;
+            }
+            if (bucketIds[slot] > bucket) {
+                return -1;
+            }
+            bucketIds[slot] = bucket;
+            orders[slot] = 0;
+            revenueCents[slot] = 0;
+            items[slot] = 0;
+            Arrays.fill(entered, slot * STATUS_COUNT, (slot + 1) * STATUS_COUNT, 0);
+            Arrays.fill(dwellMillis, slot * STATUS_COUNT, (slot + 1) * STATUS_COUNT, 0);
+            Arrays.fill(dwellCount, slot * STATUS_COUNT, (slot + 1) * STATUS_COUNT, 0);
+            return slot;
+        }
+    }
+
+    /**
+     * Copy of a range of buckets taken under the series lock, turned into DTOs outside it.
+     */
+    private static final class Window {
+        private final int[] orders;
+        private final long[] revenueCents;
+        private final int[] items;
+        private final int[] entered;
+        private final long[] dwellMillis;
+        private final int[] dwellCount;
+        private final int[] inProgress = new int[STATUS_COUNT];
+
+        private Window(int count) {
+            orders = new int[count];
+            revenueCents = new long[count];
+            items = new int[count];
+            entered = new int[count * STATUS_COUNT];
+            dwellMillis = new long[count * STATUS_COUNT];
+            dwellCount = new int[count * STATUS_COUNT];
+        }
+
+        private OrderAnalytics.Bucket bucket(int i, LocalDateTime start) {
+            return toBucket(start, orders[i], revenueCents[i], items[i], i, i + 1);
+        }
+
+        private OrderAnalytics.Bucket totals(LocalDateTime start) {
+            long totalOrders = 0;
+            long totalRevenue = 0;
+            long totalItems = 0;
+            for (int i = 0; i < orders.length; i++) {
+                totalOrders += orders[i];
+                totalRevenue += revenueCents[i];
+                totalItems += items[i];
+            }
+            return toBucket(start, totalOrders, totalRevenue, totalItems, 0, orders.length);
+        }
+
+        private Map<OrderStatus, Integer> inProgress() {
+            Map<OrderStatus, Integer> counts = new EnumMap<>(OrderStatus.class);
+            for (OrderStatus status : STATUSES) {
+                if (status != OrderStatus.DELIVERED && status != OrderStatus.CANCELLED) {
+                    counts.put(status, Math.max(0, inProgress[status.ordinal()]));
+                }
+            }
+            return counts;
+        }
+
+        private OrderAnalytics.Bucket toBucket(LocalDateTime start, long orderCount, long revenue, long itemCount,
+                                               int from, int to) {
+            Map<OrderStatus, Long> enteredCounts = new EnumMap<>(OrderStatus.class);
+            Map<OrderStatus, Double> dwellSeconds = new EnumMap<>(OrderStatus.class);
+            for (OrderStatus status : STATUSES) {
+                long enteredSum = 0;
+                long dwellSum = 0;
+                long dwellSamples = 0;
+                for (int i = from; i < to; i++) {
+                    enteredSum += entered[i * STATUS_COUNT + status.ordinal()];
+                    dwellSum += dwellMillis[i * STATUS_COUNT + status.ordinal()];
+                    dwellSamples += dwellCount[i * STATUS_COUNT + status.ordinal()];
+                }
+                enteredCounts.put(status, enteredSum);
+                if (dwellSamples > 0) {
+                    dwellSeconds.put(status, dwellSum / 1000.0 / dwellSamples);
+                }
+            }
+            return new OrderAnalytics.Bucket(start, orderCount, revenue / 100.0,
+                    orderCount > 0 ? revenue / 100.0 / orderCount : 0.0,
+                    orderCount > 0 ? (double) itemCount / orderCount : 0.0,
+                    enteredCounts, dwellSeconds);
+        }
+    }
+}
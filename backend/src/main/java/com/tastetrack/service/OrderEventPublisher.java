@@ -0,0 +1,68 @@
+package com.tastetrack.service;
+
+import com.tastetrack.dto.OrderStatusChange;
+import com.tastetrack.entity.OrderEvent;
+import com.tastetrack.repository.OrderEventRepository;
+import com.tastetrack.util.TransactionHooks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+/**
+ * The one place order changes are announced. Writers publish an {@link OrderStatusChange}
+ * inside their transaction; it reaches this instance's {@code @EventListener}s once the
+ * transaction commits, so nothing downstream sees a change that was rolled back. The change
+ * is also stored as an {@link OrderEvent} in the same transaction, from which
+ * {@link OrderEventRelay} delivers it on every other instance.
+ */
+@Service
+public class OrderEventPublisher {
+    private static final Logger log = LoggerFactory.getLogger(OrderEventPublisher.class);
+
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Autowired
+    private OrderEventRepository orderEventRepository;
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    public void publish(OrderStatusChange change) {
+        // Joins the writer's transaction; outside one it is stored on its own
+        orderEventRepository.save(toEvent(change));
+        TransactionHooks.afterCommitOrNow(() -> deliver(change));
+    }
+
+    String getInstanceId() {
+        return instanceId;
+    }
+
+    // The change is committed by now; a failing listener must not turn that into an error
+    void deliver(OrderStatusChange change) {
+        try {
+            applicationEventPublisher.publishEvent(change);
+        } catch (RuntimeException e) {
+            log.warn("Listener failed for order {} change to {}: {}",
+                    change.getOrderId(), change.getStatus(), e.getMessage(), e);
+        }
+    }
+
+    private OrderEvent toEvent(OrderStatusChange change) {
+        OrderEvent event = new OrderEvent();
+        event.setInstanceId(instanceId);
+        event.setOrderId(change.getOrderId());
+        event.setRestaurantId(change.getRestaurantId());
+        event.setStatus(change.getStatus());
+        event.setDeliveryStatus(change.getDeliveryStatus());
+        event.setEstimatedDelivery(change.getEstimatedDelivery());
+        event.setSource(change.getSource());
+        event.setTotal(change.getTotal());
+        event.setItemCount(change.getItemCount());
+        event.setOccurredAt(change.getAt());
+        return event;
+    }
+}
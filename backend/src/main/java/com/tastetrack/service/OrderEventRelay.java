@@ -0,0 +1,124 @@
+package com.tastetrack.service;
+
+import com.tastetrack.dto.OrderStatusChange;
+import com.tastetrack.entity.OrderEvent;
+import com.tastetrack.repository.OrderEventRepository;
+import com.tastetrack.util.ReplicaRouting;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Delivers order changes made on other instances to this instance's listeners, so order
+ * tracking, analytics, delivery estimates and dispatch follow every order whichever instance
+ * handled the request. The order events table is polled past the highest id seen. Ids are
+ * taken at insert but become visible at commit, so a transaction can commit a lower id after
+ * a higher one was read; such skipped ids are re-checked until gap-timeout, after which they
+ * are taken to belong to rolled-back transactions. Changes made under the order's row lock
+ * commit one after the other, so they are delivered in the order they were made.
+ */
+@Component
+public class OrderEventRelay {
+    private static final Logger log = LoggerFactory.getLogger(OrderEventRelay.class);
+
+    @Autowired
+    private OrderEventRepository orderEventRepository;
+
+    @Autowired
+    private OrderEventPublisher orderEventPublisher;
+
+    @Value("${orders.events.batch-size:500}")
+    private int batchSize;
+
+    @Value("${orders.events.gap-timeout-ms:10000}")
+    private long gapTimeoutMillis;
+
+    @Value("${orders.events.max-gaps:1000}")
+    private int maxGaps;
+
+    @Value("${orders.events.retention-minutes:10}")
+    private long retentionMinutes;
+
+    private long lastId;
+    // Skipped ids, oldest first, with the time they were first noticed
+    private final Map<Long, Long> gaps = new LinkedHashMap<>();
+
+    @PostConstruct
+    void start() {
+        // Live state is loaded from the orders themselves at startup, so older events are not needed
+        lastId = ReplicaRouting.onPrimary(orderEventRepository::findMaxId);
+    }
+
+    @Scheduled(fixedDelayString = "${orders.events.poll-interval-ms:250}")
+    public synchronized void poll() {
+        try {
+            ReplicaRouting.onPrimary(() -> {
+                relayGaps();
+                relayNew();
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.warn("Order event relay failed: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${orders.events.cleanup-interval-ms:60000}")
+    public void deleteExpired() {
+        try {
+            orderEventRepository.deleteOlderThan(LocalDateTime.now().minusMinutes(retentionMinutes));
+        } catch (RuntimeException e) {
+            log.warn("Could not delete old order events: {}", e.getMessage());
+        }
+    }
+
+    private void relayGaps() {
+        if (gaps.isEmpty()) {
+            return;
+        }
+        for (OrderEvent event : orderEventRepository.findByIds(new ArrayList<>(gaps.keySet()))) {
+            gaps.remove(event.getId());
+            relay(event);
+        }
+        long expiredBefore = System.currentTimeMillis() - gapTimeoutMillis;
+        Iterator<Long> noticedAt = gaps.values().iterator();
+        while (noticedAt.hasNext() && (noticedAt.next() < expiredBefore || gaps.size() > maxGaps)) {
+            noticedAt.remove();
+        }
+    }
+
+    private void relayNew() {
+        List<OrderEvent> events;
+        do {
+            events = orderEventRepository.findAfter(lastId, PageRequest.of(0, batchSize));
+            long now = System.currentTimeMillis();
+            for (OrderEvent event : events) {
+                for (long skipped = Math.max(lastId + 1, event.getId() - maxGaps); skipped < event.getId(); skipped++) {
+                    gaps.put(skipped, now);
+                }
+                lastId = event.getId();
+                relay(event);
+            }
+        } while (events.size() == batchSize);
+    }
+
+    private void relay(OrderEvent event) {
+        if (orderEventPublisher.getInstanceId().equals(event.getInstanceId())) {
+            return;
+        }
+        orderEventPublisher.deliver(new OrderStatusChange(event.getOrderId(), event.getRestaurantId(),
+                event.getStatus(), event.getDeliveryStatus(), event.getEstimatedDelivery(), event.getOccurredAt(),
+                event.getSource(), event.getTotal(), event.getItemCount()));
+    }
+}
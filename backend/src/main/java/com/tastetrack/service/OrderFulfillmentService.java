@@ -0,0 +1,251 @@
+package com.tastetrack.service;
+
+import com.tastetrack.dto.OrderStatusChange;
+import com.tastetrack.entity.Delivery;
+import com.tastetrack.entity.Order;
+import com.tastetrack.entity.Order.OrderStatus;
+import com.tastetrack.entity.OrderOutbox;
+import com.tastetrack.entity.OrderOutbox.OutboxStatus;
+import com.tastetrack.entity.Payment;
+import com.tastetrack.repository.DeliveryRepository;
+import com.tastetrack.repository.OrderOutboxRepository;
+import com.tastetrack.repository.OrderRepository;
+import com.tastetrack.repository.PaymentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies order status changes together with the payment and delivery changes that go with
+ * them. Staff status updates and cancellations call {@link #transition} directly; each is a
+ * conditional update from the order's current status, so races and replays never apply a
+ * transition twice. Once dispatch has handed the delivery to a courier, pickup and drop-off
+ * are left to the courier. Every transition first locks the delivery row, which dispatch
+ * updates when it assigns a courier, so an order cannot go out on its own while a courier is
+ * being assigned to it.
+ * <p>
+ * Accepted orders also get an outbox entry, which {@link OrderPipelineWorker} claims to
+ * advance the order one stage at a time on a fixed delay. {@code orders.pipeline.enabled}
+ * is the kill switch: switched off, no entries are written and orders move only on staff
+ * and courier events.
+ */
+@Service
+public class OrderFulfillmentService {
+    private static final Map<OrderStatus, OrderStatus> NEXT_STAGE = new EnumMap<>(OrderStatus.class);
+
+    private static final List<Delivery.DeliveryStatus> BEFORE_PICKUP =
+            List.of(Delivery.DeliveryStatus.PENDING, Delivery.DeliveryStatus.CONFIRMED);
+    private static final List<Delivery.DeliveryStatus> BEFORE_DROP_OFF = List.of(Delivery.DeliveryStatus.PENDING,
+            Delivery.DeliveryStatus.CONFIRMED, Delivery.DeliveryStatus.OUT_FOR_DELIVERY);
+    private static final List<OrderStatus> LEFT_TO_COURIER =
+            List.of(OrderStatus.OUT_FOR_DELIVERY, OrderStatus.DELIVERED);
+    // Charged once the restaurant accepts the order; cash is collected at the door
+    private static final List<Payment.PaymentMethod> PREPAID =
+            List.of(Payment.PaymentMethod.CARD, Payment.PaymentMethod.WALLET);
+
+    static {
+        NEXT_STAGE.put(OrderStatus.PENDING, OrderStatus.CONFIRMED);
+        NEXT_STAGE.put(OrderStatus.CONFIRMED, OrderStatus.PREPARING);
+        NEXT_STAGE.put(OrderStatus.PREPARING, OrderStatus.OUT_FOR_DELIVERY);
+        NEXT_STAGE.put(OrderStatus.OUT_FOR_DELIVERY, OrderStatus.DELIVERED);
+    }
+
+    @Autowired
+    private OrderOutboxRepository outboxRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private DeliveryRepository deliveryRepository;
+
+    @Autowired
+    private DeliveryEtaEstimator deliveryEtaEstimator;
+
+    @Autowired
+    private OrderEventPublisher orderEventPublisher;
+
+    @Value("${orders.pipeline.enabled:true}")
+    private boolean pipelineEnabled;
+
+    @Value("${orders.pipeline.stage-delay-seconds:60}")
+    private long stageDelaySeconds;
+
+    @Value("${orders.pipeline.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${orders.pipeline.max-backoff-seconds:300}")
+    private long maxBackoffSeconds;
+
+    /**
+     * Queues an accepted order for the pipeline in the placing transaction; does nothing while
+     * the pipeline is switched off.
+     */
+    public void enqueue(Order order) {
+        if (!pipelineEnabled) {
+            return;
+        }
+        OrderOutbox entry = new OrderOutbox();
+        entry.setOrderId(order.getId());
+        entry.setStatus(OutboxStatus.PENDING);
+        entry.setAttempts(0);
+        entry.setCreatedAt(LocalDateTime.now());
+        entry.setNextAttemptAt(entry.getCreatedAt());
+        outboxRepository.save(entry);
+    }
+
+    /**
+     * Moves an order from {@code from} to {@code to} with the matching payment and delivery
+     * changes, and publishes the change after commit. Returns false when the order is no
+     * longer in {@code from}; fails when {@code to} is pickup or drop-off of a delivery a
+     * courier holds.
+     */
+    @Transactional
+    public boolean transition(Long orderId, OrderStatus from, OrderStatus to, LocalDateTime at,
+                              OrderStatusChange.Source source) {
+        if (lockDeliveryHeldByCourier(orderId) && LEFT_TO_COURIER.contains(to)) {
+            throw new RuntimeException("A courier holds this delivery; pickup and drop-off are reported by the courier");
+        }
+        return apply(orderId, from, to, at, source);
+    }
+
+    // Callers hold the delivery row lock
+    private boolean apply(Long orderId, OrderStatus from, OrderStatus to, LocalDateTime at,
+                          OrderStatusChange.Source source) {
+        LocalDateTime estimatedDelivery = deliveryEtaEstimator.revise(orderId, to, at);
+        int updated = estimatedDelivery != null
+                ? orderRepository.updateStatusAndEstimateIfCurrent(orderId, from, to, estimatedDelivery)
+                : orderRepository.updateStatusIfCurrent(orderId, from, to);
+        if (updated == 0) {
+            return false;
+        }
+
+        Delivery.DeliveryStatus deliveryStatus = null;
+        switch (to) {
+            case CONFIRMED, PREPARING -> {
+                paymentRepository.updateStatusIfCurrent(orderId, PREPAID,
+                        Payment.PaymentStatus.PENDING, Payment.PaymentStatus.COMPLETED, at);
+                // A courier may already hold the delivery; its ASSIGNED status stays
+                if (deliveryRepository.updateStatusIfCurrent(orderId,
+                        Delivery.DeliveryStatus.PENDING, Delivery.DeliveryStatus.CONFIRMED) > 0) {
+                    deliveryStatus = Delivery.DeliveryStatus.CONFIRMED;
+                }
+            }
+            case OUT_FOR_DELIVERY -> {
+                paymentRepository.updateStatusIfCurrent(orderId, PREPAID,
+                        Payment.PaymentStatus.PENDING, Payment.PaymentStatus.COMPLETED, at);
+                if (deliveryRepository.updateUnassignedStatus(orderId, BEFORE_PICKUP,
+                        Delivery.DeliveryStatus.OUT_FOR_DELIVERY) > 0) {
+                    deliveryStatus = Delivery.DeliveryStatus.OUT_FOR_DELIVERY;
+                }
+            }
+            case DELIVERED -> {
+                paymentRepository.updateStatusIfCurrent(orderId,
+                        Payment.PaymentStatus.PENDING, Payment.PaymentStatus.COMPLETED, at);
+                if (deliveryRepository.updateUnassignedStatusAndDate(orderId, BEFORE_DROP_OFF,
+                        Delivery.DeliveryStatus.DELIVERED, at) > 0) {
+                    deliveryStatus = Delivery.DeliveryStatus.DELIVERED;
+                }
+            }
+            case CANCELLED -> {
+                deliveryStatus = Delivery.DeliveryStatus.CANCELLED;
+                deliveryRepository.updateStatusByOrderId(orderId, deliveryStatus);
+                paymentRepository.updateStatusIfCurrent(orderId,
+                        Payment.PaymentStatus.COMPLETED, Payment.PaymentStatus.REFUNDED, at);
+            }
+            default -> {
+            }
+        }
+        orderEventPublisher.publish(OrderStatusChange.status(orderId, to, deliveryStatus, estimatedDelivery, at, source));
+        return true;
+    }
+
+    @Transactional
+    public void advance(Long outboxId) {
+        OrderOutbox entry = outboxRepository.findById(outboxId).orElse(null);
+        if (entry == null || entry.getStatus() != OutboxStatus.PROCESSING) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        OrderStatus current = orderRepository.findStatusById(entry.getOrderId()).orElse(null);
+
+        // Cancellation applies its own payment and delivery changes
+        if (current == null || current == OrderStatus.DELIVERED || current == OrderStatus.CANCELLED) {
+            complete(entry);
+            return;
+        }
+
+        OrderStatus next = NEXT_STAGE.get(current);
+        if (lockDeliveryHeldByCourier(entry.getOrderId()) && LEFT_TO_COURIER.contains(next)) {
+            // The courier reports pickup and drop-off; check back in case it is unassigned again
+            reschedule(entry, now.plusSeconds(stageDelaySeconds));
+            return;
+        }
+        if (!apply(entry.getOrderId(), current, next, now, OrderStatusChange.Source.PIPELINE)) {
+            // The status moved underneath us; re-read it on the next claim
+            reschedule(entry, now);
+            return;
+        }
+
+        if (next == OrderStatus.DELIVERED) {
+            complete(entry);
+        } else {
+            reschedule(entry, now.plusSeconds(stageDelaySeconds));
+        }
+    }
+
+    @Transactional
+    public void recordFailure(Long outboxId, Throwable error) {
+        OrderOutbox entry = outboxRepository.findById(outboxId).orElse(null);
+        if (entry == null || entry.getStatus() != OutboxStatus.PROCESSING) {
+            return;
+        }
+
+        int attempts = entry.getAttempts() + 1;
+        entry.setAttempts(attempts);
+        entry.setClaimedAt(null);
+        entry.setLastError(truncate(String.valueOf(error.getMessage())));
+
+        if (attempts >= maxAttempts) {
+            entry.setStatus(OutboxStatus.FAILED);
+        } else {
+            long backoff = Math.min(maxBackoffSeconds, 1L << Math.min(attempts, 20));
+            entry.setStatus(OutboxStatus.PENDING);
+            entry.setNextAttemptAt(LocalDateTime.now().plusSeconds(backoff));
+        }
+    }
+
+    // Locked before the order row, the same order as courier pickups and drop-offs
+    private boolean lockDeliveryHeldByCourier(Long orderId) {
+        return deliveryRepository.findForUpdateByOrderId(orderId)
+                .map(delivery -> delivery.getCourierId() != null)
+                .orElse(false);
+    }
+
+    private void reschedule(OrderOutbox entry, LocalDateTime nextAttemptAt) {
+        entry.setStatus(OutboxStatus.PENDING);
+        entry.setAttempts(0);
+        entry.setClaimedAt(null);
+        entry.setLastError(null);
+        entry.setNextAttemptAt(nextAttemptAt);
+    }
+
+    private void complete(OrderOutbox entry) {
+        entry.setStatus(OutboxStatus.DONE);
+        entry.setClaimedAt(null);
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= 500 ? message : message.substring(0, 500);
+    }
+}
@@ -0,0 +1,8 @@
+package com.tastetrack.service;
+
+/**
+ * Source of unique, human-readable order numbers.
+ */
+public interface OrderNumberGenerator {
+    String next();
+}
@@ -0,0 +1,119 @@
+package com.tastetrack.service;
+
+import com.tastetrack.entity.OrderOutbox.OutboxStatus;
+import com.tastetrack.repository.OrderOutboxRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Polls the order outbox and hands due entries to a bounded worker pool, which advances
+ * each order a stage at a time. Only as many entries are claimed as the pool has room for,
+ * so a backlog stays in the database instead of in memory. Claims are conditional updates,
+ * so several instances can poll the same table. Not created when the pipeline is switched
+ * off with {@code orders.pipeline.enabled=false}.
+ */
+@Component
+@ConditionalOnProperty(name = "orders.pipeline.enabled", havingValue = "true", matchIfMissing = true)
+public class OrderPipelineWorker {
+    private static final Logger log = LoggerFactory.getLogger(OrderPipelineWorker.class);
+
+    @Autowired
+    private OrderOutboxRepository outboxRepository;
+
+    @Autowired
+    private OrderFulfillmentService fulfillmentService;
+
+    @Value("${orders.pipeline.workers:4}")
+    private int workers;
+
+    @Value("${orders.pipeline.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${orders.pipeline.claim-timeout-seconds:300}")
+    private long claimTimeoutSeconds;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void start() {
+        ThreadFactory threadFactory;
+        if (virtualThreads) {
+            threadFactory = new VirtualThreadTaskExecutor("order-pipeline-").getVirtualThreadFactory();
+        } else {
+            AtomicInteger threadCount = new AtomicInteger();
+            threadFactory = runnable -> {
+                Thread thread = new Thread(runnable, "order-pipeline-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+        }
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Scheduled(fixedDelayString = "${orders.pipeline.poll-interval-ms:500}")
+    public void poll() {
+        LocalDateTime now = LocalDateTime.now();
+        outboxRepository.releaseStaleClaims(OutboxStatus.PROCESSING, OutboxStatus.PENDING,
+                now.minusSeconds(claimTimeoutSeconds));
+
+        int capacity = executor.getQueue().remainingCapacity();
+        if (capacity == 0) {
+            return;
+        }
+
+        List<Long> dueIds = outboxRepository.findDueIds(OutboxStatus.PENDING, now, PageRequest.of(0, capacity));
+        for (Long id : dueIds) {
+            if (outboxRepository.transition(id, OutboxStatus.PENDING, OutboxStatus.PROCESSING, now) == 0) {
+                continue;
+            }
+            try {
+                executor.execute(() -> process(id));
+            } catch (RejectedExecutionException e) {
+                outboxRepository.transition(id, OutboxStatus.PROCESSING, OutboxStatus.PENDING, null);
+                return;
+            }
+        }
+    }
+
+    private void process(Long outboxId) {
+        try {
+            fulfillmentService.advance(outboxId);
+        } catch (Exception e) {
+            log.warn("Order outbox entry {} failed: {}", outboxId, e.getMessage());
+            try {
+                fulfillmentService.recordFailure(outboxId, e);
+            } catch (Exception recordError) {
+                // The claim times out and the entry is retried
+                log.error("Could not record failure for outbox entry {}", outboxId, recordError);
+            }
+        }
+    }
+}
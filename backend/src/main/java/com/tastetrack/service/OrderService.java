@@ -1,20 +1,36 @@
 package com.tastetrack.service;
 
+import com.tastetrack.dto.OrderPage;
 import com.tastetrack.dto.OrderRequest;
+import com.tastetrack.dto.OrderResponse;
+import com.tastetrack.dto.OrderStatusChange;
+import com.tastetrack.dto.OrderSummary;
 import com.tastetrack.entity.*;
 import com.tastetrack.repository.*;
+import com.tastetrack.util.ReplicaRouting;
+import com.tastetrack.util.SqlStatementCounter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Service
 public class OrderService {
+    private static final Logger log = LoggerFactory.getLogger(OrderService.class);
+
+    private static final int MAX_PAGE_SIZE = 100;
+
     @Autowired
     private OrderRepository orderRepository;
 
@@ -36,53 +52,94 @@ public class OrderService {
     @Autowired
     private MenuItemRepository menuItemRepository;
 
+    @Autowired
+    private OrderFulfillmentService orderFulfillmentService;
+
+    @Autowired
+    private OrderNumberGenerator orderNumberGenerator;
+
+    @Autowired
+    private MenuPriceSnapshot menuPriceSnapshot;
+
+    @Autowired
+    private DeliveryEtaEstimator deliveryEtaEstimator;
+
+    @Autowired
+    private OrderEventPublisher orderEventPublisher;
+
+    /**
+     * Places the order and returns its confirmation. The restaurant and menu items are attached
+     * as references and described from the price snapshot, so placement loads no catalog rows.
+     */
     @Transactional
-    public Order createOrder(Long userId, OrderRequest request) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public OrderResponse createOrder(Long userId, OrderRequest request) {
+        int statementsBefore = SqlStatementCounter.get();
+
+        // The id comes from a verified token, so a reference is enough and saves the user lookup
+        User user = userRepository.getReferenceById(userId);
 
-        Restaurant restaurant = restaurantRepository.findById(request.getRestaurantId())
-                .orElseThrow(() -> new RuntimeException("Restaurant not found"));
+        // Validation, prices and the names in the response come from the in-memory snapshot
+        MenuPriceSnapshot.Snapshot prices = menuPriceSnapshot.current();
+        Long restaurantId = request.getRestaurantId();
+        if (restaurantId == null || !prices.hasRestaurant(restaurantId)) {
+            throw new RuntimeException("Restaurant not found");
+        }
+        if (!prices.isOpen(restaurantId)) {
+            throw new RuntimeException("Restaurant is closed");
+        }
+        if (request.getItems() == null || request.getItems().isEmpty()) {
+            throw new RuntimeException("Order must contain at least one item");
+        }
 
         Order order = new Order();
-        order.setOrderNumber(generateOrderNumber());
+        order.setOrderNumber(orderNumberGenerator.next());
         order.setUser(user);
-        order.setRestaurant(restaurant);
+        order.setRestaurant(restaurantRepository.getReferenceById(restaurantId));
         order.setDeliveryAddress(request.getDelivery().getDeliveryAddress());
         order.setOrderDate(LocalDateTime.now());
         order.setStatus(Order.OrderStatus.PENDING);
-        order.setEstimatedDelivery(LocalDateTime.now().plusMinutes(45));
+        order.setEstimatedDelivery(deliveryEtaEstimator.estimate(restaurantId, order.getOrderDate()));
+        order.setMenuSnapshotVersion(prices.getVersion());
 
         List<OrderItem> orderItems = new ArrayList<>();
         double total = 0.0;
+        int itemCount = 0;
 
         for (var itemRequest : request.getItems()) {
-            MenuItem menuItem = menuItemRepository.findById(itemRequest.getMenuItemId())
-                    .orElseThrow(() -> new RuntimeException("Menu item not found"));
+            Long menuItemId = itemRequest.getMenuItemId();
+            int slot = menuItemId != null ? prices.findItem(menuItemId) : -1;
+            if (slot < 0) {
+                throw new RuntimeException("Menu item not found");
+            }
+            if (prices.restaurantAt(slot) != restaurantId) {
+                throw new RuntimeException("Menu item " + menuItemId + " is not on this restaurant's menu");
+            }
+            if (itemRequest.getQuantity() == null || itemRequest.getQuantity() < 1) {
+                throw new RuntimeException("Quantity must be at least 1");
+            }
+            double price = prices.priceAt(slot);
 
             OrderItem orderItem = new OrderItem();
             orderItem.setOrder(order);
-            orderItem.setMenuItem(menuItem);
+            orderItem.setMenuItem(menuItemRepository.getReferenceById(menuItemId));
             orderItem.setQuantity(itemRequest.getQuantity());
-            orderItem.setPrice(menuItem.getPrice());
+            orderItem.setPrice(price);
 
             orderItems.add(orderItem);
-            total += menuItem.getPrice() * itemRequest.getQuantity();
+            total += price * itemRequest.getQuantity();
+            itemCount += itemRequest.getQuantity();
         }
 
         order.setItems(orderItems);
         order.setTotal(total);
 
-        order = orderRepository.save(order);
-
         Payment payment = new Payment();
         payment.setOrder(order);
         payment.setAmount(total);
         payment.setPaymentMethod(Payment.PaymentMethod.valueOf(request.getPayment().getPaymentMethod()));
-        payment.setStatus(Payment.PaymentStatus.COMPLETED);
-        payment.setPaymentDate(LocalDateTime.now());
+        payment.setStatus(Payment.PaymentStatus.PENDING);
         payment.setTransactionId(UUID.randomUUID().toString());
-        paymentRepository.save(payment);
+        order.setPayment(payment);
 
         Delivery delivery = new Delivery();
         delivery.setOrder(order);
@@ -94,49 +151,147 @@ public class OrderService {
         delivery.setDeliveryZip(request.getDelivery().getDeliveryZip());
         delivery.setDeliveryInstructions(request.getDelivery().getDeliveryInstructions());
         delivery.setStatus(Delivery.DeliveryStatus.PENDING);
-        deliveryRepository.save(delivery);
+        order.setDelivery(delivery);
+
+        // Items, payment and delivery cascade from the order; with the outbox entry they are flushed as JDBC batches
+        order = orderRepository.save(order);
+        orderFulfillmentService.enqueue(order);
+        orderRepository.flush();
+
+        log.debug("Order {} with {} items placed in {} SQL statements",
+                order.getOrderNumber(), orderItems.size(), SqlStatementCounter.get() - statementsBefore);
+
+        orderEventPublisher.publish(OrderStatusChange.placed(order.getId(), restaurantId, order.getOrderDate(),
+                order.getEstimatedDelivery(), total, itemCount));
 
-        return order;
+        return OrderResponse.from(order, prices.restaurantName(restaurantId), prices.restaurantImage(restaurantId),
+                prices.restaurantAddress(restaurantId), item -> {
+                    int slot = prices.findItem(item.getMenuItem().getId());
+                    return new OrderResponse.Item(item.getId(), item.getMenuItem().getId(), prices.nameAt(slot),
+                            prices.imageAt(slot), item.getQuantity(), item.getPrice());
+                });
     }
 
-    public List<Order> getUserOrders(Long userId) {
-        return orderRepository.findByUserIdOrderByOrderDateDesc(userId);
+    @Transactional(readOnly = true)
+    public OrderPage getUserOrderPage(Long userId, String cursor, int limit) {
+        Pageable pageable = PageRequest.of(0, pageSize(limit) + 1);
+        if (cursor == null || cursor.isEmpty()) {
+            return toPage(orderRepository.findUserOrderSummaries(userId, pageable), pageable);
+        }
+        OrderCursor position = OrderCursor.decode(cursor);
+        return toPage(orderRepository.findUserOrderSummariesBefore(
+                userId, position.orderDate, position.id, pageable), pageable);
     }
 
+    // Order confirmation and tracking read right after createOrder, so these never use a replica
     public Optional<Order> getOrderById(Long id) {
-        return orderRepository.findByIdWithDetails(id);
+        return ReplicaRouting.onPrimary(() -> orderRepository.findByIdWithDetails(id));
     }
 
     public Optional<Order> getOrderByOrderNumber(String orderNumber) {
-        return orderRepository.findByOrderNumber(orderNumber);
+        return ReplicaRouting.onPrimary(() -> orderRepository.findByOrderNumber(orderNumber));
+    }
+
+    @Transactional(readOnly = true)
+    public OrderPage getOrderPage(String cursor, int limit) {
+        Pageable pageable = PageRequest.of(0, pageSize(limit) + 1);
+        if (cursor == null || cursor.isEmpty()) {
+            return toPage(orderRepository.findOrderSummaries(pageable), pageable);
+        }
+        OrderCursor position = OrderCursor.decode(cursor);
+        return toPage(orderRepository.findOrderSummariesBefore(position.orderDate, position.id, pageable), pageable);
     }
 
-    public List<Order> getOrdersByStatus(Order.OrderStatus status) {
-        return orderRepository.findByStatus(status);
+    @Transactional(readOnly = true)
+    public OrderPage getOrderPageByStatus(Order.OrderStatus status, String cursor, int limit) {
+        Pageable pageable = PageRequest.of(0, pageSize(limit) + 1);
+        if (cursor == null || cursor.isEmpty()) {
+            return toPage(orderRepository.findStatusOrderSummaries(status, pageable), pageable);
+        }
+        OrderCursor position = OrderCursor.decode(cursor);
+        return toPage(orderRepository.findStatusOrderSummariesBefore(
+                status, position.orderDate, position.id, pageable), pageable);
     }
 
+    /**
+     * A status change reported by staff. Payment and delivery follow the order, as in
+     * {@link OrderFulfillmentService#transition}.
+     */
+    @Transactional
     public Order updateOrderStatus(Long id, Order.OrderStatus status) {
-        Order order = orderRepository.findById(id)
+        Order.OrderStatus current = orderRepository.findStatusById(id)
+                .orElseThrow(() -> new RuntimeException("Order not found"));
+        if (current != status) {
+            if (current == Order.OrderStatus.DELIVERED || current == Order.OrderStatus.CANCELLED) {
+                throw new RuntimeException("Order is already " + current.name().toLowerCase());
+            }
+            if (!orderFulfillmentService.transition(id, current, status, LocalDateTime.now(),
+                    OrderStatusChange.Source.STAFF)) {
+                throw new RuntimeException("Order status changed, please retry");
+            }
+        }
+        // Loaded after the update, so the response carries the new payment and delivery state
+        return orderRepository.findByIdWithDetails(id)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
-
-        order.setStatus(status);
-        return orderRepository.save(order);
     }
 
+    @Transactional
     public void cancelOrder(Long id) {
-        Order order = orderRepository.findById(id)
+        Order.OrderStatus current = orderRepository.findStatusById(id)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
 
-        if (order.getStatus() == Order.OrderStatus.DELIVERED ||
-                order.getStatus() == Order.OrderStatus.CANCELLED) {
+        if (current == Order.OrderStatus.DELIVERED ||
+                current == Order.OrderStatus.CANCELLED) {
             throw new RuntimeException("Cannot cancel this order");
         }
 
-        order.setStatus(Order.OrderStatus.CANCELLED);
-        orderRepository.save(order);
+        if (!orderFulfillmentService.transition(id, current, Order.OrderStatus.CANCELLED, LocalDateTime.now(),
+                OrderStatusChange.Source.STAFF)) {
+            throw new RuntimeException("Order status changed, please retry");
+        }
+    }
+
+    private int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    // One extra row is fetched to tell whether another page follows
+    private OrderPage toPage(List<OrderSummary> rows, Pageable pageable) {
+        int size = pageable.getPageSize() - 1;
+        if (rows.size() <= size) {
+            return new OrderPage(rows, null);
+        }
+        List<OrderSummary> orders = new ArrayList<>(rows.subList(0, size));
+        OrderSummary last = orders.get(size - 1);
+        return new OrderPage(orders, OrderCursor.encode(last.getOrderDate(), last.getId()));
     }
 
-    private String generateOrderNumber() {
-        return "ORD" + UUID.randomUUID().toString().substring(0, 6).toUpperCase();
+    /**
+     * Keyset position (order date, id) of the last order on a page, encoded as an opaque token.
+     */
+    private static final class OrderCursor {
+        private final LocalDateTime orderDate;
+        private final Long id;
+
+        private OrderCursor(LocalDateTime orderDate, Long id) {
+            this.orderDate = orderDate;
+            this.id = id;
+        }
+
+        private static String encode(LocalDateTime orderDate, Long id) {
+            String raw = orderDate + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        private static OrderCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.lastIndexOf('|');
+                return new OrderCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                        Long.parseLong(raw.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new RuntimeException("Invalid cursor");
+            }
+        }
     }
 }
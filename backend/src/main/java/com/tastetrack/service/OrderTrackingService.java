@@ -0,0 +1,261 @@
+package com.tastetrack.service;
+
+import com.tastetrack.dto.OrderStatusChange;
+import com.tastetrack.dto.OrderStatusEvent;
+import com.tastetrack.entity.Delivery;
+import com.tastetrack.entity.Order;
+import com.tastetrack.repository.OrderRepository;
+import com.tastetrack.util.ReplicaRouting;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Pushes order and delivery status changes to Server-Sent Event subscribers. The latest
+ * status of every active order is kept in memory, fed with the changes of all instances
+ * through {@link OrderEventRelay}, so subscribing and tracking do not query the database
+ * unless the order predates this instance. Each connection buffers at most one pending
+ * snapshot: rapid updates coalesce into the newest one and are sent at most once per
+ * coalescing window. Sends to one connection run one at a time on their own sender thread,
+ * so a slow client holds up only itself; the stream ends once the order is delivered or
+ * cancelled.
+ */
+@Service
+public class OrderTrackingService {
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Value("${orders.tracking.timeout-ms:1800000}")
+    private long timeoutMillis;
+
+    @Value("${orders.tracking.coalesce-window-ms:250}")
+    private long coalesceWindowMillis;
+
+    @Value("${orders.tracking.terminal-retention-seconds:600}")
+    private long terminalRetentionSeconds;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private final Map<Long, OrderStatusEvent> latest = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+
+    // Only times the coalescing windows; sends never run on it
+    private ScheduledExecutorService dispatcher;
+    private ExecutorService senders;
+
+    @PostConstruct
+    void start() {
+        dispatcher = Executors.newSingleThreadScheduledExecutor(daemonThreads("order-tracking-timer-"));
+        ThreadFactory senderThreads = virtualThreads
+                ? new VirtualThreadTaskExecutor("order-tracking-send-").getVirtualThreadFactory()
+                : daemonThreads("order-tracking-send-");
+        senders = Executors.newCachedThreadPool(senderThreads);
+    }
+
+    @PreDestroy
+    void stop() {
+        dispatcher.shutdownNow();
+        senders.shutdownNow();
+        subscriptions.values().forEach(subs -> subs.forEach(sub -> sub.emitter.complete()));
+    }
+
+    public Optional<SseEmitter> subscribe(Long orderId) {
+        OrderStatusEvent current = latest.get(orderId);
+        if (current == null) {
+            // A client subscribes right after placing the order, which a lagging replica may not have yet
+            current = ReplicaRouting.onPrimary(() -> orderRepository.findStatusById(orderId))
+                    .map(status -> new OrderStatusEvent(orderId, status, null, LocalDateTime.now(), null))
+                    .orElse(null);
+            if (current == null) {
+                return Optional.empty();
+            }
+            latest.putIfAbsent(orderId, current);
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscription subscription = new Subscription(orderId, emitter);
+        subscriptions.computeIfAbsent(orderId, id -> ConcurrentHashMap.newKeySet()).add(subscription);
+
+        emitter.onCompletion(() -> remove(subscription));
+        emitter.onTimeout(() -> {
+            remove(subscription);
+            emitter.complete();
+        });
+        emitter.onError(error -> remove(subscription));
+
+        subscription.offer(current);
+        return Optional.of(emitter);
+    }
+
+    @EventListener
+    public void onStatusChange(OrderStatusChange change) {
+        if (change.getStatus() != null) {
+            publish(change.getOrderId(), change.getStatus(), change.getDeliveryStatus(),
+                    change.getEstimatedDelivery(), change.getAt());
+        } else {
+            publishDelivery(change.getOrderId(), change.getDeliveryStatus(), change.getAt());
+        }
+    }
+
+    /**
+     * Records a status change and notifies subscribers. A null delivery status or estimate keeps
+     * the last known one.
+     */
+    private void publish(Long orderId, Order.OrderStatus status, Delivery.DeliveryStatus deliveryStatus,
+                         LocalDateTime estimatedDelivery, LocalDateTime at) {
+        OrderStatusEvent event = latest.compute(orderId, (id, previous) -> new OrderStatusEvent(
+                id,
+                status,
+                deliveryStatus != null || previous == null ? deliveryStatus : previous.getDeliveryStatus(),
+                at,
+                estimatedDelivery != null || previous == null ? estimatedDelivery : previous.getEstimatedDelivery()));
+
+        Set<Subscription> subs = subscriptions.get(orderId);
+        if (subs != null) {
+            for (Subscription subscription : subs) {
+                subscription.offer(event);
+            }
+        }
+    }
+
+    /**
+     * Records a delivery status change that leaves the order status as it was.
+     */
+    private void publishDelivery(Long orderId, Delivery.DeliveryStatus deliveryStatus, LocalDateTime at) {
+        OrderStatusEvent previous = latest.get(orderId);
+        if (previous != null) {
+            publish(orderId, previous.getStatus(), deliveryStatus, null, at);
+        }
+    }
+
+    @Scheduled(fixedRateString = "${orders.tracking.heartbeat-ms:20000}")
+    public void heartbeat() {
+        LocalDateTime retainAfter = LocalDateTime.now().minusSeconds(terminalRetentionSeconds);
+        latest.values().removeIf(event -> isTerminal(event.getStatus())
+                && event.getUpdatedAt().isBefore(retainAfter)
+                && !subscriptions.containsKey(event.getOrderId()));
+
+        for (Set<Subscription> subs : subscriptions.values()) {
+            for (Subscription subscription : subs) {
+                subscription.keepAlive();
+            }
+        }
+    }
+
+    private void remove(Subscription subscription) {
+        subscriptions.computeIfPresent(subscription.orderId, (id, subs) -> {
+            subs.remove(subscription);
+            return subs.isEmpty() ? null : subs;
+        });
+    }
+
+    private static boolean isTerminal(Order.OrderStatus status) {
+        return status == Order.OrderStatus.DELIVERED || status == Order.OrderStatus.CANCELLED;
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private final class Subscription {
+        private final Long orderId;
+        private final SseEmitter emitter;
+        private final AtomicReference<OrderStatusEvent> pending = new AtomicReference<>();
+        private final AtomicBoolean keepAlivePending = new AtomicBoolean();
+        // Set while a flush is scheduled or running, so one connection never has two sends at once
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile long lastSentAt;
+        private volatile boolean closed;
+
+        private Subscription(Long orderId, SseEmitter emitter) {
+            this.orderId = orderId;
+            this.emitter = emitter;
+        }
+
+        private void offer(OrderStatusEvent event) {
+            pending.set(event);
+            schedule();
+        }
+
+        private void keepAlive() {
+            keepAlivePending.set(true);
+            schedule();
+        }
+
+        private void schedule() {
+            if (closed || !scheduled.compareAndSet(false, true)) {
+                return;
+            }
+            long delay = pending.get() != null
+                    ? Math.max(0, lastSentAt + coalesceWindowMillis - System.currentTimeMillis())
+                    : 0;
+            try {
+                dispatcher.schedule(() -> senders.execute(this::flush), delay, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+                scheduled.set(false);
+            }
+        }
+
+        private void flush() {
+            try {
+                OrderStatusEvent event = pending.getAndSet(null);
+                boolean ping = keepAlivePending.getAndSet(false);
+                if (event != null) {
+                    emitter.send(SseEmitter.event().name("status").data(event, MediaType.APPLICATION_JSON));
+                    lastSentAt = System.currentTimeMillis();
+                    if (isTerminal(event.getStatus())) {
+                        close();
+                        emitter.complete();
+                        return;
+                    }
+                } else if (ping) {
+                    emitter.send(SseEmitter.event().comment("keep-alive"));
+                }
+            } catch (IOException | IllegalStateException e) {
+                close();
+                return;
+            } finally {
+                scheduled.set(false);
+            }
+            // Anything offered while the send ran goes out in the next window
+            if (pending.get() != null || keepAlivePending.get()) {
+                schedule();
+            }
+        }
+
+        private void close() {
+            closed = true;
+            remove(this);
+        }
+    }
+}
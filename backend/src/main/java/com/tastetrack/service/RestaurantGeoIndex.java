@@ -0,0 +1,314 @@
+package com.tastetrack.service;
+
+import com.tastetrack.dto.NearbyRestaurant;
+import com.tastetrack.entity.Restaurant;
+import com.tastetrack.repository.RestaurantRepository;
+import com.tastetrack.util.ReplicaRouting;
+import com.tastetrack.util.TransactionHooks;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory grid index over restaurant coordinates. Each restaurant sits in one cell of a
+ * fixed latitude/longitude grid; a query only visits the cells overlapping the bounding box
+ * of its radius and keeps the nearest matches in a bounded heap. A restaurant matches when
+ * the customer is within both the query radius and the restaurant's own delivery radius.
+ * Built lazily and kept current by service writes, like {@link RestaurantSearchIndex}.
+ */
+@Component
+public class RestaurantGeoIndex {
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Value("${restaurants.nearby.cell-size-km:2}")
+    private double cellSizeKm;
+
+    @Value("${restaurants.nearby.default-delivery-radius-km:8}")
+    private double defaultDeliveryRadiusKm;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Map<Long, List<Entry>> cells = new HashMap<>();
+
+    private volatile boolean built;
+
+    public List<NearbyRestaurant> findNearby(double latitude, double longitude, double radiusKm,
+                                             Boolean open, String cuisine, Double minRating, int limit) {
+        if (limit <= 0 || radiusKm <= 0) {
+            return Collections.emptyList();
+        }
+        ensureBuilt();
+
+        double cellDegrees = cellDegrees();
+        int lonCells = lonCells(cellDegrees);
+        double latSpan = radiusKm / KM_PER_DEGREE;
+        double minLat = Math.max(-90, latitude - latSpan);
+        double maxLat = Math.min(90, latitude + latSpan);
+
+        int minX = 0;
+        int maxX = lonCells - 1;
+        double maxAbsLat = Math.max(Math.abs(minLat), Math.abs(maxLat));
+        if (maxAbsLat < 90) {
+            double lonSpan = latSpan / Math.cos(Math.toRadians(maxAbsLat));
+            if (lonSpan < 180) {
+                minX = (int) Math.floor((longitude - lonSpan + 180) / cellDegrees);
+                maxX = (int) Math.floor((longitude + lonSpan + 180) / cellDegrees);
+            }
+        }
+        if (maxX - minX + 1 > lonCells) {
+            minX = 0;
+            maxX = lonCells - 1;
+        }
+        int minY = latCell(minLat, cellDegrees);
+        int maxY = latCell(maxLat, cellDegrees);
+
+        // Equirectangular projection around the query point; well under 0.1% off at these radii
+        double kmPerDegreeLon = KM_PER_DEGREE * Math.cos(Math.toRadians(latitude));
+        double radiusSquared = radiusKm * radiusKm;
+
+        // Max-heap of the best hits so far, worst on top, so only the returned ones are kept
+        Comparator<Candidate> order = Comparator.comparingDouble((Candidate c) -> c.distanceSquared)
+                .thenComparing(c -> rating(c.entry.restaurant), Comparator.reverseOrder())
+                .thenComparing(c -> c.entry.restaurant.getId());
+        PriorityQueue<Candidate> best = new PriorityQueue<>(Math.min(limit, 1024) + 1, order.reversed());
+
+        lock.readLock().lock();
+        try {
+            for (int y = minY; y <= maxY; y++) {
+                for (int x = minX; x <= maxX; x++) {
+                    List<Entry> cell = cells.get(cellKey(y, Math.floorMod(x, lonCells), lonCells));
+                    if (cell == null) {
+                        continue;
+                    }
+                    for (Entry entry : cell) {
+                        double dy = (entry.latitude - latitude) * KM_PER_DEGREE;
+                        double dLon = entry.longitude - longitude;
+                        if (dLon > 180) {
+                            dLon -= 360;
+                        } else if (dLon < -180) {
+                            dLon += 360;
+                        }
+                        double dx = dLon * kmPerDegreeLon;
+                        double distanceSquared = dx * dx + dy * dy;
+                        if (distanceSquared > radiusSquared || distanceSquared > entry.deliveryRadiusSquared
+                                || !entry.matches(open, cuisine, minRating)) {
+                            continue;
+                        }
+                        Candidate candidate = new Candidate(entry, distanceSquared);
+                        if (best.size() < limit) {
+                            best.add(candidate);
+                        } else if (order.compare(candidate, best.peek()) < 0) {
+                            best.poll();
+                            best.add(candidate);
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Candidate> sorted = new ArrayList<>(best);
+        sorted.sort(order);
+        List<NearbyRestaurant> results = new ArrayList<>(sorted.size());
+        for (Candidate candidate : sorted) {
+            double distance = Math.sqrt(candidate.distanceSquared);
+            results.add(new NearbyRestaurant(candidate.entry.restaurant, Math.round(distance * 100) / 100.0));
+        }
+        return results;
+    }
+
+    /**
+     * The indexed restaurant, or null if it does not exist or has no coordinates.
+     */
+    public Restaurant getRestaurant(Long restaurantId) {
+        ensureBuilt();
+        lock.readLock().lock();
+        try {
+            Entry entry = entries.get(restaurantId);
+            return entry != null ? entry.restaurant : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Applied once the writing transaction commits, so a rollback leaves the index untouched.
+     */
+    public void indexRestaurant(Restaurant restaurant) {
+        TransactionHooks.afterCommitOrNow(() -> indexRestaurantNow(restaurant));
+    }
+
+    private void indexRestaurantNow(Restaurant restaurant) {
+        if (restaurant == null || restaurant.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!built) {
+                return;
+            }
+            detach(restaurant.getId());
+            attach(restaurant);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeRestaurant(Long restaurantId) {
+        TransactionHooks.afterCommitOrNow(() -> removeRestaurantNow(restaurantId));
+    }
+
+    private void removeRestaurantNow(Long restaurantId) {
+        lock.writeLock().lock();
+        try {
+            if (!built) {
+                return;
+            }
+            detach(restaurantId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drops the index so the next query rebuilds it from the database.
+     */
+    public void invalidate() {
+        reset();
+        TransactionHooks.afterCommit(this::reset);
+    }
+
+    private void reset() {
+        lock.writeLock().lock();
+        try {
+            built = false;
+            entries.clear();
+            cells.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void ensureBuilt() {
+        if (built) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (built) {
+                return;
+            }
+            entries.clear();
+            cells.clear();
+            for (Restaurant restaurant : ReplicaRouting.onPrimary(restaurantRepository::findAll)) {
+                attach(restaurant);
+            }
+            built = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void attach(Restaurant restaurant) {
+        Double latitude = restaurant.getLatitude();
+        Double longitude = restaurant.getLongitude();
+        if (latitude == null || longitude == null
+                || Math.abs(latitude) > 90 || Math.abs(longitude) > 180) {
+            return;
+        }
+        double cellDegrees = cellDegrees();
+        int lonCells = lonCells(cellDegrees);
+        long key = cellKey(latCell(latitude, cellDegrees),
+                Math.floorMod((int) Math.floor((longitude + 180) / cellDegrees), lonCells), lonCells);
+
+        Entry entry = new Entry(restaurant, key,
+                restaurant.getDeliveryRadiusKm() != null ? restaurant.getDeliveryRadiusKm() : defaultDeliveryRadiusKm);
+        entries.put(restaurant.getId(), entry);
+        cells.computeIfAbsent(key, k -> new ArrayList<>()).add(entry);
+    }
+
+    private void detach(Long restaurantId) {
+        Entry entry = entries.remove(restaurantId);
+        if (entry == null) {
+            return;
+        }
+        List<Entry> cell = cells.get(entry.cellKey);
+        if (cell != null) {
+            cell.remove(entry);
+            if (cell.isEmpty()) {
+                cells.remove(entry.cellKey);
+            }
+        }
+    }
+
+    private double cellDegrees() {
+        return cellSizeKm / KM_PER_DEGREE;
+    }
+
+    private static int lonCells(double cellDegrees) {
+        return (int) Math.ceil(360 / cellDegrees);
+    }
+
+    private static int latCell(double latitude, double cellDegrees) {
+        return (int) Math.floor((latitude + 90) / cellDegrees);
+    }
+
+    private static long cellKey(int y, int x, int lonCells) {
+        return (long) y * lonCells + x;
+    }
+
+    private static double rating(Restaurant restaurant) {
+        return restaurant.getRating() != null ? restaurant.getRating() : 0.0;
+    }
+
+    private static final class Entry {
+        private final Restaurant restaurant;
+        private final long cellKey;
+        private final double latitude;
+        private final double longitude;
+        private final double deliveryRadiusSquared;
+
+        private Entry(Restaurant restaurant, long cellKey, double deliveryRadiusKm) {
+            this.restaurant = restaurant;
+            this.cellKey = cellKey;
+            this.latitude = restaurant.getLatitude();
+            this.longitude = restaurant.getLongitude();
+            this.deliveryRadiusSquared = deliveryRadiusKm * deliveryRadiusKm;
+        }
+
+        private boolean matches(Boolean open, String cuisine, Double minRating) {
+            if (open != null && !open.equals(restaurant.getIsOpen())) {
+                return false;
+            }
+            if (cuisine != null && !cuisine.equalsIgnoreCase(restaurant.getCuisine())) {
+                return false;
+            }
+            return minRating == null || rating(restaurant) >= minRating;
+        }
+    }
+
+    private static final class Candidate {
+        private final Entry entry;
+        private final double distanceSquared;
+
+        private Candidate(Entry entry, double distanceSquared) {
+            this.entry = entry;
+            this.distanceSquared = distanceSquared;
+        }
+    }
+}
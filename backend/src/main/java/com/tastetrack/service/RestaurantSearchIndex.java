@@ -0,0 +1,409 @@
+package com.tastetrack.service;
+
+import com.tastetrack.entity.MenuItem;
+import com.tastetrack.entity.Restaurant;
+import com.tastetrack.repository.MenuItemRepository;
+import com.tastetrack.repository.RestaurantRepository;
+import com.tastetrack.util.ReplicaRouting;
+import com.tastetrack.util.TransactionHooks;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over restaurant names, cuisines and menu item names.
+ * Query tokens match indexed terms exactly, by prefix (sorted term map) or as an
+ * infix (trigram index), and results are ranked by match quality, then rating.
+ * The index is built lazily from the database and kept current by service writes;
+ * the build holds the write lock, so writes racing with it are applied afterwards.
+ */
+@Component
+public class RestaurantSearchIndex {
+    private static final int FIELD_NAME = 1;
+    private static final int FIELD_CUISINE = 2;
+    private static final int FIELD_MENU = 4;
+
+    private static final int EXACT = 3;
+    private static final int PREFIX = 2;
+    private static final int INFIX = 1;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final Map<Long, Long> menuItemOwners = new HashMap<>();
+
+    // term -> (restaurant id -> bit mask of the fields containing the term)
+    private final TreeMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private final Map<String, Set<String>> trigrams = new HashMap<>();
+
+    private volatile boolean built;
+
+    public List<Restaurant> search(String query, int limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        ensureBuilt();
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Integer> scores = null;
+            for (String token : tokens) {
+                Map<Long, Integer> tokenScores = matchToken(token);
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    Map<Long, Integer> combined = new HashMap<>();
+                    for (Map.Entry<Long, Integer> entry : scores.entrySet()) {
+                        Integer score = tokenScores.get(entry.getKey());
+                        if (score != null) {
+                            combined.put(entry.getKey(), entry.getValue() + score);
+                        }
+                    }
+                    scores = combined;
+                }
+                if (scores.isEmpty()) {
+                    return Collections.emptyList();
+                }
+            }
+
+            List<Document> hits = new ArrayList<>(scores.size());
+            for (Long restaurantId : scores.keySet()) {
+                hits.add(documents.get(restaurantId));
+            }
+            Map<Long, Integer> finalScores = scores;
+            hits.sort(Comparator
+                    .comparingInt((Document d) -> finalScores.get(d.restaurant.getId())).reversed()
+                    .thenComparing(d -> d.rating(), Comparator.reverseOrder())
+                    .thenComparing(d -> d.restaurant.getId()));
+
+            List<Restaurant> results = new ArrayList<>(Math.min(limit, hits.size()));
+            for (int i = 0; i < hits.size() && i < limit; i++) {
+                results.add(hits.get(i).restaurant);
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Index updates from a write transaction are applied once it commits, so a rollback
+     * leaves nothing behind; outside a transaction they apply immediately.
+     */
+    public void indexRestaurant(Restaurant restaurant) {
+        TransactionHooks.afterCommitOrNow(() -> indexRestaurantNow(restaurant));
+    }
+
+    private void indexRestaurantNow(Restaurant restaurant) {
+        if (restaurant == null || restaurant.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!built) {
+                return;
+            }
+            Document document = documents.get(restaurant.getId());
+            if (document == null) {
+                document = new Document(restaurant);
+                documents.put(restaurant.getId(), document);
+            } else {
+                removeTerms(document);
+                document.restaurant = restaurant;
+            }
+            addTerms(document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeRestaurant(Long restaurantId) {
+        TransactionHooks.afterCommitOrNow(() -> removeRestaurantNow(restaurantId));
+    }
+
+    private void removeRestaurantNow(Long restaurantId) {
+        lock.writeLock().lock();
+        try {
+            if (!built) {
+                return;
+            }
+            Document document = documents.remove(restaurantId);
+            if (document != null) {
+                removeTerms(document);
+                for (Long menuItemId : document.menuItemNames.keySet()) {
+                    menuItemOwners.remove(menuItemId);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void indexMenuItem(MenuItem menuItem) {
+        TransactionHooks.afterCommitOrNow(() -> indexMenuItemNow(menuItem));
+    }
+
+    private void indexMenuItemNow(MenuItem menuItem) {
+        if (menuItem.getId() == null || menuItem.getRestaurant() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!built) {
+                return;
+            }
+            detachMenuItem(menuItem.getId());
+
+            Document document = documents.get(menuItem.getRestaurant().getId());
+            if (document != null) {
+                removeTerms(document);
+                document.menuItemNames.put(menuItem.getId(), menuItem.getName());
+                menuItemOwners.put(menuItem.getId(), document.restaurant.getId());
+                addTerms(document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeMenuItem(Long menuItemId) {
+        TransactionHooks.afterCommitOrNow(() -> removeMenuItemNow(menuItemId));
+    }
+
+    private void removeMenuItemNow(Long menuItemId) {
+        lock.writeLock().lock();
+        try {
+            if (!built) {
+                return;
+            }
+            detachMenuItem(menuItemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drops the index so the next search rebuilds it from the database.
+     */
+    public void invalidate() {
+        reset();
+        TransactionHooks.afterCommit(this::reset);
+    }
+
+    private void reset() {
+        lock.writeLock().lock();
+        try {
+            built = false;
+            clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void ensureBuilt() {
+        if (built) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (built) {
+                return;
+            }
+            clear();
+            // Built once and then maintained by writes, so it must not start from a lagging replica
+            for (Restaurant restaurant : ReplicaRouting.onPrimary(restaurantRepository::findAll)) {
+                documents.put(restaurant.getId(), new Document(restaurant));
+            }
+            for (MenuItemRepository.MenuItemNameView item : ReplicaRouting.onPrimary(menuItemRepository::findAllNames)) {
+                Document document = documents.get(item.getRestaurantId());
+                if (document != null) {
+                    document.menuItemNames.put(item.getId(), item.getName());
+                    menuItemOwners.put(item.getId(), item.getRestaurantId());
+                }
+            }
+            for (Document document : documents.values()) {
+                addTerms(document);
+            }
+            built = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void clear() {
+        documents.clear();
+        menuItemOwners.clear();
+        postings.clear();
+        trigrams.clear();
+    }
+
+    private void detachMenuItem(Long menuItemId) {
+        Long ownerId = menuItemOwners.remove(menuItemId);
+        Document owner = ownerId != null ? documents.get(ownerId) : null;
+        if (owner != null) {
+            removeTerms(owner);
+            owner.menuItemNames.remove(menuItemId);
+            addTerms(owner);
+        }
+    }
+
+    private Map<Long, Integer> matchToken(String token) {
+        Map<Long, Integer> scores = new HashMap<>();
+
+        for (Map.Entry<String, Map<Long, Integer>> entry : postings.subMap(token, token + Character.MAX_VALUE).entrySet()) {
+            int quality = entry.getKey().length() == token.length() ? EXACT : PREFIX;
+            accumulate(scores, entry.getValue(), quality);
+        }
+
+        if (token.length() >= 3) {
+            for (String term : infixCandidates(token)) {
+                if (!term.startsWith(token) && term.contains(token)) {
+                    accumulate(scores, postings.get(term), INFIX);
+                }
+            }
+        }
+        return scores;
+    }
+
+    private Set<String> infixCandidates(String token) {
+        Set<String> candidates = null;
+        for (int i = 0; i + 3 <= token.length(); i++) {
+            Set<String> terms = trigrams.get(token.substring(i, i + 3));
+            if (terms == null) {
+                return Collections.emptySet();
+            }
+            if (candidates == null || terms.size() < candidates.size()) {
+                candidates = terms;
+            }
+        }
+        return candidates;
+    }
+
+    private static void accumulate(Map<Long, Integer> scores, Map<Long, Integer> posting, int quality) {
+        for (Map.Entry<Long, Integer> entry : posting.entrySet()) {
+            int score = quality * fieldWeight(entry.getValue());
+            scores.merge(entry.getKey(), score, Math::max);
+        }
+    }
+
+    private static int fieldWeight(int fields) {
+        if ((fields & FIELD_NAME) != 0) {
+            return 3;
+        }
+        if ((fields & FIELD_CUISINE) != 0) {
+            return 2;
+        }
+        return 1;
+    }
+
+    private void addTerms(Document document) {
+        Long id = document.restaurant.getId();
+        Map<String, Integer> terms = document.terms();
+        for (Map.Entry<String, Integer> entry : terms.entrySet()) {
+            Map<Long, Integer> posting = postings.get(entry.getKey());
+            if (posting == null) {
+                posting = new HashMap<>();
+                postings.put(entry.getKey(), posting);
+                addTrigrams(entry.getKey());
+            }
+            posting.put(id, entry.getValue());
+        }
+        document.indexedTerms = terms.keySet();
+    }
+
+    private void removeTerms(Document document) {
+        Long id = document.restaurant.getId();
+        for (String term : document.indexedTerms) {
+            Map<Long, Integer> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                    removeTrigrams(term);
+                }
+            }
+        }
+        document.indexedTerms = Collections.emptySet();
+    }
+
+    private void addTrigrams(String term) {
+        for (int i = 0; i + 3 <= term.length(); i++) {
+            trigrams.computeIfAbsent(term.substring(i, i + 3), k -> new HashSet<>()).add(term);
+        }
+    }
+
+    private void removeTrigrams(String term) {
+        for (int i = 0; i + 3 <= term.length(); i++) {
+            String trigram = term.substring(i, i + 3);
+            Set<String> terms = trigrams.get(trigram);
+            if (terms != null) {
+                terms.remove(term);
+                if (terms.isEmpty()) {
+                    trigrams.remove(trigram);
+                }
+            }
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String normalized = text.toLowerCase(Locale.ROOT).replace("'", "").replace("’", "");
+        for (String token : normalized.split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static final class Document {
+        private Restaurant restaurant;
+        private final Map<Long, String> menuItemNames = new HashMap<>();
+        private Set<String> indexedTerms = Collections.emptySet();
+
+        private Document(Restaurant restaurant) {
+            this.restaurant = restaurant;
+        }
+
+        private double rating() {
+            return restaurant.getRating() != null ? restaurant.getRating() : 0.0;
+        }
+
+        private Map<String, Integer> terms() {
+            Map<String, Integer> terms = new HashMap<>();
+            for (String token : tokenize(restaurant.getName())) {
+                terms.merge(token, FIELD_NAME, (a, b) -> a | b);
+            }
+            for (String token : tokenize(restaurant.getCuisine())) {
+                terms.merge(token, FIELD_CUISINE, (a, b) -> a | b);
+            }
+            for (String name : menuItemNames.values()) {
+                for (String token : tokenize(name)) {
+                    terms.merge(token, FIELD_MENU, (a, b) -> a | b);
+                }
+            }
+            return terms;
+        }
+    }
+}
@@ -1,9 +1,13 @@
 package com.tastetrack.service;
 
+import com.tastetrack.dto.NearbyRestaurant;
 import com.tastetrack.entity.Restaurant;
 import com.tastetrack.repository.RestaurantRepository;
+import com.tastetrack.util.ReplicaRouting;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -13,32 +17,109 @@ public class RestaurantService {
     @Autowired
     private RestaurantRepository restaurantRepository;
 
+    @Autowired
+    private RestaurantSearchIndex restaurantSearchIndex;
+
+    @Autowired
+    private RestaurantGeoIndex restaurantGeoIndex;
+
+    @Autowired
+    private MenuPriceSnapshot menuPriceSnapshot;
+
+    @Autowired
+    private CatalogSnapshotCache catalogSnapshotCache;
+
+    @Autowired
+    private MenuCatalogCache menuCatalogCache;
+
+    @Value("${restaurants.nearby.max-radius-km:25}")
+    private double maxNearbyRadiusKm;
+
+    @Value("${restaurants.nearby.max-limit:100}")
+    private int maxNearbyLimit;
+
+    @Transactional(readOnly = true)
     public List<Restaurant> getAllRestaurants() {
         return restaurantRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
     public List<Restaurant> getOpenRestaurants() {
         return restaurantRepository.findAllOpenRestaurants();
     }
 
+    // Snapshots are built from the primary so a rebuild right after a write cannot capture replica lag
+    public CatalogSnapshotCache.Snapshot getAllRestaurantsSnapshot() {
+        return catalogSnapshotCache.getRestaurants(() -> ReplicaRouting.onPrimary(restaurantRepository::findAll));
+    }
+
+    public CatalogSnapshotCache.Snapshot getOpenRestaurantsSnapshot() {
+        return catalogSnapshotCache.getOpenRestaurants(
+                () -> ReplicaRouting.onPrimary(restaurantRepository::findAllOpenRestaurants));
+    }
+
+    @Transactional(readOnly = true)
     public Optional<Restaurant> getRestaurantById(Long id) {
         return restaurantRepository.findById(id);
     }
 
-    public List<Restaurant> searchRestaurants(String query) {
-        return restaurantRepository.findByNameOrCuisineContaining(query);
+    public List<Restaurant> searchRestaurants(String query, int limit) {
+        return restaurantSearchIndex.search(query, limit);
+    }
+
+    public List<NearbyRestaurant> findNearbyRestaurants(double latitude, double longitude, double radiusKm,
+                                                        Boolean open, String cuisine, Double minRating, int limit) {
+        if (Math.abs(latitude) > 90 || Math.abs(longitude) > 180) {
+            throw new RuntimeException("Invalid coordinates");
+        }
+        if (radiusKm <= 0 || radiusKm > maxNearbyRadiusKm) {
+            throw new RuntimeException("Radius must be between 0 and " + maxNearbyRadiusKm + " km");
+        }
+        if (limit <= 0 || limit > maxNearbyLimit) {
+            throw new RuntimeException("Limit must be between 1 and " + maxNearbyLimit);
+        }
+        return restaurantGeoIndex.findNearby(latitude, longitude, radiusKm, open, cuisine, minRating, limit);
     }
 
+    @Transactional
     public Restaurant createRestaurant(Restaurant restaurant) {
-        return restaurantRepository.save(restaurant);
+        Restaurant saved = restaurantRepository.save(restaurant);
+        restaurantSearchIndex.indexRestaurant(saved);
+        restaurantGeoIndex.indexRestaurant(saved);
+        menuPriceSnapshot.invalidate();
+        catalogSnapshotCache.invalidateRestaurants();
+        return saved;
     }
 
+    @Transactional
     public Restaurant updateRestaurant(Long id, Restaurant restaurant) {
         restaurant.setId(id);
-        return restaurantRepository.save(restaurant);
+        Restaurant saved = restaurantRepository.save(restaurant);
+        restaurantSearchIndex.indexRestaurant(saved);
+        restaurantGeoIndex.indexRestaurant(saved);
+        menuPriceSnapshot.invalidate();
+        catalogSnapshotCache.invalidateRestaurants();
+        // Cached menus and menu responses carry the restaurant
+        menuCatalogCache.invalidate(id);
+        catalogSnapshotCache.invalidateMenu(id);
+        return saved;
     }
 
+    @Transactional
     public void deleteRestaurant(Long id) {
         restaurantRepository.deleteById(id);
+        restaurantSearchIndex.removeRestaurant(id);
+        restaurantGeoIndex.removeRestaurant(id);
+        menuPriceSnapshot.invalidate();
+        catalogSnapshotCache.invalidateRestaurants();
+        menuCatalogCache.invalidate(id);
+        catalogSnapshotCache.invalidateMenu(id);
+    }
+
+    public void invalidateIndexes() {
+        restaurantSearchIndex.invalidate();
+        restaurantGeoIndex.invalidate();
+        menuPriceSnapshot.invalidate();
+        catalogSnapshotCache.invalidateRestaurants();
     }
 }
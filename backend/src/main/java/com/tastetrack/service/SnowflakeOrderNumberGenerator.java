@@ -0,0 +1,87 @@
+package com.tastetrack.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Snowflake-style order numbers: 41 bits of milliseconds since 2024-01-01, a 10-bit node id
+ * and a 12-bit per-millisecond sequence, rendered as 13 fixed-width base-32 characters so
+ * they sort by creation time. Ids are unique per node without any coordination, so each
+ * instance needs its own {@code orders.number.node-id}. Local runs default to 0; the
+ * {@code prod} profile has no default and startup fails without one, since a guessed id could
+ * collide with another instance's and repeat order numbers.
+ * <p>
+ * The timestamp and sequence advance together with one compare-and-set. When more than 4096
+ * numbers are taken in a millisecond, or the clock steps back, the generator keeps counting
+ * from its last timestamp, then waits for the clock to reach that timestamp before handing the
+ * id out. Nothing is persisted, so this is what keeps a restarted node from reissuing ids; it
+ * holds as long as the clock does not step back across the restart.
+ */
+@Component
+public class SnowflakeOrderNumberGenerator implements OrderNumberGenerator {
+    static final long EPOCH = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private static final char[] DIGITS = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int ENCODED_LENGTH = 13;
+
+    private final long nodeId;
+
+    // (milliseconds since EPOCH << SEQUENCE_BITS) | sequence of the last id handed out
+    private final AtomicLong state = new AtomicLong();
+
+    public SnowflakeOrderNumberGenerator(@Value("${orders.number.node-id:-1}") long nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalStateException("orders.number.node-id (NODE_ID) must be set to a value between 0 and "
+                    + MAX_NODE_ID + " that no other running instance uses");
+        }
+        this.nodeId = nodeId;
+    }
+
+    @Override
+    public String next() {
+        return "ORD" + encode(nextId());
+    }
+
+    public long nextId() {
+        long now = System.currentTimeMillis() - EPOCH;
+        while (true) {
+            long current = state.get();
+            // A full sequence carries into the timestamp, borrowing the next millisecond
+            long next = now > (current >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : current + 1;
+            if (state.compareAndSet(current, next)) {
+                long timestamp = next >>> SEQUENCE_BITS;
+                awaitClock(timestamp);
+                return timestamp << (NODE_BITS + SEQUENCE_BITS) | nodeId << SEQUENCE_BITS | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    private static void awaitClock(long timestamp) {
+        long ahead = timestamp - (System.currentTimeMillis() - EPOCH);
+        while (ahead > 0) {
+            try {
+                Thread.sleep(ahead);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the clock to reach an order number", e);
+            }
+            ahead = timestamp - (System.currentTimeMillis() - EPOCH);
+        }
+    }
+
+    static String encode(long id) {
+        char[] chars = new char[ENCODED_LENGTH];
+        for (int i = ENCODED_LENGTH - 1; i >= 0; i--) {
+            chars[i] = DIGITS[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+}
@@ -6,25 +6,37 @@ import com.tastetrack.dto.SignupRequest;
 import com.tastetrack.entity.User;
 import com.tastetrack.repository.UserRepository;
 import com.tastetrack.util.JwtUtil;
+import com.tastetrack.util.ReplicaRouting;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.Optional;
 
+/**
+ * Sign-up, login and user lookups. Every read here runs on the primary: a replica that lags
+ * would let a fresh account fail to log in, a changed password keep working, or a taken
+ * email pass the sign-up check.
+ */
 @Service
 public class UserService {
+    private static final Logger log = LoggerFactory.getLogger(UserService.class);
+
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHasher passwordHasher;
+
+    @Autowired
+    private LoginAttemptLimiter loginAttemptLimiter;
 
     @Autowired
     private JwtUtil jwtUtil;
 
     public AuthResponse signup(SignupRequest request) {
-        if (userRepository.existsByEmail(request.getEmail())) {
+        if (ReplicaRouting.onPrimary(() -> userRepository.existsByEmail(request.getEmail()))) {
             throw new RuntimeException("Email already exists");
         }
 
@@ -32,50 +44,56 @@ public class UserService {
         user.setFirstName(request.getFirstName());
         user.setLastName(request.getLastName());
         user.setEmail(request.getEmail());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(passwordHasher.encode(request.getPassword()));
         user.setPhone(request.getPhone());
         user.setRole(User.Role.CUSTOMER);
         user.setEnabled(true);
 
         user = userRepository.save(user);
 
-        String token = jwtUtil.generateToken(user.getEmail(), user.getRole().name());
+        String token = jwtUtil.generateToken(user.getId(), user.getEmail(), user.getRole().name());
         return new AuthResponse(token, user.getEmail(), user.getFirstName(), user.getLastName(), user.getRole().name());
     }
 
-    public AuthResponse login(LoginRequest request) {
-        System.out.println("=== LOGIN DEBUG ===");
-        System.out.println("Email: " + request.getEmail());
-        System.out.println("Password (plain): " + request.getPassword());
-
-        User user = userRepository.findByEmail(request.getEmail())
-                .orElseThrow(() -> new RuntimeException("Invalid email or password"));
-
-        System.out.println("User found: " + user.getEmail());
-        System.out.println("User role: " + user.getRole());
-        System.out.println("User enabled: " + user.isEnabled());
-        System.out.println("Password hash from DB: " + user.getPassword());
+    public AuthResponse login(LoginRequest request, String clientIp) {
+        // Refused before the lookup and the hash, so repeated guesses cost almost nothing
+        loginAttemptLimiter.check(request.getEmail(), clientIp);
 
-        boolean passwordMatches = passwordEncoder.matches(request.getPassword(), user.getPassword());
-        System.out.println("Password matches: " + passwordMatches);
-
-        if (!passwordMatches) {
+        User user = ReplicaRouting.onPrimary(() -> userRepository.findByEmail(request.getEmail())).orElse(null);
+        if (user == null || !passwordHasher.matches(request.getPassword(), user.getPassword())) {
+            loginAttemptLimiter.recordFailure(request.getEmail(), clientIp);
             throw new RuntimeException("Invalid email or password");
         }
+        loginAttemptLimiter.recordSuccess(request.getEmail());
 
         if (!user.isEnabled()) {
             throw new RuntimeException("Account is disabled");
         }
 
-        String token = jwtUtil.generateToken(user.getEmail(), user.getRole().name());
+        if (passwordHasher.needsRehash(user.getPassword())) {
+            rehash(user.getId(), request.getPassword(), user.getPassword());
+        }
+
+        String token = jwtUtil.generateToken(user.getId(), user.getEmail(), user.getRole().name());
         return new AuthResponse(token, user.getEmail(), user.getFirstName(), user.getLastName(), user.getRole().name());
     }
 
     public Optional<User> getUserById(Long id) {
-        return userRepository.findById(id);
+        return ReplicaRouting.onPrimary(() -> userRepository.findById(id));
     }
 
     public Optional<User> getUserByEmail(String email) {
-        return userRepository.findByEmail(email);
+        return ReplicaRouting.onPrimary(() -> userRepository.findByEmail(email));
+    }
+
+    // Moves a hash to the configured cost off the login path; skipped when the hasher is busy, retried next login
+    private void rehash(Long userId, String rawPassword, String currentHash) {
+        passwordHasher.encodeWhenIdle(rawPassword).whenComplete((newHash, error) -> {
+            if (error != null) {
+                log.warn("Could not rehash password for user {}: {}", userId, error.getMessage());
+            } else if (newHash != null) {
+                userRepository.updatePasswordIfCurrent(userId, currentHash, newHash);
+            }
+        });
     }
 }
@@ -0,0 +1,61 @@
+package com.tastetrack.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Null-safe field writers for the hand-written response serializers. Dates go through the
+ * provider so they keep the application's configured date format.
+ */
+public final class JsonFields {
+    private JsonFields() {
+    }
+
+    public static void writeNumber(JsonGenerator gen, String name, Long value) throws IOException {
+        if (value == null) {
+            gen.writeNullField(name);
+        } else {
+            gen.writeNumberField(name, value.longValue());
+        }
+    }
+
+    public static void writeNumber(JsonGenerator gen, String name, Integer value) throws IOException {
+        if (value == null) {
+            gen.writeNullField(name);
+        } else {
+            gen.writeNumberField(name, value.intValue());
+        }
+    }
+
+    public static void writeNumber(JsonGenerator gen, String name, Double value) throws IOException {
+        if (value == null) {
+            gen.writeNullField(name);
+        } else {
+            gen.writeNumberField(name, value.doubleValue());
+        }
+    }
+
+    public static void writeBoolean(JsonGenerator gen, String name, Boolean value) throws IOException {
+        if (value == null) {
+            gen.writeNullField(name);
+        } else {
+            gen.writeBooleanField(name, value);
+        }
+    }
+
+    public static void writeEnum(JsonGenerator gen, String name, Enum<?> value) throws IOException {
+        gen.writeStringField(name, value != null ? value.name() : null);
+    }
+
+    public static void writeDate(JsonGenerator gen, SerializerProvider provider, String name, LocalDateTime value)
+            throws IOException {
+        if (value == null) {
+            gen.writeNullField(name);
+        } else {
+            provider.defaultSerializeField(name, value, gen);
+        }
+    }
+}
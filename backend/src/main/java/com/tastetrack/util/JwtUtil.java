@@ -2,11 +2,22 @@ package com.tastetrack.util;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.security.Key;
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Component
 public class JwtUtil {
@@ -16,14 +27,39 @@ public class JwtUtil {
     @Value("${jwt.expiration}")
     private Long expiration;
 
-    public String generateToken(String email, String role) {
+    @Value("${jwt.cache.max-entries:10000}")
+    private int maxCachedTokens;
+
+    private SecretKey key;
+
+    private JwtParser parser;
+
+    // Recently verified tokens by SHA-256 of the token, so repeat requests skip decoding and the
+    // HMAC check until expiry; lookups take no lock and the bound is enforced by trimming on insert
+    private final Map<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+    private final AtomicBoolean trimming = new AtomicBoolean();
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    @PostConstruct
+    void init() {
+        key = Keys.hmacShaKeyFor(secret.getBytes());
+        parser = Jwts.parser().verifyWith(key).build();
+    }
+
+    public String generateToken(Long userId, String email, String role) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + expiration);
 
-        Key key = Keys.hmacShaKeyFor(secret.getBytes());
-
         return Jwts.builder()
                 .subject(email)
+                .claim("uid", userId)
                 .claim("role", role)
                 .issuedAt(now)
                 .expiration(expiryDate)
@@ -31,24 +67,82 @@ public class JwtUtil {
                 .compact();
     }
 
+    /**
+     * Verifies the token once and returns its user id, subject and role together.
+     *
+     * @throws JwtException if the token is malformed, tampered with or expired
+     */
+    public VerifiedToken verify(String token) {
+        long now = System.currentTimeMillis();
+        String digest = digest(token);
+        VerifiedToken cached = verifiedTokens.get(digest);
+        if (cached != null) {
+            if (cached.getExpiresAt() > now) {
+                return cached;
+            }
+            verifiedTokens.remove(digest, cached);
+        }
+
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        Date expiresAt = claims.getExpiration();
+        Object userId = claims.get("uid");
+        VerifiedToken verified = new VerifiedToken(
+                userId instanceof Number number ? number.longValue() : null,
+                claims.getSubject(),
+                claims.get("role", String.class),
+                expiresAt != null ? expiresAt.getTime() : Long.MAX_VALUE);
+
+        verifiedTokens.put(digest, verified);
+        if (verifiedTokens.size() > maxCachedTokens) {
+            trim(now);
+        }
+        return verified;
+    }
+
     public String getEmailFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(Keys.hmacShaKeyFor(secret.getBytes()))
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        return claims.getSubject();
+        return verify(token).getEmail();
     }
 
     public boolean validateToken(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(Keys.hmacShaKeyFor(secret.getBytes()))
-                    .build()
-                    .parseSignedClaims(token);
+            verify(token);
             return true;
         } catch (JwtException | IllegalArgumentException e) {
             return false;
         }
     }
+
+    // Drops expired tokens, then arbitrary ones down to 90% of the bound, one thread at a time
+    private void trim(long now) {
+        if (!trimming.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            verifiedTokens.values().removeIf(verified -> verified.getExpiresAt() <= now);
+            int target = maxCachedTokens - maxCachedTokens / 10;
+            Iterator<String> digests = verifiedTokens.keySet().iterator();
+            while (verifiedTokens.size() > target && digests.hasNext()) {
+                digests.next();
+                digests.remove();
+            }
+        } finally {
+            trimming.set(false);
+        }
+    }
+
+    private static String digest(String token) {
+        MessageDigest sha256 = SHA_256.get();
+        sha256.reset();
+        return Base64.getEncoder().encodeToString(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class VerifiedToken {
+        // Null for tokens issued before the id was added to the claims
+        private final Long userId;
+        private final String email;
+        private final String role;
+        private final long expiresAt;
+    }
 }
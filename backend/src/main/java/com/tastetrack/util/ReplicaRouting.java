@@ -0,0 +1,31 @@
+package com.tastetrack.util;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * Decides whether the current thread's next connection may come from a read replica.
+ * Read-only transactions go to a replica unless the code is inside {@link #onPrimary},
+ * which keeps reads that must see the latest writes on the primary.
+ */
+public final class ReplicaRouting {
+    private static final ThreadLocal<int[]> PRIMARY_DEPTH = ThreadLocal.withInitial(() -> new int[1]);
+
+    private ReplicaRouting() {
+    }
+
+    public static <T> T onPrimary(Supplier<T> action) {
+        int[] depth = PRIMARY_DEPTH.get();
+        depth[0]++;
+        try {
+            return action.get();
+        } finally {
+            depth[0]--;
+        }
+    }
+
+    public static boolean isReplicaAllowed() {
+        return PRIMARY_DEPTH.get()[0] == 0 && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+}
@@ -12,7 +12,7 @@ CREATE TABLE IF NOT EXISTS users (
     email VARCHAR(100) NOT NULL UNIQUE,
     password VARCHAR(255) NOT NULL,
     phone VARCHAR(20),
-    role ENUM('CUSTOMER', 'ADMIN') NOT NULL DEFAULT 'CUSTOMER',
+    role ENUM('CUSTOMER', 'ADMIN', 'COURIER') NOT NULL DEFAULT 'CUSTOMER',
     enabled BOOLEAN NOT NULL DEFAULT TRUE,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
@@ -28,6 +28,9 @@ CREATE TABLE IF NOT EXISTS restaurants (
     min_order DECIMAL(10,2) NOT NULL,
     image VARCHAR(255),
     address VARCHAR(255) NOT NULL,
+    latitude DOUBLE,
+    longitude DOUBLE,
+    delivery_radius_km DOUBLE,
     is_open BOOLEAN NOT NULL DEFAULT TRUE,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
@@ -60,6 +63,7 @@ CREATE TABLE IF NOT EXISTS orders (
     delivery_address VARCHAR(255) NOT NULL,
     order_date TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     estimated_delivery TIMESTAMP,
+    menu_snapshot_version BIGINT,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
@@ -92,6 +96,20 @@ CREATE TABLE IF NOT EXISTS payments (
     FOREIGN KEY (order_id) REFERENCES orders(id) ON DELETE CASCADE
 );
 
+-- Couriers table
+CREATE TABLE IF NOT EXISTS couriers (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT UNIQUE,
+    name VARCHAR(100) NOT NULL,
+    phone VARCHAR(20) NOT NULL,
+    capacity INT NOT NULL DEFAULT 3,
+    status ENUM('OFFLINE', 'ONLINE') NOT NULL DEFAULT 'OFFLINE',
+    latitude DOUBLE,
+    longitude DOUBLE,
+    last_seen_at TIMESTAMP NULL,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
 -- Deliveries table
 CREATE TABLE IF NOT EXISTS deliveries (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
@@ -104,12 +122,62 @@ CREATE TABLE IF NOT EXISTS deliveries (
     delivery_zip VARCHAR(10) NOT NULL,
     delivery_instructions VARCHAR(500),
     delivery_date TIMESTAMP,
-    status ENUM('PENDING', 'CONFIRMED', 'OUT_FOR_DELIVERY', 'DELIVERED', 'CANCELLED') NOT NULL DEFAULT 'PENDING',
+    status ENUM('PENDING', 'CONFIRMED', 'OUT_FOR_DELIVERY', 'DELIVERED', 'CANCELLED', 'ASSIGNED') NOT NULL DEFAULT 'PENDING',
+    courier_id BIGINT NULL,
+    assigned_at TIMESTAMP NULL,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     FOREIGN KEY (order_id) REFERENCES orders(id) ON DELETE CASCADE
 );
 
+-- Order outbox: one row per accepted order, driving it through fulfilment
+CREATE TABLE IF NOT EXISTS order_outbox (
+    id BIGINT PRIMARY KEY,
+    order_id BIGINT NOT NULL UNIQUE,
+    status ENUM('PENDING', 'PROCESSING', 'DONE', 'FAILED') NOT NULL DEFAULT 'PENDING',
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL,
+    claimed_at TIMESTAMP NULL,
+    last_error VARCHAR(500),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (order_id) REFERENCES orders(id) ON DELETE CASCADE
+);
+
+-- Order events: committed order changes, read back by every instance to update its live state.
+-- Rows are only needed for a few minutes and are deleted after orders.events.retention-minutes.
+CREATE TABLE IF NOT EXISTS order_events (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    instance_id VARCHAR(36) NOT NULL,
+    order_id BIGINT NOT NULL,
+    restaurant_id BIGINT,
+    status VARCHAR(20),
+    delivery_status VARCHAR(20),
+    estimated_delivery TIMESTAMP NULL,
+    source VARCHAR(20) NOT NULL,
+    total DOUBLE NOT NULL DEFAULT 0,
+    item_count INT NOT NULL DEFAULT 0,
+    occurred_at TIMESTAMP NOT NULL
+);
+
+-- ID sequences for order tables (pooled-lo, allocation size 50) so Hibernate can batch inserts.
+-- Each sequence is moved past any existing AUTO_INCREMENT rows.
+CREATE TABLE IF NOT EXISTS orders_seq (next_val BIGINT);
+CREATE TABLE IF NOT EXISTS order_items_seq (next_val BIGINT);
+CREATE TABLE IF NOT EXISTS payments_seq (next_val BIGINT);
+CREATE TABLE IF NOT EXISTS deliveries_seq (next_val BIGINT);
+CREATE TABLE IF NOT EXISTS order_outbox_seq (next_val BIGINT);
+
+INSERT INTO orders_seq (next_val) SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM orders_seq);
+INSERT INTO order_items_seq (next_val) SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM order_items_seq);
+INSERT INTO payments_seq (next_val) SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM payments_seq);
+INSERT INTO deliveries_seq (next_val) SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM deliveries_seq);
+INSERT INTO order_outbox_seq (next_val) SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM order_outbox_seq);
+
+UPDATE orders_seq SET next_val = (SELECT COALESCE(MAX(id), 0) + 1 FROM orders) WHERE next_val <= (SELECT COALESCE(MAX(id), 0) FROM orders);
+UPDATE order_items_seq SET next_val = (SELECT COALESCE(MAX(id), 0) + 1 FROM order_items) WHERE next_val <= (SELECT COALESCE(MAX(id), 0) FROM order_items);
+UPDATE payments_seq SET next_val = (SELECT COALESCE(MAX(id), 0) + 1 FROM payments) WHERE next_val <= (SELECT COALESCE(MAX(id), 0) FROM payments);
+UPDATE deliveries_seq SET next_val = (SELECT COALESCE(MAX(id), 0) + 1 FROM deliveries) WHERE next_val <= (SELECT COALESCE(MAX(id), 0) FROM deliveries);
+
 -- Insert sample data
 INSERT INTO users (first_name, last_name, email, password, phone, role) VALUES
 ('John', 'Doe', 'john.doe@example.com', '$2a$10$N.zmdr9k7uOCQb376NoUnuTJ8iAt6Z5EHsM8lE9lBOsl7iwK7EnQW', '+1 (555) 123-4567', 'CUSTOMER'),
@@ -117,11 +185,11 @@ INSERT INTO users (first_name, last_name, email, password, phone, role) VALUES
 
 -- Password for both users is: password
 
-INSERT INTO restaurants (name, cuisine, rating, delivery_time, min_order, image, address, is_open) VALUES
-('Luigi''s Italian Kitchen', 'Italian', 4.5, '25-35 min', 15.00, 'https://images.unsplash.com/photo-1555396273-367ea4eb4db5?w=800&h=600&fit=crop', '123 Main St, Downtown', TRUE),
-('Tokyo Sushi Bar', 'Japanese', 4.7, '30-40 min', 20.00, 'https://images.unsplash.com/photo-1579584425555-c3ce17fd4351?w=800&h=600&fit=crop', '456 Oak Ave, Midtown', TRUE),
-('The Burger Joint', 'American', 4.3, '20-30 min', 10.00, 'https://images.unsplash.com/photo-1550547660-d9450f859349?w=800&h=600&fit=crop', '789 Elm St, Uptown', TRUE),
-('Fresh Greens Co.', 'Healthy', 4.6, '15-25 min', 12.00, 'https://images.unsplash.com/photo-1512621776951-a57141f2eefd?w=800&h=600&fit=crop', '321 Pine Rd, Downtown', TRUE);
+INSERT INTO restaurants (name, cuisine, rating, delivery_time, min_order, image, address, latitude, longitude, is_open) VALUES
+('Luigi''s Italian Kitchen', 'Italian', 4.5, '25-35 min', 15.00, 'https://images.unsplash.com/photo-1555396273-367ea4eb4db5?w=800&h=600&fit=crop', '123 Main St, Downtown', 40.7128, -74.0060, TRUE),
+('Tokyo Sushi Bar', 'Japanese', 4.7, '30-40 min', 20.00, 'https://images.unsplash.com/photo-1579584425555-c3ce17fd4351?w=800&h=600&fit=crop', '456 Oak Ave, Midtown', 40.7549, -73.9840, TRUE),
+('The Burger Joint', 'American', 4.3, '20-30 min', 10.00, 'https://images.unsplash.com/photo-1550547660-d9450f859349?w=800&h=600&fit=crop', '789 Elm St, Uptown', 40.7870, -73.9754, TRUE),
+('Fresh Greens Co.', 'Healthy', 4.6, '15-25 min', 12.00, 'https://images.unsplash.com/photo-1512621776951-a57141f2eefd?w=800&h=600&fit=crop', '321 Pine Rd, Downtown', 40.7075, -74.0113, TRUE);
 
 INSERT INTO menu_items (name, description, price, image, category, restaurant_id, is_veg, rating) VALUES
 -- Luigi's Italian Kitchen (Restaurant 1) - Italian dishes
@@ -164,3 +232,31 @@ CREATE INDEX idx_restaurant_id ON menu_items(restaurant_id);
 CREATE INDEX idx_user_id ON orders(user_id);
 CREATE INDEX idx_order_status ON orders(status);
 CREATE INDEX idx_order_date ON orders(order_date);
+CREATE INDEX idx_orders_user_date_id ON orders(user_id, order_date, id);
+CREATE INDEX idx_orders_status_date_id ON orders(status, order_date, id);
+CREATE INDEX idx_outbox_status_next_attempt ON order_outbox(status, next_attempt_at);
+CREATE INDEX idx_deliveries_courier_status ON deliveries(courier_id, status);
+CREATE INDEX idx_order_events_occurred_at ON order_events(occurred_at);
+
+-- Databases created before courier dispatch lack the ASSIGNED delivery status. The ALTER runs only
+-- while the column still misses it; appending the value last keeps it a metadata-only change.
+SET @add_assigned_status = (SELECT IF(COUNT(*) > 0,
+    'ALTER TABLE deliveries MODIFY COLUMN status ENUM(''PENDING'', ''CONFIRMED'', ''OUT_FOR_DELIVERY'', ''DELIVERED'', ''CANCELLED'', ''ASSIGNED'') NOT NULL DEFAULT ''PENDING''',
+    'DO 0')
+    FROM information_schema.COLUMNS
+    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'deliveries' AND COLUMN_NAME = 'status'
+      AND COLUMN_TYPE NOT LIKE '%''ASSIGNED''%');
+PREPARE add_assigned_status FROM @add_assigned_status;
+EXECUTE add_assigned_status;
+DEALLOCATE PREPARE add_assigned_status;
+
+-- Likewise for the COURIER user role
+SET @add_courier_role = (SELECT IF(COUNT(*) > 0,
+    'ALTER TABLE users MODIFY COLUMN role ENUM(''CUSTOMER'', ''ADMIN'', ''COURIER'') NOT NULL DEFAULT ''CUSTOMER''',
+    'DO 0')
+    FROM information_schema.COLUMNS
+    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'users' AND COLUMN_NAME = 'role'
+      AND COLUMN_TYPE NOT LIKE '%''COURIER''%');
+PREPARE add_courier_role FROM @add_courier_role;
+EXECUTE add_courier_role;
+DEALLOCATE PREPARE add_courier_role;
@@ -0,0 +1,76 @@
+package com.tastetrack.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimitTest {
+    private static final long MILLIS = 1_000_000L;
+
+    @Test
+    void growsWhileLatencyHoldsAtTheBaseline() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(1, 10, 1, 100, 1.5, 1.0, 10);
+
+        runWindow(limit, 10, MILLIS);
+
+        assertThat(limit.getLimit()).isEqualTo(13);
+    }
+
+    @Test
+    void shrinksWhenLatencyRisesPastTheTolerance() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(1, 10, 1, 100, 1.5, 1.0, 10);
+        runWindow(limit, 10, MILLIS);
+        int before = limit.getLimit();
+
+        runWindow(limit, 10, 4 * MILLIS);
+
+        assertThat(limit.getLimit()).isLessThan(before);
+    }
+
+    @Test
+    void doesNotGrowWhenTrafficStaysWellBelowTheLimit() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(1, 10, 1, 100, 1.5, 1.0, 10);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(limit.tryAcquire(1.0)).isTrue();
+            limit.release(0, MILLIS);
+        }
+
+        assertThat(limit.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    void lowerSharesAreRefusedFirst() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 10, 1, 100, 1.5, 0.2, 50);
+        for (int i = 0; i < 4; i++) {
+            assertThat(limit.tryAcquire(0.4)).isTrue();
+        }
+
+        assertThat(limit.tryAcquire(0.4)).isFalse();
+        assertThat(limit.tryAcquire(1.0)).isTrue();
+        assertThat(limit.getInFlight()).isEqualTo(5);
+    }
+
+    @Test
+    void placementIsRefusedOnlyAtTheFullLimit() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(1, 10, 1, 100, 1.5, 0.2, 50);
+        for (int i = 0; i < 10; i++) {
+            assertThat(limit.tryAcquire(1.0)).isTrue();
+        }
+
+        assertThat(limit.tryAcquire(1.0)).isFalse();
+
+        limit.release(0, MILLIS);
+        assertThat(limit.tryAcquire(1.0)).isTrue();
+    }
+
+    // Fills the limit with concurrent requests, then completes them all with the same latency
+    private static void runWindow(AdaptiveConcurrencyLimit limit, int requests, long latencyNanos) {
+        for (int i = 0; i < requests; i++) {
+            assertThat(limit.tryAcquire(1.0)).isTrue();
+        }
+        for (int i = 0; i < requests; i++) {
+            limit.release(0, latencyNanos);
+        }
+    }
+}
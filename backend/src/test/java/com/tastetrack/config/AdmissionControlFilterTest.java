@@ -0,0 +1,110 @@
+package com.tastetrack.config;
+
+import com.tastetrack.config.AdmissionControlFilter.TrafficClass;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdmissionControlFilterTest {
+    private AdmissionControlFilter filter;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        filter = new AdmissionControlFilter();
+        ReflectionTestUtils.setField(filter, "meterRegistry", registry);
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "initialLimit", 10);
+        ReflectionTestUtils.setField(filter, "minLimit", 1);
+        ReflectionTestUtils.setField(filter, "maxLimit", 100);
+        ReflectionTestUtils.setField(filter, "latencyTolerance", 1.5);
+        ReflectionTestUtils.setField(filter, "smoothing", 0.2);
+        ReflectionTestUtils.setField(filter, "windowSize", 50);
+        ReflectionTestUtils.setField(filter, "retryAfterSeconds", 1);
+        ReflectionTestUtils.setField(filter, "orderTrackingShare", 0.9);
+        ReflectionTestUtils.setField(filter, "browseShare", 0.7);
+        ReflectionTestUtils.setField(filter, "adminShare", 0.4);
+        ReflectionTestUtils.setField(filter, "maxBulkTransfers", 1);
+        filter.start();
+    }
+
+    @Test
+    void classifiesByRoute() {
+        assertThat(AdmissionControlFilter.classify(request("POST", "/api/orders"))).isEqualTo(TrafficClass.ORDER_PLACEMENT);
+        assertThat(AdmissionControlFilter.classify(request("GET", "/api/orders/7/track"))).isEqualTo(TrafficClass.ORDER_TRACKING);
+        assertThat(AdmissionControlFilter.classify(request("POST", "/api/auth/login"))).isEqualTo(TrafficClass.ORDER_TRACKING);
+        assertThat(AdmissionControlFilter.classify(request("GET", "/api/restaurants"))).isEqualTo(TrafficClass.BROWSE);
+        assertThat(AdmissionControlFilter.classify(request("GET", "/api/admin/catalog/imports"))).isEqualTo(TrafficClass.ADMIN);
+        assertThat(AdmissionControlFilter.classify(request("POST", "/api/admin/catalog/menu-items/import")))
+                .isEqualTo(TrafficClass.BULK_TRANSFER);
+        assertThat(AdmissionControlFilter.classify(request("GET", "/api/admin/catalog/restaurants/export")))
+                .isEqualTo(TrafficClass.BULK_TRANSFER);
+    }
+
+    @Test
+    void bulkTransfersBypassTheAdaptiveLimitAndHaveTheirOwnCap() throws Exception {
+        AdaptiveConcurrencyLimit limit = (AdaptiveConcurrencyLimit) ReflectionTestUtils.getField(filter, "limit");
+        AtomicInteger inFlightDuringExport = new AtomicInteger(-1);
+        MockHttpServletResponse secondExport = new MockHttpServletResponse();
+
+        // While one export streams, a second is refused and ordinary traffic is unaffected
+        MockFilterChain exportChain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                inFlightDuringExport.set(limit.getInFlight());
+                try {
+                    filter.doFilter(request("GET", "/api/admin/catalog/menu-items/export"), secondExport,
+                            new MockFilterChain());
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        });
+        MockHttpServletResponse firstExport = new MockHttpServletResponse();
+        filter.doFilter(request("GET", "/api/admin/catalog/menu-items/export"), firstExport, exportChain);
+
+        assertThat(firstExport.getStatus()).isEqualTo(200);
+        assertThat(inFlightDuringExport.get()).isZero();
+        assertThat(secondExport.getStatus()).isEqualTo(503);
+        assertThat(secondExport.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(registry.get("http.server.admission.rejected").tag("class", "bulk_transfer").counter().count())
+                .isEqualTo(1.0);
+
+        MockHttpServletResponse thirdExport = new MockHttpServletResponse();
+        filter.doFilter(request("GET", "/api/admin/catalog/menu-items/export"), thirdExport, new MockFilterChain());
+        assertThat(thirdExport.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void shedsBrowseBeforeOrderPlacement() throws Exception {
+        AdaptiveConcurrencyLimit limit = (AdaptiveConcurrencyLimit) ReflectionTestUtils.getField(filter, "limit");
+        for (int i = 0; i < 7; i++) {
+            assertThat(limit.tryAcquire(1.0)).isTrue();
+        }
+
+        MockHttpServletResponse browse = new MockHttpServletResponse();
+        filter.doFilter(request("GET", "/api/restaurants"), browse, new MockFilterChain());
+        MockHttpServletResponse placement = new MockHttpServletResponse();
+        filter.doFilter(request("POST", "/api/orders"), placement, new MockFilterChain());
+
+        assertThat(browse.getStatus()).isEqualTo(503);
+        assertThat(placement.getStatus()).isEqualTo(200);
+    }
+
+    private static MockHttpServletRequest request(String method, String uri) {
+        return new MockHttpServletRequest(method, uri);
+    }
+}
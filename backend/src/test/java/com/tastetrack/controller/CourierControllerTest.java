@@ -0,0 +1,118 @@
+package com.tastetrack.controller;
+
+import com.tastetrack.entity.Courier;
+import com.tastetrack.entity.User;
+import com.tastetrack.repository.UserRepository;
+import com.tastetrack.service.DispatchService;
+import com.tastetrack.util.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Courier endpoints are open to the courier a record belongs to and, for oversight, to admins.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CourierControllerTest {
+    private static final AtomicInteger USERS = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DispatchService dispatchService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private Courier courier;
+    private User courierUser;
+
+    @BeforeEach
+    void setUp() {
+        courierUser = user(User.Role.CUSTOMER);
+        Courier profile = new Courier();
+        profile.setUserId(courierUser.getId());
+        profile.setName("Courier");
+        profile.setPhone("555-0100");
+        profile.setCapacity(2);
+        courier = dispatchService.registerCourier(profile);
+    }
+
+    @Test
+    void registeringMakesTheUserACourier() {
+        assertThat(userRepository.findById(courierUser.getId()).orElseThrow().getRole()).isEqualTo(User.Role.COURIER);
+        assertThat(dispatchService.isOperatedBy(courier.getId(), courierUser.getId())).isTrue();
+    }
+
+    @Test
+    void couriersActOnlyOnTheirOwnRecord() throws Exception {
+        String own = token(userRepository.findById(courierUser.getId()).orElseThrow());
+        String other = token(user(User.Role.COURIER));
+
+        mockMvc.perform(get("/api/couriers/" + courier.getId() + "/trip").header(HttpHeaders.AUTHORIZATION, own))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/couriers/" + courier.getId() + "/trip").header(HttpHeaders.AUTHORIZATION, other))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/couriers/" + courier.getId() + "/pickup").header(HttpHeaders.AUTHORIZATION, other))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/couriers/" + courier.getId() + "/deliveries/1/delivered")
+                        .header(HttpHeaders.AUTHORIZATION, other))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void customersAndAnonymousCallersAreTurnedAway() throws Exception {
+        String customer = token(user(User.Role.CUSTOMER));
+
+        mockMvc.perform(post("/api/couriers/" + courier.getId() + "/pickup"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/api/couriers/" + courier.getId() + "/pickup").header(HttpHeaders.AUTHORIZATION, customer))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/couriers").header(HttpHeaders.AUTHORIZATION, customer))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void adminsOverseeButDoNotPickUp() throws Exception {
+        String admin = token(user(User.Role.ADMIN));
+
+        mockMvc.perform(get("/api/couriers").header(HttpHeaders.AUTHORIZATION, admin))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/couriers/" + courier.getId() + "/trip").header(HttpHeaders.AUTHORIZATION, admin))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/couriers/" + courier.getId() + "/pickup").header(HttpHeaders.AUTHORIZATION, admin))
+                .andExpect(status().isForbidden());
+    }
+
+    private User user(User.Role role) {
+        User user = new User();
+        user.setFirstName("Test");
+        user.setLastName("User");
+        user.setEmail("courier-test" + USERS.incrementAndGet() + "@example.com");
+        user.setPassword("unused");
+        user.setRole(role);
+        return userRepository.save(user);
+    }
+
+    private String token(User user) {
+        return "Bearer " + jwtUtil.generateToken(user.getId(), user.getEmail(), user.getRole().name());
+    }
+}
@@ -0,0 +1,162 @@
+package com.tastetrack.controller;
+
+import com.tastetrack.entity.MenuItem;
+import com.tastetrack.entity.Restaurant;
+import com.tastetrack.entity.User;
+import com.tastetrack.repository.UserRepository;
+import com.tastetrack.service.MenuItemService;
+import com.tastetrack.service.RestaurantService;
+import com.tastetrack.util.JwtUtil;
+import com.tastetrack.util.SqlStatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Pins the number of SQL statements the order and menu endpoints issue, so a lazy association
+ * touched outside its fetch plan shows up as a failing count rather than as an N+1 in production.
+ * MockMvc runs the request on the test thread, where {@link SqlStatementCounter} counts.
+ * The order pipeline runs as it does by default, so placement includes its outbox entry.
+ */
+@SpringBootTest(properties = "orders.pipeline.enabled=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SqlStatementCountTest {
+    private static final AtomicInteger USERS = new AtomicInteger();
+    private static final Pattern ORDER_ID = Pattern.compile("^\\{\"id\":(\\d+)");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RestaurantService restaurantService;
+
+    @Autowired
+    private MenuItemService menuItemService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private Long restaurantId;
+    private final List<Long> menuItemIds = new ArrayList<>();
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        int n = USERS.incrementAndGet();
+        Restaurant restaurant = new Restaurant();
+        restaurant.setName("Counted Kitchen " + n);
+        restaurant.setCuisine("Test");
+        restaurant.setRating(4.0);
+        restaurant.setDeliveryTime("20-30 min");
+        restaurant.setMinOrder(0.0);
+        restaurant.setAddress("1 Test St");
+        restaurant.setIsOpen(true);
+        restaurant = restaurantService.createRestaurant(restaurant);
+        restaurantId = restaurant.getId();
+
+        for (int i = 0; i < 3; i++) {
+            MenuItem item = new MenuItem();
+            item.setName("Dish " + i);
+            item.setDescription("Test dish");
+            item.setPrice(10.0 + i);
+            item.setCategory("Mains");
+            item.setRating(4.0);
+            item.setRestaurant(restaurant);
+            menuItemIds.add(menuItemService.createMenuItem(item).getId());
+        }
+
+        User user = new User();
+        user.setFirstName("Counted");
+        user.setLastName("Customer");
+        user.setEmail("counted" + n + "@example.com");
+        user.setPassword("unused");
+        user = userRepository.save(user);
+        token = jwtUtil.generateToken(user.getId(), user.getEmail(), user.getRole().name());
+    }
+
+    @Test
+    void orderPlacement() throws Exception {
+        // The first order also builds the menu price snapshot
+        placeOrder();
+
+        // Order, items, payment, delivery and outbox entry as JDBC batches, plus the order event
+        assertThat(count(placement())).isEqualTo(6);
+    }
+
+    @Test
+    void orderList() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            placeOrder();
+        }
+
+        // One summary query whatever the number of orders
+        assertThat(count(get("/api/orders/user").header(HttpHeaders.AUTHORIZATION, "Bearer " + token)))
+                .isEqualTo(1);
+    }
+
+    @Test
+    void orderDetail() throws Exception {
+        Long orderId = placeOrder();
+
+        // Order with restaurant, items, menu items, payment and delivery through the detail graph
+        assertThat(count(get("/api/orders/" + orderId))).isEqualTo(1);
+    }
+
+    @Test
+    void menuPage() throws Exception {
+        menuItemService.invalidateMenuCache();
+
+        // Items with their restaurant through the menu graph, then served from the cache
+        assertThat(count(get("/api/menu-items/restaurant/" + restaurantId))).isEqualTo(1);
+        assertThat(count(get("/api/menu-items/restaurant/" + restaurantId))).isZero();
+    }
+
+    private Long placeOrder() throws Exception {
+        String body = mockMvc.perform(placement()).andReturn().getResponse().getContentAsString();
+        Matcher matcher = ORDER_ID.matcher(body);
+        assertThat(matcher.find()).as("order response %s", body).isTrue();
+        return Long.valueOf(matcher.group(1));
+    }
+
+    private RequestBuilder placement() {
+        String items = "[{\"menuItemId\":" + menuItemIds.get(0) + ",\"quantity\":2},"
+                + "{\"menuItemId\":" + menuItemIds.get(1) + ",\"quantity\":1}]";
+        String body = "{\"restaurantId\":" + restaurantId + ",\"items\":" + items + ","
+                + "\"delivery\":{\"customerName\":\"Counted Customer\",\"customerPhone\":\"555-0199\","
+                + "\"deliveryAddress\":\"2 Test St\",\"deliveryCity\":\"Testville\",\"deliveryState\":\"TS\","
+                + "\"deliveryZip\":\"12345\"},"
+                + "\"payment\":{\"paymentMethod\":\"CASH_ON_DELIVERY\"}}";
+        return post("/api/orders")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body);
+    }
+
+    private int count(RequestBuilder request) throws Exception {
+        int before = SqlStatementCounter.get();
+        int status = mockMvc.perform(request).andReturn().getResponse().getStatus();
+        assertThat(status).isEqualTo(200);
+        return SqlStatementCounter.get() - before;
+    }
+}
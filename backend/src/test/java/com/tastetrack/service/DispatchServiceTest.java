@@ -0,0 +1,251 @@
+package com.tastetrack.service;
+
+import com.tastetrack.dto.CourierTrip;
+import com.tastetrack.dto.DeliveryRequest;
+import com.tastetrack.dto.OrderItemRequest;
+import com.tastetrack.dto.OrderRequest;
+import com.tastetrack.dto.PaymentRequest;
+import com.tastetrack.entity.Courier;
+import com.tastetrack.entity.Delivery;
+import com.tastetrack.entity.Delivery.DeliveryStatus;
+import com.tastetrack.entity.MenuItem;
+import com.tastetrack.entity.Order.OrderStatus;
+import com.tastetrack.entity.Restaurant;
+import com.tastetrack.entity.User;
+import com.tastetrack.repository.DeliveryRepository;
+import com.tastetrack.repository.OrderRepository;
+import com.tastetrack.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Drives dispatch with simulated couriers: they come online at a position, and the test runs
+ * matching rounds and reports pickups and drop-offs the way the courier app would. Each test
+ * works in its own area, far beyond the pickup range of the others' couriers.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class DispatchServiceTest {
+    private static final AtomicInteger AREAS = new AtomicInteger();
+    private static final AtomicInteger COURIERS = new AtomicInteger();
+    // About 1 km of latitude
+    private static final double KM = 1 / 111.0;
+
+    @Autowired
+    private DispatchService dispatchService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private RestaurantService restaurantService;
+
+    @Autowired
+    private MenuItemService menuItemService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DeliveryRepository deliveryRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private double latitude;
+    private double longitude;
+    private Long restaurantId;
+    private Long menuItemId;
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        int area = AREAS.incrementAndGet();
+        latitude = 10 + 2 * area;
+        longitude = 20;
+
+        Restaurant restaurant = new Restaurant();
+        restaurant.setName("Kitchen " + area);
+        restaurant.setCuisine("Test");
+        restaurant.setRating(4.0);
+        restaurant.setDeliveryTime("20-30 min");
+        restaurant.setMinOrder(0.0);
+        restaurant.setAddress("1 Test St");
+        restaurant.setLatitude(latitude);
+        restaurant.setLongitude(longitude);
+        restaurant.setIsOpen(true);
+        restaurantId = restaurantService.createRestaurant(restaurant).getId();
+
+        MenuItem item = new MenuItem();
+        item.setName("Dish " + area);
+        item.setDescription("Test dish");
+        item.setPrice(10.0);
+        item.setCategory("Mains");
+        item.setRating(4.0);
+        item.setRestaurant(restaurantService.getRestaurantById(restaurantId).orElseThrow());
+        menuItemId = menuItemService.createMenuItem(item).getId();
+
+        User user = new User();
+        user.setFirstName("Test");
+        user.setLastName("Customer");
+        user.setEmail("customer" + area + "@example.com");
+        user.setPassword("unused");
+        userId = userRepository.save(user).getId();
+    }
+
+    @Test
+    void batchesWaitingOrdersOntoTheNearestCourier() {
+        Courier near = courierAt(0.5, 2);
+        Courier far = courierAt(5, 2);
+        Long first = placeOrder();
+        Long second = placeOrder();
+
+        assertThat(dispatchService.dispatch()).isEqualTo(2);
+
+        assertThat(dispatchService.getTrip(near.getId()).getAwaitingPickup()).containsExactlyInAnyOrder(first, second);
+        assertThat(dispatchService.getTrip(far.getId()).getAwaitingPickup()).isEmpty();
+        assertThat(delivery(first).getStatus()).isEqualTo(DeliveryStatus.ASSIGNED);
+        assertThat(delivery(first).getCourierId()).isEqualTo(near.getId());
+        assertThat(dispatchService.dispatch()).isZero();
+    }
+
+    @Test
+    void courierPicksUpOnceTheKitchenAcceptedAndDelivers() {
+        Courier courier = courierAt(1, 1);
+        Long orderId = placeOrder();
+        assertThat(dispatchService.dispatch()).isEqualTo(1);
+
+        assertThatThrownBy(() -> dispatchService.pickUp(courier.getId()))
+                .hasMessageContaining("not ready");
+
+        orderService.updateOrderStatus(orderId, OrderStatus.PREPARING);
+        CourierTrip trip = dispatchService.pickUp(courier.getId());
+        assertThat(trip.getAwaitingPickup()).isEmpty();
+        assertThat(trip.getOutForDelivery()).containsExactly(orderId);
+        assertThat(status(orderId)).isEqualTo(OrderStatus.OUT_FOR_DELIVERY);
+        assertThat(delivery(orderId).getStatus()).isEqualTo(DeliveryStatus.OUT_FOR_DELIVERY);
+
+        trip = dispatchService.markDelivered(courier.getId(), orderId);
+        assertThat(trip.getOutForDelivery()).isEmpty();
+        assertThat(status(orderId)).isEqualTo(OrderStatus.DELIVERED);
+        assertThat(delivery(orderId).getStatus()).isEqualTo(DeliveryStatus.DELIVERED);
+        assertThatThrownBy(() -> dispatchService.markDelivered(courier.getId(), orderId))
+                .hasMessageContaining("not out for delivery");
+    }
+
+    @Test
+    void staffCannotSendOutADeliveryACourierHolds() {
+        Courier courier = courierAt(1, 1);
+        Long orderId = placeOrder();
+        dispatchService.dispatch();
+        orderService.updateOrderStatus(orderId, OrderStatus.PREPARING);
+
+        assertThatThrownBy(() -> orderService.updateOrderStatus(orderId, OrderStatus.OUT_FOR_DELIVERY))
+                .hasMessageContaining("courier holds");
+
+        assertThat(status(orderId)).isEqualTo(OrderStatus.PREPARING);
+        assertThat(delivery(orderId).getCourierId()).isEqualTo(courier.getId());
+        assertThat(delivery(orderId).getStatus()).isEqualTo(DeliveryStatus.ASSIGNED);
+    }
+
+    @Test
+    void ordersSentOutWithoutACourierAreNotAssigned() {
+        Long orderId = placeOrder();
+        orderService.updateOrderStatus(orderId, OrderStatus.PREPARING);
+        orderService.updateOrderStatus(orderId, OrderStatus.OUT_FOR_DELIVERY);
+        Courier courier = courierAt(1, 1);
+
+        assertThat(dispatchService.dispatch()).isZero();
+        assertThat(dispatchService.getTrip(courier.getId()).getAwaitingPickup()).isEmpty();
+        assertThat(delivery(orderId).getCourierId()).isNull();
+        assertThat(delivery(orderId).getStatus()).isEqualTo(DeliveryStatus.OUT_FOR_DELIVERY);
+    }
+
+    @Test
+    void unpickedOrdersGoToAnotherCourierWhenOneGoesOffline() {
+        Courier first = courierAt(0.5, 1);
+        Long orderId = placeOrder();
+        assertThat(dispatchService.dispatch()).isEqualTo(1);
+        Courier second = courierAt(3, 1);
+
+        dispatchService.goOffline(first.getId());
+        assertThat(delivery(orderId).getCourierId()).isNull();
+        assertThat(delivery(orderId).getStatus()).isEqualTo(DeliveryStatus.PENDING);
+
+        assertThat(dispatchService.dispatch()).isEqualTo(1);
+        assertThat(dispatchService.getTrip(second.getId()).getAwaitingPickup()).containsExactly(orderId);
+        assertThat(delivery(orderId).getCourierId()).isEqualTo(second.getId());
+    }
+
+    @Test
+    void cancellingAnAssignedOrderFreesTheCourier() {
+        Courier courier = courierAt(1, 1);
+        Long cancelled = placeOrder();
+        dispatchService.dispatch();
+
+        orderService.cancelOrder(cancelled);
+        assertThat(dispatchService.getTrip(courier.getId()).getAwaitingPickup()).isEmpty();
+        assertThat(delivery(cancelled).getStatus()).isEqualTo(DeliveryStatus.CANCELLED);
+
+        Long next = placeOrder();
+        assertThat(dispatchService.dispatch()).isEqualTo(1);
+        assertThat(dispatchService.getTrip(courier.getId()).getAwaitingPickup()).containsExactly(next);
+    }
+
+    @Test
+    void courierRequestsAreRejectedWhereDispatchIsDisabled() {
+        Courier courier = courierAt(1, 1);
+        ReflectionTestUtils.setField(dispatchService, "enabled", false);
+        try {
+            assertThatThrownBy(() -> dispatchService.getTrip(courier.getId()))
+                    .hasMessageContaining("does not run on this instance");
+            assertThatThrownBy(() -> dispatchService.updateLocation(courier.getId(), latitude, longitude))
+                    .hasMessageContaining("does not run on this instance");
+        } finally {
+            ReflectionTestUtils.setField(dispatchService, "enabled", true);
+        }
+    }
+
+    // A courier due north of the restaurant
+    private Courier courierAt(double distanceKm, int capacity) {
+        User account = new User();
+        account.setFirstName("Test");
+        account.setLastName("Courier");
+        account.setEmail("courier" + COURIERS.incrementAndGet() + "@example.com");
+        account.setPassword("unused");
+
+        Courier courier = new Courier();
+        courier.setUserId(userRepository.save(account).getId());
+        courier.setName("Courier");
+        courier.setPhone("555-0100");
+        courier.setCapacity(capacity);
+        Long id = dispatchService.registerCourier(courier).getId();
+        return dispatchService.goOnline(id, latitude + distanceKm * KM, longitude);
+    }
+
+    private Long placeOrder() {
+        OrderRequest request = new OrderRequest(restaurantId,
+                List.of(new OrderItemRequest(menuItemId, 1)),
+                new DeliveryRequest("Test Customer", "555-0199", "2 Test St", "Testville", "TS", "12345", null),
+                new PaymentRequest("CARD", null, null, null));
+        return orderService.createOrder(userId, request).getId();
+    }
+
+    private Delivery delivery(Long orderId) {
+        return deliveryRepository.findByOrderId(orderId).orElseThrow();
+    }
+
+    private OrderStatus status(Long orderId) {
+        return orderRepository.findStatusById(orderId).orElseThrow();
+    }
+}
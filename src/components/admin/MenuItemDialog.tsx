@@ -41,7 +41,7 @@ const MenuItemDialog = ({ open, onOpenChange, menuItem, onSuccess }: MenuItemDia
         description: menuItem.description || '',
         price: menuItem.price?.toString() || '',
         category: menuItem.category || '',
-        restaurantId: menuItem.restaurant?.id?.toString() || '',
+        restaurantId: menuItem.restaurantId?.toString() || '',
         isVeg: menuItem.isVeg || false,
         rating: menuItem.rating?.toString() || '4.0',
         image: menuItem.image || ''
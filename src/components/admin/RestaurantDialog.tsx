@@ -25,6 +25,9 @@ const RestaurantDialog = ({ open, onOpenChange, restaurant, onSuccess }: Restaur
     minOrder: '',
     image: '',
     address: '',
+    latitude: '',
+    longitude: '',
+    deliveryRadiusKm: '',
     isOpen: true
   });
 
@@ -38,6 +41,9 @@ const RestaurantDialog = ({ open, onOpenChange, restaurant, onSuccess }: Restaur
         minOrder: restaurant.minOrder?.toString() || '',
         image: restaurant.image || '',
         address: restaurant.address || '',
+        latitude: restaurant.latitude?.toString() || '',
+        longitude: restaurant.longitude?.toString() || '',
+        deliveryRadiusKm: restaurant.deliveryRadiusKm?.toString() || '',
         isOpen: restaurant.isOpen !== undefined ? restaurant.isOpen : true
       });
     } else {
@@ -49,6 +55,9 @@ const RestaurantDialog = ({ open, onOpenChange, restaurant, onSuccess }: Restaur
         minOrder: '',
         image: '',
         address: '',
+        latitude: '',
+        longitude: '',
+        deliveryRadiusKm: '',
         isOpen: true
       });
     }
@@ -67,6 +76,9 @@ const RestaurantDialog = ({ open, onOpenChange, restaurant, onSuccess }: Restaur
         minOrder: parseFloat(formData.minOrder),
         image: formData.image,
         address: formData.address,
+        latitude: formData.latitude ? parseFloat(formData.latitude) : null,
+        longitude: formData.longitude ? parseFloat(formData.longitude) : null,
+        deliveryRadiusKm: formData.deliveryRadiusKm ? parseFloat(formData.deliveryRadiusKm) : null,
         isOpen: formData.isOpen
       };
 
@@ -135,6 +147,50 @@ const RestaurantDialog = ({ open, onOpenChange, restaurant, onSuccess }: Restaur
             />
           </div>
 
+          <div className="grid grid-cols-3 gap-4">
+            <div className="space-y-2">
+              <Label htmlFor="latitude">Latitude</Label>
+              <Input
+                id="latitude"
+                type="number"
+                step="any"
+                min="-90"
+                max="90"
+                value={formData.latitude}
+                onChange={(e) => setFormData({ ...formData, latitude: e.target.value })}
+                disabled={isLoading}
+              />
+            </div>
+
+            <div className="space-y-2">
+              <Label htmlFor="longitude">Longitude</Label>
+              <Input
+                id="longitude"
+                type="number"
+                step="any"
+                min="-180"
+                max="180"
+                value={formData.longitude}
+                onChange={(e) => setFormData({ ...formData, longitude: e.target.value })}
+                disabled={isLoading}
+              />
+            </div>
+
+            <div className="space-y-2">
+              <Label htmlFor="deliveryRadiusKm">Delivery Radius (km)</Label>
+              <Input
+                id="deliveryRadiusKm"
+                type="number"
+                step="0.5"
+                min="0"
+                value={formData.deliveryRadiusKm}
+                onChange={(e) => setFormData({ ...formData, deliveryRadiusKm: e.target.value })}
+                placeholder="Default"
+                disabled={isLoading}
+              />
+            </div>
+          </div>
+
           <div className="grid grid-cols-3 gap-4">
             <div className="space-y-2">
               <Label htmlFor="rating">Rating</Label>
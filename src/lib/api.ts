@@ -89,6 +89,15 @@ export const restaurantAPI = {
     return handleResponse(response);
   },
 
+  async getNearby(params: { lat: number; lng: number; radiusKm?: number; isOpen?: boolean; cuisine?: string; minRating?: number; limit?: number }) {
+    const query = new URLSearchParams();
+    Object.entries(params).forEach(([key, value]) => {
+      if (value !== undefined) query.set(key, String(value));
+    });
+    const response = await fetch(`${API_BASE_URL}/restaurants/nearby?${query}`);
+    return handleResponse(response);
+  },
+
   async create(data: any) {
     const response = await fetch(`${API_BASE_URL}/restaurants`, {
       method: 'POST',
@@ -157,41 +166,39 @@ export const menuItemAPI = {
 
 // Order API
 export const orderAPI = {
-  async create(data: any) {
+  // Retrying with the same idempotency key returns the original order instead of placing a new one
+  async create(data: any, idempotencyKey?: string) {
     const response = await fetch(`${API_BASE_URL}/orders`, {
       method: 'POST',
-      headers: getAuthHeaders(),
+      headers: idempotencyKey
+        ? { ...getAuthHeaders(), 'Idempotency-Key': idempotencyKey }
+        : getAuthHeaders(),
       body: JSON.stringify(data),
       credentials: 'include'
     });
     return handleResponse(response);
   },
 
-  async getAll() {
-    const response = await fetch(`${API_BASE_URL}/orders/status/PENDING`, {
+  // One keyset page of order summaries, newest first; pass the previous page's nextCursor for the next one
+  async getAll(status?: string, cursor?: string | null, limit = 20) {
+    const params = new URLSearchParams({ limit: String(limit) });
+    if (cursor) {
+      params.set('cursor', cursor);
+    }
+    const path = status ? `/orders/status/${status}` : '/orders';
+    const response = await fetch(`${API_BASE_URL}${path}?${params}`, {
       headers: getAuthHeaders(),
       credentials: 'include'
     });
-    const pending = await handleResponse(response);
-
-    // Get all statuses
-    const statuses = ['CONFIRMED', 'PREPARING', 'OUT_FOR_DELIVERY', 'DELIVERED', 'CANCELLED'];
-    const allOrders = [...pending];
-
-    for (const status of statuses) {
-      const res = await fetch(`${API_BASE_URL}/orders/status/${status}`, {
-        headers: getAuthHeaders(),
-        credentials: 'include'
-      });
-      const orders = await handleResponse(res);
-      allOrders.push(...orders);
-    }
-
-    return allOrders;
+    return handleResponse(response);
   },
 
-  async getByUser() {
-    const response = await fetch(`${API_BASE_URL}/orders/user`, {
+  async getByUser(cursor?: string | null, limit = 20) {
+    const params = new URLSearchParams({ limit: String(limit) });
+    if (cursor) {
+      params.set('cursor', cursor);
+    }
+    const response = await fetch(`${API_BASE_URL}/orders/user?${params}`, {
       headers: getAuthHeaders(),
       credentials: 'include'
     });
@@ -206,6 +213,12 @@ export const orderAPI = {
     return handleResponse(response);
   },
 
+  track(id: string, onStatus: (event: any) => void) {
+    const source = new EventSource(`${API_BASE_URL}/orders/${id}/track`);
+    source.addEventListener('status', (e) => onStatus(JSON.parse((e as MessageEvent).data)));
+    return () => source.close();
+  },
+
   async getByOrderNumber(orderNumber: string) {
     const response = await fetch(`${API_BASE_URL}/orders/order-number/${orderNumber}`, {
       headers: getAuthHeaders(),
@@ -233,9 +246,32 @@ export const orderAPI = {
   },
 };
 
+// Analytics API
+export const analyticsAPI = {
+  async getOrders(resolution = 'HOUR', buckets = 24, restaurantId?: string) {
+    const params = new URLSearchParams({ resolution, buckets: String(buckets) });
+    if (restaurantId) params.set('restaurantId', restaurantId);
+    const response = await fetch(`${API_BASE_URL}/analytics/orders?${params}`, {
+      headers: getAuthHeaders(),
+      credentials: 'include'
+    });
+    return handleResponse(response);
+  },
+
+  async getRestaurantTotals(resolution = 'DAY', buckets = 1, limit = 20) {
+    const params = new URLSearchParams({ resolution, buckets: String(buckets), limit: String(limit) });
+    const response = await fetch(`${API_BASE_URL}/analytics/orders/restaurants?${params}`, {
+      headers: getAuthHeaders(),
+      credentials: 'include'
+    });
+    return handleResponse(response);
+  },
+};
+
 export default {
   auth: authAPI,
   restaurant: restaurantAPI,
   menuItem: menuItemAPI,
   order: orderAPI,
+  analytics: analyticsAPI,
 };
@@ -19,6 +19,10 @@ export interface Restaurant {
   minOrder: number;
   image: string;
   address: string;
+  latitude?: number | null;
+  longitude?: number | null;
+  deliveryRadiusKm?: number | null;
+  distanceKm?: number;
   isOpen: boolean;
 }
 
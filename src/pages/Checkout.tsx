@@ -25,6 +25,8 @@ const Checkout = () => {
   } = useCart();
   const [paymentMethod, setPaymentMethod] = useState('card');
   const [isSubmitting, setIsSubmitting] = useState(false);
+  // Kept across retries of the same submission so a timed-out request is not placed twice
+  const [idempotencyKey, setIdempotencyKey] = useState(() => crypto.randomUUID());
   const [couponCode, setCouponCode] = useState('');
 
   const handleApplyCoupon = () => {
@@ -103,7 +105,7 @@ const Checkout = () => {
       };
 
       console.log('Order data being sent:', orderData);
-      const result = await orderAPI.create(orderData);
+      const result = await orderAPI.create(orderData, idempotencyKey);
       console.log('Order created successfully:', result);
       
       // Clear cart and show success message
@@ -117,6 +119,10 @@ const Checkout = () => {
       
     } catch (error: any) {
       console.error('Error placing order:', error);
+      // The server answered, so the next attempt is a new submission; network failures keep the key
+      if (!(error instanceof TypeError)) {
+        setIdempotencyKey(crypto.randomUUID());
+      }
       toast.error(error.message || 'Failed to place order. Please try again.');
     } finally {
       setIsSubmitting(false);
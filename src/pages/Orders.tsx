@@ -11,55 +11,46 @@ import { toast } from 'sonner';
 
 const Orders = () => {
   const [orders, setOrders] = useState<any[]>([]);
+  const [nextCursor, setNextCursor] = useState<string | null>(null);
   const [loading, setLoading] = useState(true);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [cancellingOrderId, setCancellingOrderId] = useState<string | null>(null);
 
   useEffect(() => {
     fetchOrders();
   }, []);
 
+  // Orders arrive a keyset page at a time, newest first
   const fetchOrders = async () => {
     try {
       setLoading(true);
-      console.log('Fetching orders from API...');
-      const data = await orderAPI.getByUser();
-      console.log('Orders received from API:', data);
-      console.log('Type of data:', typeof data);
-      console.log('Is array?', Array.isArray(data));
-      console.log('Data keys:', data ? Object.keys(data) : 'null');
-      
-      // Handle different response formats
-      let ordersArray = [];
-      if (Array.isArray(data)) {
-        ordersArray = data;
-      } else if (data && typeof data === 'object') {
-        // Check if it's an empty object
-        const keys = Object.keys(data);
-        if (keys.length === 0) {
-          console.log('Received empty object, setting orders to empty array');
-          ordersArray = [];
-        } else if (Array.isArray((data as any).data)) {
-          ordersArray = (data as any).data;
-        } else if (Array.isArray((data as any).orders)) {
-          ordersArray = (data as any).orders;
-        } else if (keys.length > 0) {
-          // If it's a single order object with properties, wrap it in an array
-          ordersArray = [data];
-        }
-      }
-      
-      console.log('Final orders array:', ordersArray);
-      console.log('Number of orders:', ordersArray.length);
-      setOrders(ordersArray);
+      const page = await orderAPI.getByUser();
+      setOrders(page.orders);
+      setNextCursor(page.nextCursor);
     } catch (error: any) {
       console.error('Error fetching orders:', error);
       toast.error('Failed to load orders');
       setOrders([]);
+      setNextCursor(null);
     } finally {
       setLoading(false);
     }
   };
 
+  const fetchMoreOrders = async () => {
+    try {
+      setLoadingMore(true);
+      const page = await orderAPI.getByUser(nextCursor);
+      setOrders((loaded) => [...loaded, ...page.orders]);
+      setNextCursor(page.nextCursor);
+    } catch (error: any) {
+      console.error('Error fetching orders:', error);
+      toast.error('Failed to load orders');
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const handleCancelOrder = async (orderId: string) => {
     if (!confirm('Are you sure you want to cancel this order?')) {
       return;
@@ -128,7 +119,7 @@ const Orders = () => {
               <div className="mt-1">{getStatusIcon(order.status)}</div>
               <div>
                 <h3 className="font-semibold text-lg mb-1">
-                  {order.restaurant?.name || 'Restaurant'}
+                  {order.restaurantName || 'Restaurant'}
                 </h3>
                 <p className="text-sm text-muted-foreground mb-1">
                   Order #{order.orderNumber}
@@ -136,14 +127,9 @@ const Orders = () => {
                 <p className="text-sm text-muted-foreground mb-2">
                   {new Date(order.orderDate).toLocaleString()}
                 </p>
-                <div className="flex flex-wrap gap-2">
-                  {order.items?.map((item: any, idx: number) => (
-                    <span key={idx} className="text-sm text-muted-foreground">
-                      {item.quantity}x {item.menuItem?.name || 'Item'}
-                      {idx < order.items.length - 1 && ','}
-                    </span>
-                  ))}
-                </div>
+                <p className="text-sm text-muted-foreground">
+                  {order.itemCount} {order.itemCount === 1 ? 'item' : 'items'}
+                </p>
               </div>
             </div>
             <div className="text-right">
@@ -244,6 +230,15 @@ const Orders = () => {
             )}
           </TabsContent>
         </Tabs>
+
+        {nextCursor && (
+          <div className="flex justify-center mt-6">
+            <Button variant="outline" onClick={fetchMoreOrders} disabled={loadingMore}>
+              {loadingMore && <Loader2 className="mr-2 h-4 w-4 animate-spin" />}
+              Load older orders
+            </Button>
+          </div>
+        )}
       </div>
     </div>
   );
@@ -97,7 +97,7 @@ const RestaurantDetail = () => {
   // Transform backend menu items to match frontend expectations
   const transformedMenuItems = menuItems.map(item => ({
     ...item,
-    restaurantId: item.restaurant?.id?.toString() || item.restaurantId,
+    restaurantId: item.restaurantId?.toString(),
     id: item.id?.toString() || item.id
   }));
 
@@ -5,10 +5,20 @@ import { Button } from '@/components/ui/button';
 import { Card, CardContent } from '@/components/ui/card';
 import { Input } from '@/components/ui/input';
 import { Badge } from '@/components/ui/badge';
-import { Search, Star, Clock, DollarSign, Loader2 } from 'lucide-react';
+import { Search, Star, Clock, DollarSign, Loader2, MapPin } from 'lucide-react';
 import { restaurantAPI } from '@/lib/api';
 import { Restaurant } from '@/lib/mockData';
 
+// Resolves to null when location is unavailable or denied, so the full list is shown instead
+const getPosition = () =>
+  new Promise<GeolocationPosition | null>((resolve) => {
+    if (!navigator.geolocation) {
+      resolve(null);
+      return;
+    }
+    navigator.geolocation.getCurrentPosition(resolve, () => resolve(null), { timeout: 5000, maximumAge: 300000 });
+  });
+
 const Restaurants = () => {
   const [searchQuery, setSearchQuery] = useState('');
   const [selectedCuisine, setSelectedCuisine] = useState<string | null>(null);
@@ -22,7 +32,10 @@ const Restaurants = () => {
       try {
         setIsLoading(true);
         setError(null);
-        const data = await restaurantAPI.getAll();
+        const position = await getPosition();
+        const data = position
+          ? await restaurantAPI.getNearby({ lat: position.coords.latitude, lng: position.coords.longitude, radiusKm: 10, limit: 100 })
+          : await restaurantAPI.getAll();
         setRestaurants(data);
       } catch (err: any) {
         console.error('Error fetching restaurants:', err);
@@ -134,6 +147,12 @@ const Restaurants = () => {
                           <DollarSign className="h-4 w-4" />
                           <span>Min ${restaurant.minOrder}</span>
                         </div>
+                        {restaurant.distanceKm !== undefined && (
+                          <div className="flex items-center gap-1 text-muted-foreground">
+                            <MapPin className="h-4 w-4" />
+                            <span>{restaurant.distanceKm} km</span>
+                          </div>
+                        )}
                       </div>
                     </CardContent>
                   </Card>
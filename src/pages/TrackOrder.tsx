@@ -19,6 +19,19 @@ const TrackOrder = () => {
     }
   }, [orderId]);
 
+  useEffect(() => {
+    if (!orderId) {
+      return;
+    }
+    return orderAPI.track(orderId, (event) => {
+      setOrder((current: any) => (current ? {
+        ...current,
+        status: event.status,
+        estimatedDelivery: event.estimatedDelivery ?? current.estimatedDelivery,
+      } : current));
+    });
+  }, [orderId]);
+
   const fetchOrder = async () => {
     try {
       setLoading(true);
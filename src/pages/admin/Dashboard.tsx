@@ -1,35 +1,56 @@
+import { useState, useEffect } from 'react';
 import Navbar from '@/components/Navbar';
 import { Card, CardContent, CardHeader, CardTitle } from '@/components/ui/card';
-import { DollarSign, ShoppingBag, TrendingUp, Users } from 'lucide-react';
+import { DollarSign, ShoppingBag, TrendingUp, Clock } from 'lucide-react';
+import { analyticsAPI } from '@/lib/api';
+
+const formatChange = (today: number, yesterday: number) => {
+  if (!yesterday) return today ? 'new' : '—';
+  const change = ((today - yesterday) / yesterday) * 100;
+  return `${change >= 0 ? '+' : ''}${change.toFixed(1)}%`;
+};
 
 const AdminDashboard = () => {
+  const [analytics, setAnalytics] = useState<any>(null);
+
+  useEffect(() => {
+    // Yesterday and today as day buckets, refreshed every minute
+    const load = () => analyticsAPI.getOrders('DAY', 2).then(setAnalytics).catch(console.error);
+    load();
+    const timer = setInterval(load, 60000);
+    return () => clearInterval(timer);
+  }, []);
+
+  const [yesterday, today] = analytics?.buckets ?? [];
+  const inProgress = Object.values(analytics?.inProgress ?? {}).reduce((sum: number, n: any) => sum + n, 0);
+
   const stats = [
     {
-      title: 'Total Revenue',
-      value: '$45,231',
-      change: '+20.1%',
+      title: 'Revenue Today',
+      value: `$${(today?.revenue ?? 0).toLocaleString(undefined, { maximumFractionDigits: 2 })}`,
+      change: formatChange(today?.revenue ?? 0, yesterday?.revenue ?? 0),
       icon: DollarSign,
       color: 'text-secondary',
     },
     {
       title: 'Orders Today',
-      value: '245',
-      change: '+12.5%',
+      value: (today?.orders ?? 0).toLocaleString(),
+      change: formatChange(today?.orders ?? 0, yesterday?.orders ?? 0),
       icon: ShoppingBag,
       color: 'text-primary',
     },
     {
-      title: 'Active Customers',
-      value: '1,234',
-      change: '+8.3%',
-      icon: Users,
+      title: 'Avg Order Value',
+      value: `$${(today?.averageOrderValue ?? 0).toFixed(2)}`,
+      change: formatChange(today?.averageOrderValue ?? 0, yesterday?.averageOrderValue ?? 0),
+      icon: TrendingUp,
       color: 'text-accent',
     },
     {
-      title: 'Growth',
-      value: '23.4%',
-      change: '+4.2%',
-      icon: TrendingUp,
+      title: 'In Progress',
+      value: inProgress.toLocaleString(),
+      change: `${analytics?.inProgress?.PENDING ?? 0} pending`,
+      icon: Clock,
       color: 'text-secondary',
     },
   ];
@@ -67,7 +67,7 @@ const AdminMenu = () => {
 
   const filteredItems = menuItems.filter((item) => {
     const matchesSearch = item.name.toLowerCase().includes(searchQuery.toLowerCase());
-    const matchesRestaurant = restaurantFilter === 'all' || item.restaurant?.id?.toString() === restaurantFilter;
+    const matchesRestaurant = restaurantFilter === 'all' || item.restaurantId?.toString() === restaurantFilter;
     return matchesSearch && matchesRestaurant;
   });
 
@@ -179,7 +179,7 @@ const AdminMenu = () => {
                           <Badge variant="outline">{item.category}</Badge>
                           {item.isVeg && <Badge variant="outline" className="bg-secondary/10">Veg</Badge>}
                         </div>
-                        <p className="text-xs text-muted-foreground">{item.restaurant?.name}</p>
+                        <p className="text-xs text-muted-foreground">{item.restaurantName}</p>
                       </div>
                       <p className="text-lg font-bold text-primary">${item.price}</p>
                     </div>
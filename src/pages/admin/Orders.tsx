@@ -13,17 +13,22 @@ const AdminOrders = () => {
   const [searchQuery, setSearchQuery] = useState('');
   const [statusFilter, setStatusFilter] = useState('all');
   const [orders, setOrders] = useState<any[]>([]);
+  const [nextCursor, setNextCursor] = useState<string | null>(null);
   const [isLoading, setIsLoading] = useState(true);
+  const [isLoadingMore, setIsLoadingMore] = useState(false);
 
   useEffect(() => {
     loadOrders();
-  }, []);
+  }, [statusFilter]);
+
+  const statusParam = () => (statusFilter === 'all' ? undefined : statusFilter);
 
   const loadOrders = async () => {
     setIsLoading(true);
     try {
-      const data = await orderAPI.getAll();
-      setOrders(data);
+      const page = await orderAPI.getAll(statusParam());
+      setOrders(page.orders);
+      setNextCursor(page.nextCursor);
     } catch (error: any) {
       toast.error('Failed to load orders');
     } finally {
@@ -31,11 +36,23 @@ const AdminOrders = () => {
     }
   };
 
-  const filteredOrders = orders.filter((order) => {
-    const matchesSearch = order.orderNumber?.toLowerCase().includes(searchQuery.toLowerCase());
-    const matchesStatus = statusFilter === 'all' || order.status === statusFilter;
-    return matchesSearch && matchesStatus;
-  });
+  const loadMore = async () => {
+    setIsLoadingMore(true);
+    try {
+      const page = await orderAPI.getAll(statusParam(), nextCursor);
+      setOrders((loaded) => [...loaded, ...page.orders]);
+      setNextCursor(page.nextCursor);
+    } catch (error: any) {
+      toast.error('Failed to load orders');
+    } finally {
+      setIsLoadingMore(false);
+    }
+  };
+
+  // The status filter is applied by the server; the search narrows the pages loaded so far
+  const filteredOrders = orders.filter((order) =>
+    order.orderNumber?.toLowerCase().includes(searchQuery.toLowerCase())
+  );
 
   const handleUpdateStatus = async (orderId: string, orderNumber: string, newStatus: string) => {
     try {
@@ -119,13 +136,13 @@ const AdminOrders = () => {
                           {getStatusBadge(order.status)}
                         </div>
                         <p className="text-sm text-muted-foreground mb-1">
-                          {order.restaurant?.name}
+                          {order.restaurantName}
                         </p>
                         <p className="text-sm text-muted-foreground">
                           {new Date(order.orderDate).toLocaleString()}
                         </p>
                         <p className="text-xs text-muted-foreground mt-1">
-                          Customer: {order.user?.firstName} {order.user?.lastName}
+                          Customer: {order.customerFirstName} {order.customerLastName}
                         </p>
                       </div>
                       <div className="text-right">
@@ -135,11 +152,9 @@ const AdminOrders = () => {
 
                     <div className="space-y-2 mb-4">
                       <p className="font-medium text-sm">Items:</p>
-                      {order.items?.map((item: any, idx: number) => (
-                        <p key={idx} className="text-sm text-muted-foreground">
-                          {item.quantity}x {item.menuItem?.name} - ${item.price?.toFixed(2)}
-                        </p>
-                      ))}
+                      <p className="text-sm text-muted-foreground">
+                        {order.itemCount} {order.itemCount === 1 ? 'item' : 'items'}
+                      </p>
                     </div>
 
                     <div className="mb-4">
@@ -185,6 +200,15 @@ const AdminOrders = () => {
           </div>
         )}
 
+        {!isLoading && nextCursor && (
+          <div className="flex justify-center mt-6">
+            <Button variant="outline" onClick={loadMore} disabled={isLoadingMore}>
+              {isLoadingMore && <Loader2 className="mr-2 h-4 w-4 animate-spin" />}
+              Load more
+            </Button>
+          </div>
+        )}
+
         {!isLoading && filteredOrders.length === 0 && (
           <div className="text-center py-12">
             <p className="text-muted-foreground">No orders found</p>